@@ -30,7 +30,7 @@ public class PrefGraph extends ForwardingMutableGraph<Alternative>
   public boolean putEdge(Alternative nodeU, Alternative nodeV) {
     final boolean put = super.putEdge(nodeU, nodeV);
     if (put) {
-      v.setGraphChanged();
+      v.setEdgeAdded(nodeU, nodeV);
     }
     return put;
   }
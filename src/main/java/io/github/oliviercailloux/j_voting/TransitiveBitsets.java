@@ -0,0 +1,219 @@
+package io.github.oliviercailloux.j_voting;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.graph.Graph;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.ImmutableGraph;
+
+/**
+ * Immutable. A transitively closed, irreflexive “is strictly preferred to” relation over at most
+ * {@link #MAX_SIZE} alternatives, represented, for each alternative, by the bits of its successors
+ * and of its predecessors, where the bit i stands for the alternative at index i.
+ * <p>
+ * Adding an edge takes O(m) word operations, and counting successors or predecessors is a bit
+ * count.
+ * </p>
+ */
+public final class TransitiveBitsets {
+  public static final int MAX_SIZE = Long.SIZE;
+
+  /**
+   * @param alternatives at most {@link #MAX_SIZE} alternatives, no duplicates.
+   * @return the empty relation over the given alternatives.
+   */
+  public static TransitiveBitsets empty(List<Alternative> alternatives) {
+    final ImmutableList<Alternative> copy = ImmutableList.copyOf(alternatives);
+    checkArgument(copy.size() <= MAX_SIZE);
+    return new TransitiveBitsets(copy, new long[copy.size()], new long[copy.size()]);
+  }
+
+  /**
+   * @param graph at most {@link #MAX_SIZE} nodes.
+   * @return the transitive closure of the given graph, without the reflexive edges.
+   */
+  public static TransitiveBitsets closureOf(Graph<Alternative> graph) {
+    final ImmutableList<Alternative> alternatives = ImmutableList.copyOf(graph.nodes());
+    final int m = alternatives.size();
+    checkArgument(m <= MAX_SIZE);
+    final ImmutableMap<Alternative, Integer> indices = getIndices(alternatives);
+    final long[] successors = new long[m];
+    for (int i = 0; i < m; ++i) {
+      for (Alternative successor : graph.successors(alternatives.get(i))) {
+        successors[i] |= 1L << indices.get(successor);
+      }
+    }
+    /** Warshall: after step k, the paths going through the alternatives up to k are known. */
+    for (int k = 0; k < m; ++k) {
+      for (int i = 0; i < m; ++i) {
+        if ((successors[i] & (1L << k)) != 0) {
+          successors[i] |= successors[k];
+        }
+      }
+    }
+    final long[] predecessors = new long[m];
+    for (int i = 0; i < m; ++i) {
+      successors[i] &= ~(1L << i);
+      for (long bits = successors[i]; bits != 0; bits &= bits - 1) {
+        predecessors[Long.numberOfTrailingZeros(bits)] |= 1L << i;
+      }
+    }
+    return new TransitiveBitsets(alternatives, successors, predecessors);
+  }
+
+  private static ImmutableMap<Alternative, Integer> getIndices(List<Alternative> alternatives) {
+    final ImmutableMap.Builder<Alternative, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < alternatives.size(); ++i) {
+      builder.put(alternatives.get(i), i);
+    }
+    return builder.build();
+  }
+
+  private final ImmutableList<Alternative> alternatives;
+  private final ImmutableMap<Alternative, Integer> indices;
+  private final long[] successors;
+  private final long[] predecessors;
+
+  private TransitiveBitsets(ImmutableList<Alternative> alternatives, long[] successors,
+      long[] predecessors) {
+    this.alternatives = alternatives;
+    this.indices = getIndices(alternatives);
+    this.successors = successors;
+    this.predecessors = predecessors;
+  }
+
+  private TransitiveBitsets(TransitiveBitsets base, long[] successors, long[] predecessors) {
+    this.alternatives = base.alternatives;
+    this.indices = base.indices;
+    this.successors = successors;
+    this.predecessors = predecessors;
+  }
+
+  /**
+   * @return the alternatives, in the order of their indices.
+   */
+  public ImmutableList<Alternative> getAlternatives() {
+    return alternatives;
+  }
+
+  public boolean contains(Alternative alternative) {
+    return indices.containsKey(alternative);
+  }
+
+  public int getIndex(Alternative alternative) {
+    final Integer index = indices.get(alternative);
+    checkArgument(index != null, alternative);
+    return index;
+  }
+
+  /**
+   * @return the bits of the alternatives strictly less preferred than the given one.
+   */
+  public long getSuccessors(Alternative alternative) {
+    return successors[getIndex(alternative)];
+  }
+
+  /**
+   * @return the bits of the alternatives strictly preferred to the given one.
+   */
+  public long getPredecessors(Alternative alternative) {
+    return predecessors[getIndex(alternative)];
+  }
+
+  public int getNbSuccessors(Alternative alternative) {
+    return Long.bitCount(getSuccessors(alternative));
+  }
+
+  public int getNbPredecessors(Alternative alternative) {
+    return Long.bitCount(getPredecessors(alternative));
+  }
+
+  /**
+   * @return the number of alternatives comparable to the given one, excluding itself.
+   */
+  public int getNbAdjacentNodes(Alternative alternative) {
+    final int index = getIndex(alternative);
+    return Long.bitCount(successors[index] | predecessors[index]);
+  }
+
+  public boolean hasEdgeConnecting(Alternative better, Alternative worse) {
+    return (getSuccessors(better) & (1L << getIndex(worse))) != 0;
+  }
+
+  public int getNbEdges() {
+    int nb = 0;
+    for (long bits : successors) {
+      nb += Long.bitCount(bits);
+    }
+    return nb;
+  }
+
+  /**
+   * @return this relation with the given edge added, then transitively closed, and without
+   *         reflexive edges.
+   */
+  public TransitiveBitsets withEdge(Alternative better, Alternative worse) {
+    final int u = getIndex(better);
+    final int v = getIndex(worse);
+    /** The new pairs are those from u or a predecessor of u to v or a successor of v. */
+    final long from = predecessors[u] | (1L << u);
+    final long to = successors[v] | (1L << v);
+    final long[] newSuccessors = successors.clone();
+    final long[] newPredecessors = predecessors.clone();
+    for (long bits = from; bits != 0; bits &= bits - 1) {
+      final int i = Long.numberOfTrailingZeros(bits);
+      newSuccessors[i] = (newSuccessors[i] | to) & ~(1L << i);
+    }
+    for (long bits = to; bits != 0; bits &= bits - 1) {
+      final int i = Long.numberOfTrailingZeros(bits);
+      newPredecessors[i] = (newPredecessors[i] | from) & ~(1L << i);
+    }
+    return new TransitiveBitsets(this, newSuccessors, newPredecessors);
+  }
+
+  public ImmutableGraph<Alternative> asGraph() {
+    final ImmutableGraph.Builder<Alternative> builder = GraphBuilder.directed().immutable();
+    for (Alternative alternative : alternatives) {
+      builder.addNode(alternative);
+    }
+    for (int i = 0; i < alternatives.size(); ++i) {
+      for (long bits = successors[i]; bits != 0; bits &= bits - 1) {
+        builder.putEdge(alternatives.get(i), alternatives.get(Long.numberOfTrailingZeros(bits)));
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the bits of all the alternatives.
+   */
+  public long getAllBits() {
+    return alternatives.size() == MAX_SIZE ? -1L : (1L << alternatives.size()) - 1;
+  }
+
+  @Override
+  public boolean equals(Object o2) {
+    if (!(o2 instanceof TransitiveBitsets)) {
+      return false;
+    }
+    final TransitiveBitsets t2 = (TransitiveBitsets) o2;
+    return alternatives.equals(t2.alternatives) && Arrays.equals(successors, t2.successors);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * alternatives.hashCode() + Arrays.hashCode(successors);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("Alternatives", alternatives)
+        .add("Graph", asGraph().edges()).toString();
+  }
+}
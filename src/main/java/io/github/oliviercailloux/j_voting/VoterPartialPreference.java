@@ -1,14 +1,35 @@
 package io.github.oliviercailloux.j_voting;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
 import java.util.Set;
+import java.util.function.Consumer;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Sets;
+import com.google.common.graph.EndpointPair;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.Graphs;
 import com.google.common.graph.ImmutableGraph;
 import com.google.common.graph.MutableGraph;
 
 public class VoterPartialPreference {
+  /**
+   * Equal transitive relations are shared among the partial preferences, so that voters with
+   * identical preferences, which are numerous with many voters, especially early in the
+   * elicitation, have the same transitive relation instance, and computations indexed by that
+   * instance are done once per class of voters.
+   */
+  private static final Interner<ImmutableGraph<Alternative>> TRANSITIVE_GRAPHS =
+      Interners.newWeakInterner();
+  private static final Interner<TransitiveBitsets> TRANSITIVE_BITSETS =
+      Interners.newWeakInterner();
 
   public static VoterPartialPreference about(Voter voter, Set<Alternative> alternatives) {
     final MutableGraph<Alternative> graph = GraphBuilder.directed().build();
@@ -18,6 +39,10 @@ public class VoterPartialPreference {
     final PrefGraph watcher = new PrefGraph(graph);
     final VoterPartialPreference v = new VoterPartialPreference(voter, watcher);
     watcher.setCallback(v);
+    if (v.isBitsetsSupported()) {
+      v.transitiveBitsets =
+          TRANSITIVE_BITSETS.intern(TransitiveBitsets.empty(ImmutableList.copyOf(graph.nodes())));
+    }
     return v;
   }
 
@@ -26,20 +51,95 @@ public class VoterPartialPreference {
     final PrefGraph watcher = new PrefGraph(graph);
     final VoterPartialPreference v = new VoterPartialPreference(vpp.getVoter(), watcher);
     watcher.setCallback(v);
+    v.transitiveBitsets = vpp.transitiveBitsets;
     return v;
   }
 
+  /**
+   * Returns the given partial preference with the given edge added, without copying its graph: the
+   * transitive relation is derived lazily from the one of the given preference, and the graph is
+   * copied only if {@link #asGraph()} is called. The given preference must not change during the
+   * life of the returned one.
+   * <p>
+   * If the given preference is itself such an overlay whose graph has not been requested, the
+   * returned one is instead a copy of the graph of its base with both edges added, so that overlays
+   * do not chain. The given preference is not modified in either case.
+   * </p>
+   */
+  public static VoterPartialPreference withEdgeAdded(VoterPartialPreference base,
+      Alternative better, Alternative worse) {
+    checkArgument(base.getAlternatives().contains(better));
+    checkArgument(base.getAlternatives().contains(worse));
+    if (base.pref == null) {
+      final MutableGraph<Alternative> graph = Graphs.copyOf(base.base.asGraph());
+      graph.putEdge(base.addedBetter, base.addedWorse);
+      graph.putEdge(better, worse);
+      final PrefGraph watcher = new PrefGraph(graph);
+      final VoterPartialPreference v = new VoterPartialPreference(base.voter, watcher);
+      watcher.setCallback(v);
+      if (v.isBitsetsSupported()) {
+        v.transitiveBitsets =
+            TRANSITIVE_BITSETS.intern(base.asTransitiveBitsets().withEdge(better, worse));
+      }
+      return v;
+    }
+    return new VoterPartialPreference(base, better, worse);
+  }
+
   private final Voter voter;
-  private final PrefGraph pref;
+  /**
+   * {@code null} iff this preference is an overlay whose graph has not been requested yet.
+   */
+  private PrefGraph pref;
+  /**
+   * Non {@code null} iff this preference is an overlay: the base preference with the edge from
+   * {@link #addedBetter} to {@link #addedWorse}.
+   */
+  private final VoterPartialPreference base;
+  private final Alternative addedBetter;
+  private final Alternative addedWorse;
   private ImmutableGraph<Alternative> transitiveEquivalent;
+  /**
+   * Maintained incrementally when edges are added, or {@code null} when it must be computed again
+   * or when there are too many alternatives.
+   */
+  private TransitiveBitsets transitiveBitsets;
+  /**
+   * Notified after each change of the graph, or {@code null}.
+   */
+  private Consumer<VoterPartialPreference> changeListener;
 
   public VoterPartialPreference(Voter voter, PrefGraph pref) {
     this.voter = voter;
     this.pref = pref;
+    base = null;
+    addedBetter = null;
+    addedWorse = null;
+    transitiveEquivalent = null;
+    transitiveBitsets = null;
+    changeListener = null;
+  }
+
+  private VoterPartialPreference(VoterPartialPreference base, Alternative addedBetter,
+      Alternative addedWorse) {
+    this.voter = base.voter;
+    this.pref = null;
+    this.base = base;
+    this.addedBetter = addedBetter;
+    this.addedWorse = addedWorse;
     transitiveEquivalent = null;
+    transitiveBitsets = null;
+    changeListener = null;
   }
 
   public MutableGraph<Alternative> asGraph() {
+    if (pref == null) {
+      final MutableGraph<Alternative> graph = Graphs.copyOf(base.asGraph());
+      graph.putEdge(addedBetter, addedWorse);
+      final PrefGraph watcher = new PrefGraph(graph);
+      watcher.setCallback(this);
+      pref = watcher;
+    }
     return this.pref;
   }
 
@@ -47,19 +147,128 @@ public class VoterPartialPreference {
    * Returns the “is strictly preferred to” relation, transitively closed, thus, not including
    * reflective edges.
    *
-   * @return a transitively closed, irreflexive graph.
+   * @return a transitively closed, irreflexive graph, the same instance as for any other partial
+   *         preference having an equal transitive graph.
    */
   public ImmutableGraph<Alternative> asTransitiveGraph() {
     if (transitiveEquivalent == null) {
-      final MutableGraph<Alternative> trans = Graphs.copyOf(Graphs.transitiveClosure(pref));
-      for (Alternative a : trans.nodes()) {
-        trans.removeEdge(a, a);
+      final ImmutableGraph<Alternative> transitive;
+      if (isBitsetsSupported()) {
+        transitive = asTransitiveBitsets().asGraph();
+      } else {
+        final MutableGraph<Alternative> trans =
+            Graphs.copyOf(Graphs.transitiveClosure(asGraph()));
+        for (Alternative a : trans.nodes()) {
+          trans.removeEdge(a, a);
+        }
+        transitive = ImmutableGraph.copyOf(trans);
       }
-      transitiveEquivalent = ImmutableGraph.copyOf(trans);
+      transitiveEquivalent = TRANSITIVE_GRAPHS.intern(transitive);
     }
     return transitiveEquivalent;
   }
 
+  /**
+   * @return {@code true} iff there are at most {@link TransitiveBitsets#MAX_SIZE} alternatives.
+   */
+  public boolean isBitsetsSupported() {
+    return getAlternatives().size() <= TransitiveBitsets.MAX_SIZE;
+  }
+
+  /**
+   * Returns the same relation as {@link #asTransitiveGraph()}, updated incrementally when an edge
+   * is added, and, for an overlay, derived from the one of its base with a single
+   * {@link TransitiveBitsets#withEdge(Alternative, Alternative)}.
+   *
+   * @return the same instance as for any other partial preference having equal bitsets.
+   * @throws IllegalStateException iff the bitsets are not supported.
+   */
+  public TransitiveBitsets asTransitiveBitsets() {
+    checkState(isBitsetsSupported());
+    if (transitiveBitsets == null) {
+      if (pref == null) {
+        transitiveBitsets = TRANSITIVE_BITSETS
+            .intern(base.asTransitiveBitsets().withEdge(addedBetter, addedWorse));
+      } else {
+        transitiveBitsets = TRANSITIVE_BITSETS.intern(TransitiveBitsets.closureOf(pref));
+      }
+    }
+    return transitiveBitsets;
+  }
+
+  /**
+   * Computes the transitive relation now, if not done yet, so that this preference may then be
+   * read concurrently, as long as it does not change.
+   */
+  public void computeTransitiveRelation() {
+    if (isBitsetsSupported()) {
+      asTransitiveBitsets();
+    } else {
+      asTransitiveGraph();
+    }
+  }
+
+  /**
+   * @return {@code true} iff the first alternative is strictly preferred to the second one,
+   *         possibly by transitivity.
+   */
+  public boolean isPreferred(Alternative better, Alternative worse) {
+    if (isBitsetsSupported()) {
+      return asTransitiveBitsets().hasEdgeConnecting(better, worse);
+    }
+    return asTransitiveGraph().hasEdgeConnecting(better, worse);
+  }
+
+  /**
+   * @return the alternatives, other than the given one, that are not comparable to it, in the
+   *         order of {@link #getAlternatives()}.
+   */
+  public ImmutableSet<Alternative> getIncomparables(Alternative alternative) {
+    if (isBitsetsSupported()) {
+      final TransitiveBitsets bitsets = asTransitiveBitsets();
+      final long comparables = bitsets.getSuccessors(alternative)
+          | bitsets.getPredecessors(alternative) | (1L << bitsets.getIndex(alternative));
+      final ImmutableSet.Builder<Alternative> builder = ImmutableSet.builder();
+      for (long bits = bitsets.getAllBits() & ~comparables; bits != 0; bits &= bits - 1) {
+        builder.add(bitsets.getAlternatives().get(Long.numberOfTrailingZeros(bits)));
+      }
+      return builder.build();
+    }
+    final ImmutableGraph<Alternative> graph = asTransitiveGraph();
+    final Set<Alternative> comparables = graph.adjacentNodes(alternative);
+    return graph.nodes().stream().filter(a -> !a.equals(alternative) && !comparables.contains(a))
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  /**
+   * @return {@code true} iff all the alternatives are comparable.
+   */
+  public boolean isComplete() {
+    final int m = getAlternatives().size();
+    final int nbEdges = isBitsetsSupported() ? asTransitiveBitsets().getNbEdges()
+        : asTransitiveGraph().edges().size();
+    return nbEdges == m * (m - 1) / 2;
+  }
+
+  /**
+   * @return the alternatives, in the order of the nodes of the graph.
+   */
+  public Set<Alternative> getAlternatives() {
+    return pref == null ? base.getAlternatives() : pref.nodes();
+  }
+
+  /**
+   * Returns the edges of the graph, as a view of those of the base preference if this is an overlay
+   * whose graph has not been requested yet, so that the graph is not copied.
+   */
+  private Set<EndpointPair<Alternative>> getEdges() {
+    if (pref == null) {
+      return Sets.union(base.getEdges(),
+          ImmutableSet.of(EndpointPair.ordered(addedBetter, addedWorse)));
+    }
+    return pref.edges();
+  }
+
   public Voter getVoter() {
     return voter;
   }
@@ -70,20 +279,52 @@ public class VoterPartialPreference {
       return false;
     }
     VoterPartialPreference p2 = (VoterPartialPreference) o2;
-    return voter.equals(p2.voter) && pref.equals(p2.pref);
+    return voter.equals(p2.voter) && getAlternatives().equals(p2.getAlternatives())
+        && getEdges().equals(p2.getEdges());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(this.voter, this.pref);
+    return Objects.hashCode(this.voter, getEdges());
   }
 
   @Override
   public String toString() {
-    return "Voter: " + voter + " Pref: " + pref.edges();
+    return "Voter: " + voter + " Pref: " + getEdges();
+  }
+
+  /**
+   * Sets the listener to notify, with this preference, after each change of its graph, replacing
+   * the previous one, if any. The listener is not transmitted to copies.
+   */
+  public void setChangeListener(Consumer<VoterPartialPreference> listener) {
+    changeListener = checkNotNull(listener);
   }
 
   public void setGraphChanged() {
     transitiveEquivalent = null;
+    transitiveBitsets = null;
+    notifyChanged();
+  }
+
+  /**
+   * Called when the given edge has been added to the graph, to update the transitive relation
+   * incrementally.
+   */
+  public void setEdgeAdded(Alternative better, Alternative worse) {
+    transitiveEquivalent = null;
+    if (transitiveBitsets != null && transitiveBitsets.contains(better)
+        && transitiveBitsets.contains(worse)) {
+      transitiveBitsets = TRANSITIVE_BITSETS.intern(transitiveBitsets.withEdge(better, worse));
+    } else {
+      transitiveBitsets = null;
+    }
+    notifyChanged();
+  }
+
+  private void notifyChanged() {
+    if (changeListener != null) {
+      changeListener.accept(this);
+    }
   }
 }
@@ -0,0 +1,72 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Cumulative counts and durations (in nanoseconds, as measured by {@link System#nanoTime()}) of
+ * the computations done using some constraints on weights: the optimizations that are not answered
+ * from the cache, and the computations of (minimal) max regrets, which include the optimizations
+ * they trigger.
+ * <p>
+ * Shared by a {@link ConstraintsOnWeights} and the objects it returns for hypothetical constraints,
+ * so that the computations on hypothetical answers are counted with those of the actual
+ * knowledge. The durations of the computations are obtained by subtracting the values read before
+ * and after them.
+ * </p>
+ * <p>
+ * Thread-safe.
+ * </p>
+ */
+public final class ComputationTimes {
+  public static ComputationTimes newInstance() {
+    return new ComputationTimes();
+  }
+
+  private final LongAdder nbOptimizations;
+  private final LongAdder optimizationNanos;
+  private final LongAdder nbRegretComputations;
+  private final LongAdder regretNanos;
+
+  private ComputationTimes() {
+    nbOptimizations = new LongAdder();
+    optimizationNanos = new LongAdder();
+    nbRegretComputations = new LongAdder();
+    regretNanos = new LongAdder();
+  }
+
+  public void addOptimization(long nanos) {
+    nbOptimizations.increment();
+    optimizationNanos.add(nanos);
+  }
+
+  public void addRegretComputation(long nanos) {
+    nbRegretComputations.increment();
+    regretNanos.add(nanos);
+  }
+
+  public long getNbOptimizations() {
+    return nbOptimizations.sum();
+  }
+
+  public long getOptimizationNanos() {
+    return optimizationNanos.sum();
+  }
+
+  public long getNbRegretComputations() {
+    return nbRegretComputations.sum();
+  }
+
+  public long getRegretNanos() {
+    return regretNanos.sum();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("Optimizations", getNbOptimizations())
+        .add("Optimization ns", getOptimizationNanos())
+        .add("Regret computations", getNbRegretComputations())
+        .add("Regret ns", getRegretNanos()).toString();
+  }
+}
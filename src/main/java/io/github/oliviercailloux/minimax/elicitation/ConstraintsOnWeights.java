@@ -1,15 +1,28 @@
 package io.github.oliviercailloux.minimax.elicitation;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
 
+import java.lang.ref.WeakReference;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
+import com.google.common.primitives.Doubles;
 
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
 import io.github.oliviercailloux.jlp.elements.Constraint;
@@ -29,6 +42,7 @@ import io.github.oliviercailloux.jlp.result.Result;
 import io.github.oliviercailloux.jlp.result.ResultStatus;
 import io.github.oliviercailloux.jlp.result.Solution;
 import io.github.oliviercailloux.jlp.solve.Solver;
+import io.github.oliviercailloux.minimax.elicitation.SolverMetrics.SolveKind;
 
 /**
  *
@@ -68,6 +82,50 @@ import io.github.oliviercailloux.jlp.solve.Solver;
  * a value of 1d, but because w2 ≥ 153 epsilon (if m = 20), with epsilon = 10^−6, we obtain a
  * maximal value of −0.5.
  * </p>
+ * <p>
+ * As long as no constraint has been added besides the convexity constraints, the feasible weights
+ * form a simplex whose m − 1 extreme points are known in closed form (see {@link #getVertices()}).
+ * Optimizing then amounts to evaluating the objective at each of these vertices, which is done
+ * without calling the solver.
+ * </p>
+ * <p>
+ * Otherwise, optimization uses a {@link WeightsProgram} that mirrors the constraints of this
+ * object: it keeps them loaded, together with a feasible basis, and only swaps the objective from
+ * one optimization to the next. The solver is used for computing the weight ranges, and when that
+ * program fails (see {@link WeightsProgram#maximize(List)}).
+ * </p>
+ * <p>
+ * The optima are cached, using as key the objective and the program it was optimized under, so
+ * that identical objectives (such as those of distinct pairs of alternatives that happen to have
+ * the same difference of rank counts) are optimized only once as long as the constraints stay the
+ * same.
+ * </p>
+ * <p>
+ * The methods {@link #getMaximum(SumTerms)} and {@link #getMinimum(SumTerms)} may be called
+ * concurrently, as long as no constraint is being added. The other optimization methods, which set
+ * the last solution, may not.
+ * </p>
+ * <p>
+ * Optionally (see {@link #setExact(boolean)}), the optimizations may use rational arithmetic
+ * ({@link ExactWeightsProgram}) instead of floating point arithmetic, with the λ values provided as
+ * rational numbers. The optimal values are then exactly the ones of the program, rounded only once
+ * at the end, so that equal regrets compare equal. Exact optimization uses a much smaller margin
+ * ({@link #EXACT_EPSILON}) in the convexity constraints, required only so that the optimal weights,
+ * once rounded, are still convex, thus almost removing the distortions described above.
+ * </p>
+ * <p>
+ * A hypothetical constraint may be evaluated using
+ * {@link #withConstraint(int, ComparisonOperator, Aprational)}, which leaves this object unchanged
+ * and returns a lightweight object sharing its cache. The model used by the solver is copied from
+ * this one only if the returned object needs the solver, and the solver itself is created only when
+ * first used.
+ * </p>
+ * <p>
+ * The solves of linear programs (by the solver or by the weights programs, but not the evaluations
+ * at the vertices) and the model buildings may be observed by setting some {@link SolverMetrics},
+ * which the objects obtained by copy or by {@link #withConstraint(int, ComparisonOperator,
+ * Aprational)} inherit. By default, nothing is measured.
+ * </p>
  *
  *
  * @author Olivier Cailloux
@@ -79,6 +137,18 @@ public class ConstraintsOnWeights {
    */
   public static final double EPSILON = 1e-6;
 
+  /**
+   * The margin used in the convexity constraints by exact optimization: 10^−12, much greater than
+   * the error due to rounding the optimal weights to doubles.
+   */
+  public static final Aprational EXACT_EPSILON =
+      new Aprational(new Apint(1), new Apint(1_000_000_000_000L));
+
+  /**
+   * The maximal number of optima kept in the cache.
+   */
+  private static final int CACHE_SIZE = 10_000;
+
   /**
    * @param m at least one: the number of ranks, or equivalently, the number of alternatives.
    */
@@ -87,14 +157,110 @@ public class ConstraintsOnWeights {
   }
 
   public static ConstraintsOnWeights copyOf(ConstraintsOnWeights cw) {
-    ConstraintsOnWeights c = new ConstraintsOnWeights(cw.builder, cw.convexityConstraintSet);
+    ConstraintsOnWeights c = new ConstraintsOnWeights(cw.getBuilder(), cw.program,
+        cw.exactProgram, cw.convexityConstraintSet, cw.constrainedBeyondConvexity);
+    c.exact = cw.exact;
+    c.metrics = cw.metrics;
     return c;
   }
 
+  /**
+   * An objective to be optimized under the constraints of a given program.
+   * <p>
+   * The program is weakly referenced, so that the programs of short-lived objects obtained using
+   * {@link #withConstraint(int, ComparisonOperator, Aprational)}, with their memoized tableaus, may
+   * be collected although their optima stay in the cache until evicted. A key whose program has
+   * been collected equals no other key.
+   * </p>
+   */
+  private static final class OptimizationKey {
+    private final WeakReference<WeightsProgram> program;
+    private final int programHash;
+    private final boolean exact;
+    private final Sense sense;
+    private final ImmutableList<Double> objective;
+
+    private OptimizationKey(WeightsProgram program, boolean exact, Sense sense,
+        ImmutableList<Double> objective) {
+      this.program = new WeakReference<>(program);
+      programHash = System.identityHashCode(program);
+      this.exact = exact;
+      this.sense = sense;
+      this.objective = objective;
+    }
+
+    @Override
+    public boolean equals(Object o2) {
+      if (this == o2) {
+        return true;
+      }
+      if (!(o2 instanceof OptimizationKey)) {
+        return false;
+      }
+      final OptimizationKey k2 = (OptimizationKey) o2;
+      final WeightsProgram referent = program.get();
+      /** Programs are immutable, and a new one is created whenever a constraint is added. */
+      return referent != null && referent == k2.program.get() && exact == k2.exact
+          && sense == k2.sense && objective.equals(k2.objective);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(programHash, exact, sense, objective);
+    }
+  }
+
+  /**
+   * {@code null} iff this object has been obtained using {@link #withConstraint(int,
+   * ComparisonOperator, Aprational)} and its model has not been needed yet.
+   */
   private MPBuilder builder;
-  private final Solver solver;
-  private Solution lastSolution;
+  /**
+   * Non {@code null} iff this object has been obtained using {@link #withConstraint(int,
+   * ComparisonOperator, Aprational)}, in which case its model is the one of the base object with
+   * the {@link #addedConstraint} added.
+   */
+  private final ConstraintsOnWeights base;
+  private final Constraint addedConstraint;
+  /**
+   * Has the same constraints as the builder (with the bounds of the variables).
+   */
+  private WeightsProgram program;
+  /**
+   * Has the same constraints as the program, with λ values kept as rational numbers, and with
+   * {@link #EXACT_EPSILON} as convexity margin. Changes whenever the program changes.
+   */
+  private ExactWeightsProgram exactProgram;
+  private boolean exact;
+  /**
+   * {@code null} until first used.
+   */
+  private Solver solver;
+  private ImmutableList<Double> lastSolution;
   private boolean convexityConstraintSet;
+  /**
+   * Whether some constraint has been added using {@link #addConstraint(int, ComparisonOperator,
+   * double)}.
+   */
+  private boolean constrainedBeyondConvexity;
+  /**
+   * The variable of rank r at index r − 1.
+   */
+  private ImmutableList<Variable> variables;
+  private ImmutableMap<Variable, Integer> ranksByVariable;
+  /**
+   * The extreme points of the feasible weights, lazily computed, valid only when
+   * {@link #isSimplex()}.
+   */
+  private volatile ImmutableList<ImmutableList<Double>> vertices;
+  /**
+   * The vertices of the feasible weights when using {@link #EXACT_EPSILON}, lazily computed, valid
+   * only when {@link #isSimplex()}.
+   */
+  private volatile ImmutableList<ImmutableList<Aprational>> exactVertices;
+  private final Cache<OptimizationKey, OptimalWeights> cache;
+  private final ComputationTimes times;
+  private SolverMetrics metrics;
 
   private ConstraintsOnWeights(int m) {
     checkArgument(m >= 1);
@@ -109,9 +275,21 @@ public class ConstraintsOnWeights {
       builder.addVariable(Variable.of("w", VariableDomain.REAL_DOMAIN, RangeOfDouble.closed(0d, 0d),
           ImmutableSet.of(m)));
     }
-    solver = new OrToolsSolver();
+    base = null;
+    addedConstraint = null;
+    program = WeightsProgram.withRankNumber(m);
+    exactProgram = ExactWeightsProgram.withRankNumber(m);
+    exact = false;
+    cache = newCache();
+    times = ComputationTimes.newInstance();
+    metrics = SolverMetrics.noOp();
+    solver = null;
     lastSolution = null;
     convexityConstraintSet = false;
+    constrainedBeyondConvexity = false;
+    initRanks();
+    vertices = null;
+    exactVertices = null;
   }
 
   /**
@@ -119,13 +297,89 @@ public class ConstraintsOnWeights {
    *
    * @param mp should come from another COW instance (to guarantee that the structure conforms to
    *        expectations).
+   * @param program should come from the same instance.
+   * @param exactProgram should come from the same instance.
    * @param convexityConstraintSet should come from the same instance (to guarantee coherence).
+   * @param constrainedBeyondConvexity should come from the same instance.
    */
-  private ConstraintsOnWeights(MPBuilder mp, boolean convexityConstraintSet) {
+  private ConstraintsOnWeights(MPBuilder mp, WeightsProgram program,
+      ExactWeightsProgram exactProgram, boolean convexityConstraintSet,
+      boolean constrainedBeyondConvexity) {
     builder = MPBuilder.copyOf(mp);
-    solver = new OrToolsSolver();
+    base = null;
+    addedConstraint = null;
+    this.program = program;
+    this.exactProgram = exactProgram;
+    exact = false;
+    cache = newCache();
+    times = ComputationTimes.newInstance();
+    metrics = SolverMetrics.noOp();
+    solver = null;
     lastSolution = null;
     this.convexityConstraintSet = convexityConstraintSet;
+    this.constrainedBeyondConvexity = constrainedBeyondConvexity;
+    initRanks();
+    vertices = null;
+    exactVertices = null;
+  }
+
+  /**
+   * Scoped constructor: the base object must not change during the life of this one.
+   */
+  private ConstraintsOnWeights(ConstraintsOnWeights base, Constraint addedConstraint,
+      WeightsProgram program, ExactWeightsProgram exactProgram) {
+    builder = null;
+    this.base = base;
+    this.addedConstraint = addedConstraint;
+    this.program = program;
+    this.exactProgram = exactProgram;
+    exact = base.exact;
+    /** Safe to share, as the keys refer to the program, which differs from those of the base. */
+    cache = base.cache;
+    times = base.times;
+    metrics = base.metrics;
+    solver = null;
+    lastSolution = null;
+    convexityConstraintSet = base.convexityConstraintSet;
+    constrainedBeyondConvexity = true;
+    variables = base.variables;
+    ranksByVariable = base.ranksByVariable;
+    vertices = null;
+    exactVertices = null;
+  }
+
+  private static Cache<OptimizationKey, OptimalWeights> newCache() {
+    return CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).recordStats().build();
+  }
+
+  private void initRanks() {
+    final int m = builder.getVariables().size();
+    final ImmutableList.Builder<Variable> variablesBuilder = ImmutableList.builder();
+    final ImmutableMap.Builder<Variable, Integer> ranksBuilder = ImmutableMap.builder();
+    for (int rank = 1; rank <= m; ++rank) {
+      final Variable variable = builder.getVariable(getVariableDescription(rank));
+      variablesBuilder.add(variable);
+      ranksBuilder.put(variable, rank);
+    }
+    variables = variablesBuilder.build();
+    ranksByVariable = ranksBuilder.build();
+  }
+
+  private MPBuilder getBuilder() {
+    if (builder == null) {
+      final long start = startTiming();
+      builder = MPBuilder.copyOf(base.getBuilder());
+      builder.addConstraint(addedConstraint);
+      recordModelBuilding(start);
+    }
+    return builder;
+  }
+
+  private Solver getSolver() {
+    if (solver == null) {
+      solver = new OrToolsSolver();
+    }
+    return solver;
   }
 
   /**
@@ -133,12 +387,65 @@ public class ConstraintsOnWeights {
    */
   public void setConvexityConstraint() {
     checkState(!convexityConstraintSet);
+    final long start = startTiming();
     for (int rank = 1; rank <= getM() - 2; ++rank) {
-      builder.addConstraint(Constraint.of("Convexity rank " + rank,
+      getBuilder().addConstraint(Constraint.of("Convexity rank " + rank,
           SumTerms.of(1d, getVariable(rank), -2d, getVariable(rank + 1), 1d, getVariable(rank + 2)),
           ComparisonOperator.GE, EPSILON));
+      program = program.withConstraint(getCoefficients(ImmutableMap.of(rank, 1d, rank + 1, -2d,
+          rank + 2, 1d)), ComparisonOperator.GE, EPSILON);
+      exactProgram = exactProgram.withConstraint(getExactCoefficients(rank, new Apint(1)),
+          ComparisonOperator.GE, EXACT_EPSILON);
     }
     convexityConstraintSet = true;
+    recordModelBuilding(start);
+  }
+
+  /**
+   * Sets whether the optimizations use rational arithmetic. Defaults to {@code false}. The objects
+   * obtained using {@link #withConstraint(int, ComparisonOperator, Aprational)} inherit this
+   * setting.
+   */
+  public void setExact(boolean exact) {
+    this.exact = exact;
+  }
+
+  public boolean isExact() {
+    return exact;
+  }
+
+  public boolean isConvexityConstraintSet() {
+    return convexityConstraintSet;
+  }
+
+  /**
+   * Returns the counts and durations of the optimizations done by this object, also counting those
+   * of the objects obtained from it by
+   * {@link #withConstraint(int, ComparisonOperator, Aprational)}.
+   */
+  public ComputationTimes getComputationTimes() {
+    return times;
+  }
+
+  /**
+   * Sets the metrics that observe the solves and the model buildings of this object, and of the
+   * objects later obtained from it. Defaults to {@link SolverMetrics#noOp()}.
+   */
+  public void setMetrics(SolverMetrics metrics) {
+    this.metrics = checkNotNull(metrics);
+  }
+
+  public SolverMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns an immutable object that is replaced whenever the feasible weights or the arithmetic
+   * used by the optimizations change. Optima obtained while this object stays the same (compared by
+   * identity) are optima under the same constraints.
+   */
+  public Object getProgramIdentity() {
+    return exact ? exactProgram : program;
   }
 
   /**
@@ -149,23 +456,93 @@ public class ConstraintsOnWeights {
    * @param lambda a finite double.
    */
   void addConstraint(int i, ComparisonOperator op, double lambda) {
+    checkArgument(Double.isFinite(lambda));
+    addConstraint(i, op, ExactWeightsProgram.toAprational(lambda));
+  }
+
+  /**
+   * Adds the constraint: (w_i − w_{i+1}) OP λ (w_{i+1} − w_{i+2}), where λ is used exactly by
+   * exact optimization, and rounded otherwise.
+   *
+   * @param i 1 ≤ i ≤ m-2.
+   * @param op the operator.
+   * @param lambda a value representable as a finite double.
+   */
+  void addConstraint(int i, ComparisonOperator op, Aprational lambda) {
     checkArgument(i >= 1);
     checkArgument(i <= getM() - 2);
-    checkArgument(Double.isFinite(lambda));
+    final double lambdaDouble = lambda.doubleValue();
+    checkArgument(Double.isFinite(lambdaDouble));
+
+    final long start = startTiming();
+    getBuilder().addConstraint(getConstraint(i, op, lambdaDouble));
+    program = program.withConstraint(getCoefficients(i, lambdaDouble), op, 0d);
+    exactProgram =
+        exactProgram.withConstraint(getExactCoefficients(i, lambda), op, new Apint(0));
+    constrainedBeyondConvexity = true;
+    recordModelBuilding(start);
+  }
 
+  /**
+   * Returns an object whose constraints are those of this one plus the constraint: (w_i − w_{i+1})
+   * OP λ (w_{i+1} − w_{i+2}), without copying this one. This object must not change during the life
+   * of the returned one.
+   *
+   * @param i 1 ≤ i ≤ m-2.
+   * @param op the operator.
+   * @param lambda a finite double.
+   */
+  ConstraintsOnWeights withConstraint(int i, ComparisonOperator op, Aprational lambda) {
+    checkArgument(i >= 1);
+    checkArgument(i <= getM() - 2);
+    final double lambdaDouble = lambda.doubleValue();
+    checkArgument(Double.isFinite(lambdaDouble));
+
+    final long start = startTiming();
+    final ConstraintsOnWeights scoped = new ConstraintsOnWeights(this,
+        getConstraint(i, op, lambdaDouble),
+        program.withConstraint(getCoefficients(i, lambdaDouble), op, 0d),
+        exactProgram.withConstraint(getExactCoefficients(i, lambda), op, new Apint(0)));
+    recordModelBuilding(start);
+    return scoped;
+  }
+
+  private Constraint getConstraint(int i, ComparisonOperator op, double lambda) {
     final SumTermsBuilder sumBuilder = SumTerms.builder();
     sumBuilder.addTerm(1, getVariable(i));
     sumBuilder.addTerm(-lambda - 1d, getVariable(i + 1));
     sumBuilder.addTerm(lambda, getVariable(i + 2));
-    final Constraint cst = Constraint.of(sumBuilder.build(), op, 0d);
-    builder.addConstraint(cst);
+    return Constraint.of(sumBuilder.build(), op, 0d);
+  }
+
+  private ImmutableList<Double> getCoefficients(int i, double lambda) {
+    return getCoefficients(ImmutableMap.of(i, 1d, i + 1, -lambda - 1d, i + 2, lambda));
+  }
+
+  /**
+   * @return the m coefficients of (w_i − w_{i+1}) − λ (w_{i+1} − w_{i+2}).
+   */
+  private ImmutableList<Aprational> getExactCoefficients(int i, Aprational lambda) {
+    final ImmutableList.Builder<Aprational> builder = ImmutableList.builder();
+    for (int rank = 1; rank <= getM(); ++rank) {
+      if (rank == i) {
+        builder.add(new Apint(1));
+      } else if (rank == i + 1) {
+        builder.add(lambda.negate().subtract(new Apint(1)));
+      } else if (rank == i + 2) {
+        builder.add(lambda);
+      } else {
+        builder.add(new Apint(0));
+      }
+    }
+    return builder.build();
   }
 
   /**
    * @return at least one.
    */
   public int getM() {
-    return builder.getVariables().size();
+    return variables.size();
   }
 
   public Range<Double> getWeightRange(int rank) {
@@ -180,53 +557,379 @@ public class ConstraintsOnWeights {
   }
 
   public double maximize(SumTerms sum) {
-    final Objective obj = Objective.max(sum);
-    return optimize(obj);
+    final OptimalWeights optimum = getMaximum(sum);
+    lastSolution = optimum.getWeights();
+    return optimum.getValue();
   }
 
   public double minimize(SumTerms sum) {
-    final Objective obj;
-    if (sum.size() == 0) {
-      obj = Objective.ZERO;
-    } else {
-      obj = Objective.min(sum);
-    }
-    return optimize(obj);
+    final OptimalWeights optimum = getMinimum(sum);
+    lastSolution = optimum.getWeights();
+    return optimum.getValue();
+  }
+
+  /**
+   * Similar to {@link #maximize(SumTerms)}, but does not set the last solution, thus, may be called
+   * concurrently.
+   */
+  public OptimalWeights getMaximum(SumTerms sum) {
+    return optimize(getCoefficients(sum), Sense.MAX);
+  }
+
+  /**
+   * Similar to {@link #minimize(SumTerms)}, but does not set the last solution, thus, may be called
+   * concurrently.
+   */
+  public OptimalWeights getMinimum(SumTerms sum) {
+    return optimize(getCoefficients(sum), Sense.MIN);
+  }
+
+  /**
+   * Returns statistics about the cache of optima, which is used by {@link #maximize(SumTerms)} and
+   * {@link #minimize(SumTerms)}. Entries computed under constraints that have changed since then
+   * are never hit and get evicted over time.
+   */
+  public CacheStats getCacheStats() {
+    return cache.stats();
+  }
+
+  /**
+   * Maximizes by building and solving a whole new program using the solver, as was done before
+   * introducing {@link WeightsProgram}. Useful only for comparison.
+   */
+  double maximizeUsingSolver(SumTerms sum) {
+    final Objective obj = Objective.max(sum);
+    return optimizeUsingSolver(obj);
+  }
+
+  /**
+   * Minimizes by building and solving a whole new program using the solver. Useful only for
+   * comparison.
+   */
+  double minimizeUsingSolver(SumTerms sum) {
+    final Objective obj = Objective.min(sum);
+    return optimizeUsingSolver(obj);
   }
 
   public PSRWeights getLastSolution() {
     /** PSRWeights only accept convex weights. */
     checkState(convexityConstraintSet);
-    final List<Double> weights = new LinkedList<>();
-    for (int r = 1; r <= getM(); ++r) {
-      final double value = lastSolution.getValue(getVariable(r));
-      weights.add(value);
+    return PSRWeights.given(lastSolution);
+  }
+
+  /**
+   * Returns {@code true} iff the feasible weights are exactly those satisfying the convexity
+   * constraints, in which case they form a simplex whose vertices are given by
+   * {@link #getVertices()}.
+   */
+  private boolean isSimplex() {
+    return convexityConstraintSet && !constrainedBeyondConvexity;
+  }
+
+  /**
+   * <p>
+   * Write d_r = w_r − w_{r+1}, for 1 ≤ r ≤ m − 1. The feasible weights (when {@link #isSimplex()})
+   * are those such that d_r − d_{r+1} ≥ epsilon for r ≤ m − 2, d_{m−1} ≥ 0, and the d_r sum to one.
+   * Write e_r = d_r − d_{r+1} − epsilon for r ≤ m − 2 and e_{m−1} = d_{m−1}. Then the feasible
+   * region is the set of non-negative vectors e such that Σ_r r e_r = R, with R = 1 − epsilon (m −
+   * 2)(m − 1)/2, a simplex whose k-th vertex, for 1 ≤ k ≤ m − 1, has e_k = R/k and all other
+   * components zero.
+   * </p>
+   * <p>
+   * Equivalently, the k-th vertex is such that d_r = epsilon (m − 1 − r) + R/k if r ≤ k, and d_r =
+   * epsilon (m − 1 − r) otherwise. Without epsilon, these are the k-approval-like vectors (1, (k −
+   * 1)/k, …, 1/k, 0, …, 0).
+   * </p>
+   *
+   * @return the m − 1 vertices (a single one if m = 1), each one listing the weights from rank 1 to
+   *         rank m.
+   */
+  private ImmutableList<ImmutableList<Double>> getVertices() {
+    checkState(isSimplex());
+    if (vertices != null) {
+      return vertices;
     }
-    return PSRWeights.given(weights);
+
+    final int m = getM();
+    if (m == 1) {
+      vertices = ImmutableList.of(ImmutableList.of(1d));
+      return vertices;
+    }
+
+    final double remaining = 1d - EPSILON * (m - 2) * (m - 1) / 2d;
+    /** Otherwise, the program is infeasible, just as the solver would tell us. */
+    checkArgument(remaining > 0d);
+    final ImmutableList.Builder<ImmutableList<Double>> verticesBuilder = ImmutableList.builder();
+    for (int k = 1; k <= m - 1; ++k) {
+      final double[] weights = new double[m];
+      weights[m - 1] = 0d;
+      for (int r = m - 1; r >= 2; --r) {
+        final double difference = EPSILON * (m - 1 - r) + (r <= k ? remaining / k : 0d);
+        weights[r - 1] = weights[r] + difference;
+      }
+      /** This is exact up to imprecision, and required to be exact by PSRWeights. */
+      weights[0] = 1d;
+      final ImmutableList.Builder<Double> vertexBuilder = ImmutableList.builder();
+      for (double weight : weights) {
+        vertexBuilder.add(weight);
+      }
+      verticesBuilder.add(vertexBuilder.build());
+    }
+    vertices = verticesBuilder.build();
+    return vertices;
+  }
+
+  private OptimalWeights optimize(ImmutableList<Double> objective, Sense sense) {
+    final OptimizationKey key = new OptimizationKey(program, exact, sense, objective);
+    OptimalWeights optimum = cache.getIfPresent(key);
+    if (optimum != null) {
+      return optimum;
+    }
+    final long start = System.nanoTime();
+    if (exact) {
+      optimum = optimizeExactly(objective, sense);
+      cache.put(key, optimum);
+    } else {
+      final ImmutableList<Double> weights;
+      if (isSimplex()) {
+        weights = optimizeOverVertices(objective, sense);
+      } else {
+        weights = optimizeUsingProgram(objective, sense);
+      }
+      optimum = OptimalWeights.given(getValue(objective, weights), weights);
+      cache.put(key, optimum);
+    }
+    times.addOptimization(System.nanoTime() - start);
+    return optimum;
+  }
+
+  /**
+   * Optimizes using the program, falling back to the solver when the program fails: when it is
+   * infeasible (which the solver then confirms by throwing) or, rarely, when rounding errors make
+   * its solution violate the constraints.
+   */
+  private ImmutableList<Double> optimizeUsingProgram(ImmutableList<Double> objective,
+      Sense sense) {
+    final long solveStart = startTiming();
+    final ImmutableList<Double> weights;
+    try {
+      weights = sense == Sense.MAX ? program.maximize(objective) : program.minimize(objective);
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      recordSolve(SolveKind.WEIGHTS_PROGRAM, ResultStatus.INFEASIBLE, solveStart);
+      return getWeights(solveUsingSolver(getObjective(objective, sense)));
+    }
+    recordSolve(SolveKind.WEIGHTS_PROGRAM, ResultStatus.OPTIMAL, solveStart);
+    return weights;
+  }
+
+  private OptimalWeights optimizeExactly(ImmutableList<Double> objective, Sense sense) {
+    final ImmutableList<Aprational> exactObjective = objective.stream()
+        .map(ExactWeightsProgram::toAprational).collect(ImmutableList.toImmutableList());
+    final ImmutableList<Aprational> weights;
+    if (isSimplex()) {
+      weights = optimizeOverExactVertices(exactObjective, sense);
+    } else {
+      final long solveStart = startTiming();
+      try {
+        weights = sense == Sense.MAX ? exactProgram.maximize(exactObjective)
+            : exactProgram.minimize(exactObjective);
+      } catch (IllegalArgumentException e) {
+        recordSolve(SolveKind.EXACT_WEIGHTS_PROGRAM, ResultStatus.INFEASIBLE, solveStart);
+        throw e;
+      }
+      recordSolve(SolveKind.EXACT_WEIGHTS_PROGRAM, ResultStatus.OPTIMAL, solveStart);
+    }
+    final double value = ExactWeightsProgram.getValue(exactObjective, weights).doubleValue();
+    return OptimalWeights.given(value,
+        weights.stream().map(Aprational::doubleValue).collect(ImmutableList.toImmutableList()));
+  }
+
+  private ImmutableList<Aprational> optimizeOverExactVertices(ImmutableList<Aprational> objective,
+      Sense sense) {
+    ImmutableList<Aprational> best = null;
+    Aprational bestValue = null;
+    for (ImmutableList<Aprational> vertex : getExactVertices()) {
+      final Aprational value = ExactWeightsProgram.getValue(objective, vertex);
+      final boolean better = best == null
+          || (sense == Sense.MAX ? value.compareTo(bestValue) > 0 : value.compareTo(bestValue) < 0);
+      if (better) {
+        best = vertex;
+        bestValue = value;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return the vertices described in {@link #getVertices()}, using {@link #EXACT_EPSILON}.
+   */
+  private ImmutableList<ImmutableList<Aprational>> getExactVertices() {
+    checkState(isSimplex());
+    if (exactVertices != null) {
+      return exactVertices;
+    }
+
+    final int m = getM();
+    final ImmutableList.Builder<ImmutableList<Aprational>> verticesBuilder =
+        ImmutableList.builder();
+    if (m == 1) {
+      verticesBuilder.add(ImmutableList.of(new Apint(1)));
+    }
+    final Aprational remaining = new Apint(1)
+        .subtract(EXACT_EPSILON.multiply(new Apint((m - 2L) * (m - 1L) / 2L)));
+    checkArgument(m == 1 || remaining.signum() > 0);
+    for (int k = 1; k <= m - 1; ++k) {
+      final Aprational[] weights = new Aprational[m];
+      weights[m - 1] = new Apint(0);
+      for (int r = m - 1; r >= 1; --r) {
+        final Aprational margin = EXACT_EPSILON.multiply(new Apint(m - 1 - r));
+        final Aprational difference =
+            r <= k ? margin.add(remaining.divide(new Apint(k))) : margin;
+        weights[r - 1] = weights[r].add(difference);
+      }
+      /** The differences sum to one. */
+      verify(weights[0].compareTo(new Apint(1)) == 0);
+      verticesBuilder.add(ImmutableList.copyOf(weights));
+    }
+    exactVertices = verticesBuilder.build();
+    return exactVertices;
+  }
+
+  /**
+   * Optimizes by evaluating the objective at each vertex of the feasible weights, and retaining the
+   * first optimal vertex found. The result is thus independent of any solver (and of any previous
+   * call).
+   *
+   * @return the optimal weights.
+   */
+  private ImmutableList<Double> optimizeOverVertices(ImmutableList<Double> objective,
+      Sense sense) {
+    ImmutableList<Double> best = null;
+    double bestValue = Double.NaN;
+    for (ImmutableList<Double> vertex : getVertices()) {
+      final double value = getValue(objective, vertex);
+      final boolean better =
+          best == null || (sense == Sense.MAX ? value > bestValue : value < bestValue);
+      if (better) {
+        best = vertex;
+        bestValue = value;
+      }
+    }
+    return best;
+  }
+
+  private static double getValue(List<Double> objective, List<Double> weights) {
+    double value = 0d;
+    for (int r = 0; r < objective.size(); ++r) {
+      value += objective.get(r) * weights.get(r);
+    }
+    return value;
+  }
+
+  /**
+   * @return m coefficients, the first one corresponding to rank one.
+   */
+  private ImmutableList<Double> getCoefficients(SumTerms sum) {
+    final double[] coefficients = new double[getM()];
+    for (Term term : sum) {
+      final Integer rank = ranksByVariable.get(term.getVariable());
+      checkArgument(rank != null, "Unknown variable: %s.", term.getVariable());
+      coefficients[rank - 1] += term.getCoefficient();
+    }
+    return ImmutableList.copyOf(Doubles.asList(coefficients));
+  }
+
+  /**
+   * @param coefficientsByRank ranks between 1 and m.
+   * @return m coefficients, the first one corresponding to rank one.
+   */
+  private ImmutableList<Double> getCoefficients(Map<Integer, Double> coefficientsByRank) {
+    final double[] coefficients = new double[getM()];
+    for (Map.Entry<Integer, Double> entry : coefficientsByRank.entrySet()) {
+      coefficients[entry.getKey() - 1] += entry.getValue();
+    }
+    return ImmutableList.copyOf(Doubles.asList(coefficients));
   }
 
   private Variable getVariable(int rank) {
     checkArgument(rank >= 1);
     checkArgument(rank <= getM());
-    return builder.getVariable(getVariableDescription(rank));
+    return variables.get(rank - 1);
   }
 
   private String getVariableDescription(int rank) {
     return Variable.getDefaultDescription("w", ImmutableList.of(rank));
   }
 
-  private double optimize(Objective obj) {
-    builder.setObjective(obj);
-    final Result result = solver.solve(builder);
+  private double optimizeUsingSolver(Objective obj) {
+    final Solution solution = solveUsingSolver(obj);
+    lastSolution = getWeights(solution);
+    return solution.getObjectiveValue();
+  }
+
+  /**
+   * Synchronized as it sets the objective of the model, and may be called by
+   * {@link #getMaximum(SumTerms)} and {@link #getMinimum(SumTerms)}, when the program fails.
+   *
+   * @throws IllegalArgumentException if the solver finds no optimum.
+   */
+  private synchronized Solution solveUsingSolver(Objective obj) {
+    final MPBuilder mp = getBuilder();
+    mp.setObjective(obj);
+    final Result result = solve(mp);
     checkArgument(result.getResultStatus().equals(ResultStatus.OPTIMAL));
-    lastSolution = result.getSolution().get();
-    return lastSolution.getObjectiveValue();
+    return result.getSolution().get();
+  }
+
+  private ImmutableList<Double> getWeights(Solution solution) {
+    final List<Double> weights = new LinkedList<>();
+    for (int r = 1; r <= getM(); ++r) {
+      final double value = solution.getValue(getVariable(r));
+      weights.add(value);
+    }
+    return ImmutableList.copyOf(weights);
+  }
+
+  private Objective getObjective(List<Double> objective, Sense sense) {
+    final SumTermsBuilder sumBuilder = SumTerms.builder();
+    for (int r = 1; r <= getM(); ++r) {
+      sumBuilder.addTerm(objective.get(r - 1), getVariable(r));
+    }
+    final SumTerms sum = sumBuilder.build();
+    return sense == Sense.MAX ? Objective.max(sum) : Objective.min(sum);
+  }
+
+  private Result solve(IMP mp) {
+    final long start = startTiming();
+    final Result result = getSolver().solve(mp);
+    recordSolve(SolveKind.OR_TOOLS, result.getResultStatus(), start);
+    return result;
+  }
+
+  /**
+   * @return the current time if the metrics are enabled, and zero otherwise, so that the no-op
+   *         metrics cost no call to the clock.
+   */
+  private long startTiming() {
+    return metrics.isEnabled() ? System.nanoTime() : 0l;
+  }
+
+  private void recordSolve(SolveKind kind, ResultStatus status, long start) {
+    if (metrics.isEnabled()) {
+      metrics.recordSolve(kind, status, System.nanoTime() - start);
+    }
+  }
+
+  private void recordModelBuilding(long start) {
+    if (metrics.isEnabled()) {
+      metrics.recordModelBuilding(System.nanoTime() - start);
+    }
   }
 
   private double bound(IMP mp) {
     final double bound;
 
-    final Result result = solver.solve(mp);
+    final Result result = solve(mp);
     switch (result.getResultStatus()) {
       case INFEASIBLE:
       case MEMORY_LIMIT_REACHED:
@@ -249,18 +952,19 @@ public class ConstraintsOnWeights {
   }
 
   private Range<Double> boundObjective(SumTerms objectiveFunction) {
-    builder.setObjective(Objective.min(objectiveFunction));
-    final double lBound = bound(builder);
+    final MPBuilder mp = getBuilder();
+    mp.setObjective(Objective.min(objectiveFunction));
+    final double lBound = bound(mp);
 
-    builder.setObjective(Objective.max(objectiveFunction));
-    final double uBound = bound(builder);
+    mp.setObjective(Objective.max(objectiveFunction));
+    final double uBound = bound(mp);
 
     return RangeOfDouble.using(lBound, uBound);
   }
 
   public String rangesAsString() {
     StringBuilder sb = new StringBuilder();
-    for (int i = 1; i <= builder.getVariables().size(); i++) {
+    for (int i = 1; i <= getM(); i++) {
       sb.append("Rank " + i + " ");
       sb.append(getWeightRange(i).toString());
       sb.append("\n");
@@ -268,8 +972,16 @@ public class ConstraintsOnWeights {
     return sb.toString();
   }
 
+  /**
+   * Does not copy the model of the base object if this object has been obtained using
+   * {@link #withConstraint(int, ComparisonOperator, Aprational)}.
+   */
   @Override
   public String toString() {
+    if (builder == null) {
+      return MoreObjects.toStringHelper(this).add("Base", base)
+          .add("Added constraint", addedConstraint).toString();
+    }
     return MoreObjects.toStringHelper(this).add("Builder", builder).toString();
   }
 }
@@ -7,7 +7,6 @@ import org.apfloat.Aprational;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
-import com.google.common.graph.Graph;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
@@ -18,6 +17,17 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
   final private UpdateablePreferenceKnowledge prefKnowledge;
   final private PreferenceInformation newInformation;
   private ImmutableMap<Voter, VoterPartialPreference> newProfile;
+  /**
+   * The partial preference of the voter concerned by the new information, computed lazily, so that
+   * its transitive graph, and the ranks derived from it, are computed at most once. This assumes
+   * that the delegate knowledge does not change during the life of this object.
+   */
+  private VoterPartialPreference newPartialPreference;
+  /**
+   * The constraints on weights including the new information, computed lazily, when the new
+   * information concerns the committee.
+   */
+  private ConstraintsOnWeights newConstraintsOnWeights;
 
   public static DelegatingPreferenceKnowledge given(UpdateablePreferenceKnowledge prefKnowledge,
       PreferenceInformation newInfo) {
@@ -31,6 +41,8 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
     prefKnowledge = knowledge;
     newInformation = newInfo;
     newProfile = null;
+    newPartialPreference = null;
+    newConstraintsOnWeights = null;
   }
 
   @Override
@@ -67,21 +79,39 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
     if (!voter.equals(newVotPref.getVoter()))
       return prefKnowledge.getPartialPreference(voter);
 
-    VoterPartialPreference partialPref =
-        VoterPartialPreference.copyOf(prefKnowledge.getPartialPreference(voter));
-    partialPref.asGraph().putEdge(newVotPref.getBetterAlternative(),
-        newVotPref.getWorstAlternative());
-    return partialPref;
+    if (newPartialPreference == null) {
+      /** An overlay rather than a copy, as most what-if preferences are never modified. */
+      newPartialPreference =
+          VoterPartialPreference.withEdgeAdded(prefKnowledge.getPartialPreference(voter),
+              newVotPref.getBetterAlternative(), newVotPref.getWorstAlternative());
+    }
+    return newPartialPreference;
   }
 
   @Override
   public ConstraintsOnWeights getConstraintsOnWeights() {
-    return prefKnowledge.getConstraintsOnWeights();
+    if (newInformation.getType() == QuestionType.VOTER_QUESTION)
+      return prefKnowledge.getConstraintsOnWeights();
+
+    if (newConstraintsOnWeights == null) {
+      newConstraintsOnWeights =
+          prefKnowledge.getConstraintsOnWeightsWith(newInformation.asCommitteeInformation());
+    }
+    return newConstraintsOnWeights;
   }
 
   @Override
   public Range<Aprational> getLambdaRange(int rank) {
-    return prefKnowledge.getLambdaRange(rank);
+    final Range<Aprational> range = prefKnowledge.getLambdaRange(rank);
+    if (newInformation.getType() == QuestionType.VOTER_QUESTION)
+      return range;
+
+    final CommitteePreferenceInformation newComPref = newInformation.asCommitteeInformation();
+    if (newComPref.getRank() != rank)
+      return range;
+
+    return range.intersection(UpdateablePreferenceKnowledge
+        .getProvidedRange(newComPref.getOperator(), newComPref.getLambda()));
   }
 
   @Override
@@ -89,14 +119,13 @@ public class DelegatingPreferenceKnowledge implements PreferenceKnowledge {
     if (newInformation.getType() == QuestionType.COMMITTEE_QUESTION)
       return prefKnowledge.isProfileComplete();
 
-    int m = prefKnowledge.getAlternatives().size();
-
-    for (Voter voter : prefKnowledge.getProfile().keySet()) {
-      final Graph<Alternative> graph = getPartialPreference(voter).asTransitiveGraph();
-      if (graph.edges().size() != m * (m - 1) / 2) {
-        return false;
-      }
+    /** Only the preference of the voter being asked differs from the delegate one. */
+    final ImmutableSet<Voter> incompleteVoters = prefKnowledge.getIncompleteVoters();
+    if (incompleteVoters.isEmpty()) {
+      return true;
     }
-    return true;
+    final Voter voter = newInformation.asVoterInformation().getVoter();
+    return incompleteVoters.equals(ImmutableSet.of(voter))
+        && getPartialPreference(voter).isComplete();
   }
 }
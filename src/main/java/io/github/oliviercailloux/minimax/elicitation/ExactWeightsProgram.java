@@ -0,0 +1,418 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Verify.verify;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+
+/**
+ * The same linear program as {@link WeightsProgram}, solved using rational arithmetic, thus,
+ * without any tolerance: the optimal weights and values are exact.
+ * <p>
+ * As the programs have very few variables and constraints, the cost of rational arithmetic stays
+ * small. Pivoting follows Bland’s rule, which guarantees termination.
+ * </p>
+ * <p>
+ * Instances of this class are immutable.
+ * </p>
+ */
+public final class ExactWeightsProgram {
+  private static final Aprational ZERO = new Apint(0);
+  private static final Aprational ONE = new Apint(1);
+
+  /**
+   * @param m at least one: the number of ranks.
+   * @return a program with no constraint besides the bounds on the weights.
+   */
+  public static ExactWeightsProgram withRankNumber(int m) {
+    checkArgument(m >= 1);
+    return new ExactWeightsProgram(m, ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+  }
+
+  /**
+   * @param value a finite value.
+   * @return the rational number exactly equal to the given value.
+   */
+  public static Aprational toAprational(double value) {
+    checkArgument(Double.isFinite(value));
+    final BigDecimal decimal = new BigDecimal(value);
+    final BigInteger unscaled = decimal.unscaledValue();
+    final int scale = decimal.scale();
+    if (scale >= 0) {
+      return new Aprational(new Apint(unscaled), new Apint(BigInteger.TEN.pow(scale)));
+    }
+    return new Apint(unscaled.multiply(BigInteger.TEN.pow(-scale)));
+  }
+
+  /**
+   * @return the sum over the ranks of the given coefficients multiplied by the given weights.
+   */
+  public static Aprational getValue(List<Aprational> objective, List<Aprational> weights) {
+    checkArgument(objective.size() == weights.size());
+    Aprational value = ZERO;
+    for (int r = 0; r < objective.size(); ++r) {
+      value = value.add(objective.get(r).multiply(weights.get(r)));
+    }
+    return value;
+  }
+
+  /**
+   * A simplex tableau (in canonical form with respect to its basis) and its basis. Rows are
+   * constraints, with the right-hand side in the last column.
+   */
+  private static class Tableau {
+    private final int nbColumns;
+    private final Aprational[][] rows;
+    private final int[] basis;
+
+    /**
+     * @param rows each of size nbColumns + 1.
+     */
+    private Tableau(int nbColumns, Aprational[][] rows, int[] basis) {
+      this.nbColumns = nbColumns;
+      this.rows = rows;
+      this.basis = basis;
+    }
+
+    private Tableau copy() {
+      final Aprational[][] rowsCopy = new Aprational[rows.length][];
+      for (int i = 0; i < rows.length; ++i) {
+        rowsCopy[i] = rows[i].clone();
+      }
+      return new Tableau(nbColumns, rowsCopy, basis.clone());
+    }
+
+    private int getRhsColumn() {
+      return nbColumns;
+    }
+
+    private void pivot(int row, int column) {
+      final Aprational[] pivotRow = rows[row];
+      final Aprational pivotValue = pivotRow[column];
+      for (int j = 0; j < pivotRow.length; ++j) {
+        pivotRow[j] = pivotRow[j].divide(pivotValue);
+      }
+      for (int i = 0; i < rows.length; ++i) {
+        if (i == row) {
+          continue;
+        }
+        final Aprational[] current = rows[i];
+        final Aprational factor = current[column];
+        if (factor.signum() == 0) {
+          continue;
+        }
+        for (int j = 0; j < current.length; ++j) {
+          if (pivotRow[j].signum() != 0) {
+            current[j] = current[j].subtract(factor.multiply(pivotRow[j]));
+          }
+        }
+      }
+      basis[row] = column;
+    }
+
+    /**
+     * Maximizes the given objective, starting from the current basis, which must be feasible.
+     *
+     * @param objective one coefficient per column.
+     * @return the optimal value.
+     */
+    private Aprational maximize(Aprational[] objective) {
+      checkArgument(objective.length == nbColumns);
+      final int rhsColumn = getRhsColumn();
+      final Aprational[] reduced = objective.clone();
+      Aprational value = ZERO;
+      for (int i = 0; i < rows.length; ++i) {
+        final Aprational basicCost = objective[basis[i]];
+        if (basicCost.signum() == 0) {
+          continue;
+        }
+        for (int j = 0; j < reduced.length; ++j) {
+          reduced[j] = reduced[j].subtract(basicCost.multiply(rows[i][j]));
+        }
+        value = value.add(basicCost.multiply(rows[i][rhsColumn]));
+      }
+
+      while (true) {
+        int entering = -1;
+        for (int j = 0; j < reduced.length; ++j) {
+          if (reduced[j].signum() > 0) {
+            entering = j;
+            break;
+          }
+        }
+        if (entering == -1) {
+          return value;
+        }
+
+        int leaving = -1;
+        Aprational bestRatio = null;
+        for (int i = 0; i < rows.length; ++i) {
+          final Aprational coefficient = rows[i][entering];
+          if (coefficient.signum() <= 0) {
+            continue;
+          }
+          final Aprational ratio = rows[i][rhsColumn].divide(coefficient);
+          final int comparison = leaving == -1 ? -1 : ratio.compareTo(bestRatio);
+          if (comparison < 0 || (comparison == 0 && basis[i] < basis[leaving])) {
+            leaving = i;
+            bestRatio = ratio;
+          }
+        }
+        /** All the variables are bounded. */
+        verify(leaving != -1);
+
+        pivot(leaving, entering);
+        final Aprational enteringReduced = reduced[entering];
+        final Aprational[] pivotRow = rows[leaving];
+        for (int j = 0; j < reduced.length; ++j) {
+          reduced[j] = reduced[j].subtract(enteringReduced.multiply(pivotRow[j]));
+        }
+        value = value.add(enteringReduced.multiply(pivotRow[rhsColumn]));
+      }
+    }
+  }
+
+  private final int m;
+  /**
+   * Each constraint is the sum over the ranks of the coefficients multiplied by the weights,
+   * compared to the corresponding right-hand side.
+   */
+  private final ImmutableList<ImmutableList<Aprational>> lhs;
+  private final ImmutableList<ComparisonOperator> operators;
+  private final ImmutableList<Aprational> rhs;
+  /**
+   * A feasible tableau involving only the non-fixed weights (w_2 to w_{m−1}) and the slack
+   * variables, to be copied, never modified.
+   */
+  private final Supplier<Tableau> feasible;
+
+  private ExactWeightsProgram(int m, ImmutableList<ImmutableList<Aprational>> lhs,
+      ImmutableList<ComparisonOperator> operators, ImmutableList<Aprational> rhs) {
+    this.m = m;
+    this.lhs = lhs;
+    this.operators = operators;
+    this.rhs = rhs;
+    feasible = Suppliers.memoize(this::getFeasibleTableau);
+  }
+
+  public int getM() {
+    return m;
+  }
+
+  /**
+   * Returns a program equal to this one with the given constraint added: the sum over the ranks of
+   * the given coefficients multiplied by the weights, compared to the given right-hand side.
+   *
+   * @param coefficients m values, the first one corresponding to rank one.
+   */
+  public ExactWeightsProgram withConstraint(List<Aprational> coefficients, ComparisonOperator op,
+      Aprational rhs) {
+    checkArgument(coefficients.size() == m);
+    return new ExactWeightsProgram(m,
+        ImmutableList.<ImmutableList<Aprational>>builder().addAll(lhs)
+            .add(ImmutableList.copyOf(coefficients)).build(),
+        ImmutableList.<ComparisonOperator>builder().addAll(operators).add(op).build(),
+        ImmutableList.<Aprational>builder().addAll(this.rhs).add(rhs).build());
+  }
+
+  /**
+   * @param objective m values, the first one corresponding to rank one.
+   * @return weights maximizing the sum over the ranks of the given coefficients multiplied by the
+   *         weights.
+   * @throws IllegalArgumentException iff this program is infeasible.
+   */
+  public ImmutableList<Aprational> maximize(List<Aprational> objective) {
+    return optimize(objective, false);
+  }
+
+  /**
+   * @param objective m values, the first one corresponding to rank one.
+   * @return weights minimizing the sum over the ranks of the given coefficients multiplied by the
+   *         weights.
+   * @throws IllegalArgumentException iff this program is infeasible.
+   */
+  public ImmutableList<Aprational> minimize(List<Aprational> objective) {
+    return optimize(objective, true);
+  }
+
+  private int getNbFreeWeights() {
+    return Math.max(m - 2, 0);
+  }
+
+  private ImmutableList<Aprational> optimize(List<Aprational> objective, boolean negate) {
+    checkArgument(objective.size() == m);
+    final int n = getNbFreeWeights();
+    final Tableau tableau = feasible.get().copy();
+    /** The slack variables have a null coefficient. */
+    final Aprational[] columnsObjective = new Aprational[tableau.nbColumns];
+    for (int j = 0; j < tableau.nbColumns; ++j) {
+      if (j < n) {
+        final Aprational coefficient = objective.get(j + 1);
+        columnsObjective[j] = negate ? coefficient.negate() : coefficient;
+      } else {
+        columnsObjective[j] = ZERO;
+      }
+    }
+    tableau.maximize(columnsObjective);
+
+    final Aprational[] values = new Aprational[n];
+    for (int j = 0; j < n; ++j) {
+      values[j] = ZERO;
+    }
+    final int rhsColumn = tableau.getRhsColumn();
+    for (int i = 0; i < tableau.rows.length; ++i) {
+      final int basic = tableau.basis[i];
+      if (basic < n) {
+        values[basic] = tableau.rows[i][rhsColumn];
+      }
+    }
+
+    final ImmutableList.Builder<Aprational> weights = ImmutableList.builder();
+    weights.add(ONE);
+    for (Aprational value : values) {
+      weights.add(value);
+    }
+    if (m >= 2) {
+      weights.add(ZERO);
+    }
+    return weights.build();
+  }
+
+  /**
+   * Phase one: finds a feasible basis by minimizing the sum of artificial variables, then removes
+   * the artificial variables.
+   */
+  private Tableau getFeasibleTableau() {
+    final int n = getNbFreeWeights();
+
+    final List<Aprational[]> constraints = new ArrayList<>();
+    final List<ComparisonOperator> ops = new ArrayList<>();
+    for (int c = 0; c < lhs.size(); ++c) {
+      final ImmutableList<Aprational> coefficients = lhs.get(c);
+      /** Last position is the right-hand side, taking w_1 = 1 into account. */
+      final Aprational[] constraint = new Aprational[n + 1];
+      for (int j = 0; j < n; ++j) {
+        constraint[j] = coefficients.get(j + 1);
+      }
+      constraint[n] = rhs.get(c).subtract(coefficients.get(0));
+      constraints.add(constraint);
+      ops.add(operators.get(c));
+    }
+    for (int j = 0; j < n; ++j) {
+      final Aprational[] upperBound = new Aprational[n + 1];
+      for (int k = 0; k < n; ++k) {
+        upperBound[k] = k == j ? ONE : ZERO;
+      }
+      upperBound[n] = ONE;
+      constraints.add(upperBound);
+      ops.add(ComparisonOperator.LE);
+    }
+
+    final int nbRows = constraints.size();
+    for (int i = 0; i < nbRows; ++i) {
+      final Aprational[] constraint = constraints.get(i);
+      if (constraint[n].signum() < 0) {
+        for (int j = 0; j <= n; ++j) {
+          constraint[j] = constraint[j].negate();
+        }
+        final ComparisonOperator op = ops.get(i);
+        ops.set(i, op == ComparisonOperator.LE ? ComparisonOperator.GE
+            : op == ComparisonOperator.GE ? ComparisonOperator.LE : op);
+      }
+    }
+
+    final int nbSlacks = (int) ops.stream().filter(o -> o != ComparisonOperator.EQ).count();
+    final int nbArtificials =
+        (int) ops.stream().filter(o -> o != ComparisonOperator.LE).count();
+    final int firstArtificial = n + nbSlacks;
+    final int nbColumns = firstArtificial + nbArtificials;
+    final Aprational[][] rows = new Aprational[nbRows][nbColumns + 1];
+    final int[] basis = new int[nbRows];
+    int slack = n;
+    int artificial = firstArtificial;
+    for (int i = 0; i < nbRows; ++i) {
+      final Aprational[] constraint = constraints.get(i);
+      for (int j = 0; j < nbColumns; ++j) {
+        rows[i][j] = j < n ? constraint[j] : ZERO;
+      }
+      rows[i][nbColumns] = constraint[n];
+      switch (ops.get(i)) {
+        case LE:
+          rows[i][slack] = ONE;
+          basis[i] = slack;
+          ++slack;
+          break;
+        case GE:
+          rows[i][slack] = ONE.negate();
+          ++slack;
+          rows[i][artificial] = ONE;
+          basis[i] = artificial;
+          ++artificial;
+          break;
+        case EQ:
+          rows[i][artificial] = ONE;
+          basis[i] = artificial;
+          ++artificial;
+          break;
+        default:
+          throw new AssertionError();
+      }
+    }
+
+    final Tableau tableau = new Tableau(nbColumns, rows, basis);
+    final Aprational[] phaseOne = new Aprational[nbColumns];
+    for (int j = 0; j < nbColumns; ++j) {
+      phaseOne[j] = j >= firstArtificial ? ONE.negate() : ZERO;
+    }
+    final Aprational infeasibility = tableau.maximize(phaseOne).negate();
+    checkArgument(infeasibility.signum() == 0, "Infeasible program.");
+
+    final List<Integer> keptRows = new ArrayList<>();
+    for (int i = 0; i < nbRows; ++i) {
+      if (tableau.basis[i] >= firstArtificial) {
+        int replacement = -1;
+        for (int j = 0; j < firstArtificial; ++j) {
+          if (tableau.rows[i][j].signum() != 0) {
+            replacement = j;
+            break;
+          }
+        }
+        if (replacement == -1) {
+          /** Redundant constraint. */
+          continue;
+        }
+        tableau.pivot(i, replacement);
+      }
+      keptRows.add(i);
+    }
+
+    final Aprational[][] feasibleRows = new Aprational[keptRows.size()][firstArtificial + 1];
+    final int[] feasibleBasis = new int[keptRows.size()];
+    for (int k = 0; k < keptRows.size(); ++k) {
+      final int i = keptRows.get(k);
+      System.arraycopy(tableau.rows[i], 0, feasibleRows[k], 0, firstArtificial);
+      feasibleRows[k][firstArtificial] = tableau.rows[i][nbColumns];
+      feasibleBasis[k] = tableau.basis[i];
+    }
+    return new Tableau(firstArtificial, feasibleRows, feasibleBasis);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("m", m).add("Constraints", lhs.size())
+        .toString();
+  }
+}
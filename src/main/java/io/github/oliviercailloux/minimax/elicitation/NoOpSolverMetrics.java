@@ -0,0 +1,25 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import io.github.oliviercailloux.jlp.result.ResultStatus;
+
+/**
+ * Records nothing. A singleton is enough, as it has no state.
+ */
+enum NoOpSolverMetrics implements SolverMetrics {
+  INSTANCE;
+
+  @Override
+  public boolean isEnabled() {
+    return false;
+  }
+
+  @Override
+  public void recordSolve(SolveKind kind, ResultStatus status, long nanos) {
+    /** Nothing to record. */
+  }
+
+  @Override
+  public void recordModelBuilding(long nanos) {
+    /** Nothing to record. */
+  }
+}
@@ -0,0 +1,55 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Weights that optimize some objective under some constraints on weights, together with the
+ * resulting optimal value of that objective. Immutable.
+ */
+public final class OptimalWeights {
+  /**
+   * @param weights at least one weight, the first one corresponding to rank one.
+   */
+  public static OptimalWeights given(double value, List<Double> weights) {
+    return new OptimalWeights(value, weights);
+  }
+
+  private final double value;
+  private final ImmutableList<Double> weights;
+
+  private OptimalWeights(double value, List<Double> weights) {
+    checkArgument(!weights.isEmpty());
+    this.value = value;
+    this.weights = ImmutableList.copyOf(weights);
+  }
+
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * @return the weights, the first one corresponding to rank one.
+   */
+  public ImmutableList<Double> getWeights() {
+    return weights;
+  }
+
+  /**
+   * @throws IllegalArgumentException iff the weights are not convex, which may only happen when
+   *         the convexity constraint was not set.
+   */
+  public PSRWeights asPsrWeights() {
+    return PSRWeights.given(weights);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("Value", value).add("Weights", weights)
+        .toString();
+  }
+}
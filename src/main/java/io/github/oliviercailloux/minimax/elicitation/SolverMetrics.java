@@ -0,0 +1,59 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import io.github.oliviercailloux.jlp.result.ResultStatus;
+
+/**
+ * Receives the solves of linear programs and the model buildings done by some
+ * {@link ConstraintsOnWeights}, with their durations in nanoseconds (as measured by
+ * {@link System#nanoTime()}). Implementations must be thread-safe.
+ * <p>
+ * The default, {@link #noOp()}, declares itself disabled, so that nothing is measured.
+ * </p>
+ *
+ * @see SolverStatistics
+ */
+public interface SolverMetrics {
+  /**
+   * The ways a linear program is solved.
+   */
+  public enum SolveKind {
+    /**
+     * The whole model is given to the OR-Tools solver (for computing weight ranges, for example).
+     */
+    OR_TOOLS,
+    /**
+     * The objective is optimized by a {@link WeightsProgram}, starting from the feasible basis it
+     * keeps.
+     */
+    WEIGHTS_PROGRAM,
+    /**
+     * The objective is optimized by an {@link ExactWeightsProgram}.
+     */
+    EXACT_WEIGHTS_PROGRAM
+  }
+
+  /**
+   * Returns metrics that record nothing.
+   */
+  public static SolverMetrics noOp() {
+    return NoOpSolverMetrics.INSTANCE;
+  }
+
+  /**
+   * Returns {@code false} iff this object ignores what it receives, in which case the durations
+   * need not be measured.
+   */
+  public boolean isEnabled();
+
+  /**
+   * @param status {@link ResultStatus#INFEASIBLE} also for the programs that fail because
+   *        infeasible or because of rounding errors, {@link ResultStatus#OPTIMAL} for those that
+   *        succeed.
+   */
+  public void recordSolve(SolveKind kind, ResultStatus status, long nanos);
+
+  /**
+   * Records the time spent adding constraints to a model or copying it.
+   */
+  public void recordModelBuilding(long nanos);
+}
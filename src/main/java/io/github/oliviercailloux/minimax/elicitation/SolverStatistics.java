@@ -0,0 +1,176 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.ImmutableLongArray;
+
+import io.github.oliviercailloux.jlp.result.ResultStatus;
+
+/**
+ * Metrics that count the solves, by kind and by outcome, and accumulate their durations into
+ * totals and into latency histograms, together with the count and duration of the model buildings.
+ * <p>
+ * The histogram of a kind of solve has 64 buckets: bucket 0 counts the solves measured as taking
+ * zero nanoseconds, and bucket i, for i ≥ 1, those taking at least 2^(i−1) and less than 2^i
+ * nanoseconds.
+ * </p>
+ * <p>
+ * Thread-safe.
+ * </p>
+ */
+public final class SolverStatistics implements SolverMetrics {
+  private static final int NB_BUCKETS = Long.SIZE;
+
+  public static SolverStatistics newInstance() {
+    return new SolverStatistics();
+  }
+
+  private final ImmutableMap<SolveKind, LongAdder> nbSolves;
+  private final ImmutableMap<SolveKind, LongAdder> solveNanos;
+  private final ImmutableMap<SolveKind, AtomicLongArray> histograms;
+  private final ImmutableMap<ResultStatus, LongAdder> nbOutcomes;
+  private final LongAdder nbModelBuildings;
+  private final LongAdder modelBuildingNanos;
+
+  private SolverStatistics() {
+    final Map<SolveKind, LongAdder> nbSolvesBuilder = new EnumMap<>(SolveKind.class);
+    final Map<SolveKind, LongAdder> solveNanosBuilder = new EnumMap<>(SolveKind.class);
+    final Map<SolveKind, AtomicLongArray> histogramsBuilder = new EnumMap<>(SolveKind.class);
+    for (SolveKind kind : SolveKind.values()) {
+      nbSolvesBuilder.put(kind, new LongAdder());
+      solveNanosBuilder.put(kind, new LongAdder());
+      histogramsBuilder.put(kind, new AtomicLongArray(NB_BUCKETS));
+    }
+    nbSolves = ImmutableMap.copyOf(nbSolvesBuilder);
+    solveNanos = ImmutableMap.copyOf(solveNanosBuilder);
+    histograms = ImmutableMap.copyOf(histogramsBuilder);
+    final Map<ResultStatus, LongAdder> nbOutcomesBuilder = new EnumMap<>(ResultStatus.class);
+    for (ResultStatus status : ResultStatus.values()) {
+      nbOutcomesBuilder.put(status, new LongAdder());
+    }
+    nbOutcomes = ImmutableMap.copyOf(nbOutcomesBuilder);
+    nbModelBuildings = new LongAdder();
+    modelBuildingNanos = new LongAdder();
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void recordSolve(SolveKind kind, ResultStatus status, long nanos) {
+    checkArgument(nanos >= 0l);
+    nbSolves.get(kind).increment();
+    solveNanos.get(kind).add(nanos);
+    histograms.get(kind).incrementAndGet(getBucket(nanos));
+    nbOutcomes.get(status).increment();
+  }
+
+  @Override
+  public void recordModelBuilding(long nanos) {
+    checkArgument(nanos >= 0l);
+    nbModelBuildings.increment();
+    modelBuildingNanos.add(nanos);
+  }
+
+  private static int getBucket(long nanos) {
+    return NB_BUCKETS - Long.numberOfLeadingZeros(nanos);
+  }
+
+  public long getNbSolves() {
+    return nbSolves.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  public long getNbSolves(SolveKind kind) {
+    return nbSolves.get(kind).sum();
+  }
+
+  public long getSolveNanos(SolveKind kind) {
+    return solveNanos.get(kind).sum();
+  }
+
+  /**
+   * @return the average duration of the solves of that kind, or {@code NaN} if there has been none.
+   */
+  public double getAverageSolveNanos(SolveKind kind) {
+    final long nb = getNbSolves(kind);
+    return nb == 0l ? Double.NaN : (double) getSolveNanos(kind) / nb;
+  }
+
+  /**
+   * @return the histogram of the durations of the solves of that kind, as described in the class
+   *         documentation.
+   */
+  public ImmutableLongArray getLatencyHistogram(SolveKind kind) {
+    final AtomicLongArray histogram = histograms.get(kind);
+    final ImmutableLongArray.Builder builder = ImmutableLongArray.builder(NB_BUCKETS);
+    for (int i = 0; i < NB_BUCKETS; ++i) {
+      builder.add(histogram.get(i));
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the number of solves, of all kinds, having the given outcome.
+   */
+  public long getNbOutcomes(ResultStatus status) {
+    return nbOutcomes.get(status).sum();
+  }
+
+  public long getNbModelBuildings() {
+    return nbModelBuildings.sum();
+  }
+
+  public long getModelBuildingNanos() {
+    return modelBuildingNanos.sum();
+  }
+
+  /**
+   * Returns a multi-line description of these metrics, including the non-empty buckets of the
+   * histograms, intended for logging.
+   */
+  public String asString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("Solves: ").append(getNbSolves()).append(", infeasible: ")
+        .append(getNbOutcomes(ResultStatus.INFEASIBLE)).append(", unbounded: ")
+        .append(getNbOutcomes(ResultStatus.UNBOUNDED)).append(".\n");
+    sb.append("Model buildings: ").append(getNbModelBuildings()).append(", in ")
+        .append(getModelBuildingNanos()).append(" ns.\n");
+    for (SolveKind kind : SolveKind.values()) {
+      final long nb = getNbSolves(kind);
+      if (nb == 0l) {
+        continue;
+      }
+      sb.append(kind).append(": ").append(nb).append(" solves, average ")
+          .append(Math.round(getAverageSolveNanos(kind))).append(" ns.");
+      final ImmutableLongArray histogram = getLatencyHistogram(kind);
+      for (int i = 0; i < NB_BUCKETS; ++i) {
+        if (histogram.get(i) != 0l) {
+          /** The last bucket has no representable upper bound. */
+          final String bound =
+              i == NB_BUCKETS - 1 ? ">= " + (1l << (i - 1)) : "< " + (1l << i);
+          sb.append(" ").append(bound).append(" ns: ").append(histogram.get(i)).append(";");
+        }
+      }
+      sb.append("\n");
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("Solves", getNbSolves())
+        .add("Infeasible", getNbOutcomes(ResultStatus.INFEASIBLE))
+        .add("Unbounded", getNbOutcomes(ResultStatus.UNBOUNDED))
+        .add("Model buildings", getNbModelBuildings())
+        .add("Model building ns", getModelBuildingNanos()).toString();
+  }
+}
@@ -2,6 +2,7 @@ package io.github.oliviercailloux.minimax.elicitation;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -15,7 +16,6 @@ import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
-import com.google.common.graph.Graph;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
@@ -29,10 +29,56 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
     return new UpdateablePreferenceKnowledge(alternatives, voters);
   }
 
+  /**
+   * Returns a copy of the given knowledge, that evolves independently of it. The constraints on
+   * weights of the copy are a copy of those of the given knowledge (see
+   * {@link ConstraintsOnWeights#copyOf(ConstraintsOnWeights)}).
+   */
+  public static UpdateablePreferenceKnowledge copyOf(UpdateablePreferenceKnowledge knowledge) {
+    return new UpdateablePreferenceKnowledge(knowledge);
+  }
+
+  /**
+   * Returns a copy of the given knowledge, that evolves independently of it, but shares its partial
+   * preferences until they are updated: from then on, when either knowledge is updated about a
+   * voter whose preference is shared, it replaces that preference by the shared one with the new
+   * edge (see {@link VoterPartialPreference#withEdgeAdded(VoterPartialPreference, Alternative,
+   * Alternative)}) instead of modifying it. Thus, copying takes a time linear in the number of
+   * voters, and an update copies at most one graph.
+   * <p>
+   * The transitive relations of the shared preferences are computed beforehand, so that both
+   * knowledges may then be read and updated concurrently. Their partial preferences must be
+   * modified only using {@link #update(PreferenceInformation)}.
+   * </p>
+   */
+  public static UpdateablePreferenceKnowledge
+      copyOnWrite(UpdateablePreferenceKnowledge knowledge) {
+    knowledge.partialProfile.values()
+        .forEach(VoterPartialPreference::computeTransitiveRelation);
+    knowledge.ownedVoters.clear();
+    return new UpdateablePreferenceKnowledge(knowledge,
+        VoterQuestionsIndex.copyOf(knowledge.questionsIndex));
+  }
+
   private ImmutableSet<Alternative> alternatives;
   private ImmutableMap<Voter, VoterPartialPreference> partialProfile;
   private ConstraintsOnWeights cow;
   private Map<Integer, Range<Aprational>> lambdaRanges;
+  /**
+   * For each rank, the intersection of the ranges of λ provided by the constraints added so far,
+   * thus, the ranges that the constraints on weights restrict λ to, as opposed to
+   * {@link #lambdaRanges}, which start from a priori bounds.
+   */
+  private Map<Integer, Range<Aprational>> providedRanges;
+  /**
+   * Notified by the partial preferences whenever they change.
+   */
+  private VoterQuestionsIndex questionsIndex;
+  /**
+   * The voters whose partial preference this knowledge may modify; the others are shared with a
+   * copy (see {@link #copyOnWrite(UpdateablePreferenceKnowledge)}) and are replaced when updated.
+   */
+  private Set<Voter> ownedVoters;
 
   private UpdateablePreferenceKnowledge(Set<Alternative> alternatives, Set<Voter> voters) {
     this.alternatives = ImmutableSet.copyOf(alternatives);
@@ -51,7 +97,13 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
       builder.put(voter, VoterPartialPreference.about(voter, alternatives));
     }
     partialProfile = builder.build();
+    questionsIndex = VoterQuestionsIndex.given(partialProfile);
+    for (VoterPartialPreference preference : partialProfile.values()) {
+      preference.setChangeListener(questionsIndex::setChanged);
+    }
+    ownedVoters = new HashSet<>(partialProfile.keySet());
 
+    providedRanges = new LinkedHashMap<>();
     if (m == 1) {
       lambdaRanges = null;
     } else {
@@ -74,6 +126,36 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
     }
   }
 
+  private UpdateablePreferenceKnowledge(UpdateablePreferenceKnowledge knowledge) {
+    alternatives = knowledge.alternatives;
+    final ImmutableMap.Builder<Voter, VoterPartialPreference> builder = ImmutableMap.builder();
+    for (VoterPartialPreference preference : knowledge.partialProfile.values()) {
+      builder.put(preference.getVoter(), VoterPartialPreference.copyOf(preference));
+    }
+    partialProfile = builder.build();
+    questionsIndex = VoterQuestionsIndex.given(partialProfile);
+    for (VoterPartialPreference preference : partialProfile.values()) {
+      preference.setChangeListener(questionsIndex::setChanged);
+    }
+    ownedVoters = new HashSet<>(partialProfile.keySet());
+    cow = ConstraintsOnWeights.copyOf(knowledge.cow);
+    lambdaRanges =
+        knowledge.lambdaRanges == null ? null : new LinkedHashMap<>(knowledge.lambdaRanges);
+    providedRanges = new LinkedHashMap<>(knowledge.providedRanges);
+  }
+
+  private UpdateablePreferenceKnowledge(UpdateablePreferenceKnowledge knowledge,
+      VoterQuestionsIndex questionsIndex) {
+    alternatives = knowledge.alternatives;
+    partialProfile = knowledge.partialProfile;
+    this.questionsIndex = questionsIndex;
+    ownedVoters = new HashSet<>();
+    cow = ConstraintsOnWeights.copyOf(knowledge.cow);
+    lambdaRanges =
+        knowledge.lambdaRanges == null ? null : new LinkedHashMap<>(knowledge.lambdaRanges);
+    providedRanges = new LinkedHashMap<>(knowledge.providedRanges);
+  }
+
   /**
    * @return a non empty set.
    */
@@ -101,7 +183,29 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
     checkArgument(rank >= 1);
     checkArgument(rank <= alternatives.size() - 2);
 
-    /** The constraint is that D_i/D_{i+1} OP lambda. */
+    final Range<Aprational> providedRange = getProvidedRange(op, lambda);
+    final Range<Aprational> existingRange = lambdaRanges.get(rank);
+    checkArgument(existingRange.isConnected(providedRange),
+        "The provided constraint makes the program infeasible.");
+    final Range<Aprational> restr = existingRange.intersection(providedRange);
+    checkArgument(!restr.isEmpty(), "The provided constraint makes the program (just) infeasible.");
+
+    /**
+     * Adding a constraint that does not change the weight polytope would uselessly invalidate the
+     * optima cached by the constraints on weights.
+     */
+    if (changesConstraints(rank, providedRange)) {
+      final Range<Aprational> provided = providedRanges.getOrDefault(rank, Range.all());
+      cow.addConstraint(rank, op, lambda);
+      providedRanges.put(rank, provided.intersection(providedRange));
+    }
+    lambdaRanges.put(rank, restr);
+  }
+
+  /**
+   * The constraint is that D_i/D_{i+1} OP lambda.
+   */
+  static Range<Aprational> getProvidedRange(ComparisonOperator op, Aprational lambda) {
     final Range<Aprational> providedRange;
     switch (op) {
       case EQ:
@@ -116,14 +220,31 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
       default:
         throw new VerifyException();
     }
-    final Range<Aprational> existingRange = lambdaRanges.get(rank);
-    checkArgument(existingRange.isConnected(providedRange),
-        "The provided constraint makes the program infeasible.");
-    final Range<Aprational> restr = existingRange.intersection(providedRange);
-    checkArgument(!restr.isEmpty(), "The provided constraint makes the program (just) infeasible.");
+    return providedRange;
+  }
 
-    cow.addConstraint(rank, op, lambda.doubleValue());
-    lambdaRanges.put(rank, restr);
+  /**
+   * @return {@code false} iff the given range of λ is implied by the constraints added so far, in
+   *         which case adding it would not change the weight polytope.
+   */
+  private boolean changesConstraints(int rank, Range<Aprational> providedRange) {
+    return !providedRange.encloses(providedRanges.getOrDefault(rank, Range.all()));
+  }
+
+  /**
+   * Returns the constraints on weights that would result from adding the given information,
+   * without changing this object.
+   *
+   * @see ConstraintsOnWeights#withConstraint(int, ComparisonOperator, Aprational)
+   */
+  ConstraintsOnWeights getConstraintsOnWeightsWith(CommitteePreferenceInformation information) {
+    final int rank = information.getRank();
+    final ComparisonOperator op = information.getOperator();
+    final Aprational lambda = information.getLambda();
+    if (!changesConstraints(rank, getProvidedRange(op, lambda))) {
+      return cow;
+    }
+    return cow.withConstraint(rank, op, lambda);
   }
 
   @Override
@@ -149,17 +270,59 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
   }
 
   /**
-   * Check the number of edges in the transitive graphs associated to each voter preference.
+   * Checks whether some voter has two incomparable alternatives, considering only the voters whose
+   * preference changed since the last check.
    */
   @Override
   public boolean isProfileComplete() {
-    for (Voter voter : partialProfile.keySet()) {
-      final Graph<Alternative> graph = getPartialPreference(voter).asTransitiveGraph();
-      if (graph.edges().size() != alternatives.size() * (alternatives.size() - 1) / 2) {
-        return false;
-      }
+    return questionsIndex.getIncompleteVoters().isEmpty();
+  }
+
+  /**
+   * Returns the voters whose partial preference is not complete, maintained incrementally as the
+   * preferences change.
+   *
+   * @return the voters to whom some question may be asked, in the order of {@link #getVoters()}.
+   */
+  public ImmutableSet<Voter> getIncompleteVoters() {
+    return questionsIndex.getIncompleteVoters();
+  }
+
+  /**
+   * Returns the questions about the pairs of alternatives that the given voter has not compared
+   * yet, maintained incrementally as the preferences change.
+   *
+   * @return empty iff the partial preference of the voter is complete.
+   */
+  public ImmutableSet<QuestionVoter> getPossibleVoterQuestions(Voter voter) {
+    return questionsIndex.getQuestions(voter);
+  }
+
+  /**
+   * @return the questions about all voters, by voter in the order of {@link #getVoters()}.
+   */
+  public ImmutableSet<QuestionVoter> getPossibleVoterQuestions() {
+    return questionsIndex.getQuestions();
+  }
+
+  /**
+   * Checks whether the given information is implied by this knowledge, thus, whether updating this
+   * knowledge with it would change nothing.
+   */
+  public boolean implies(PreferenceInformation information) {
+    switch (information.getType()) {
+      case VOTER_QUESTION:
+        final VoterPreferenceInformation v = information.asVoterInformation();
+        final VoterPartialPreference preference = partialProfile.get(v.getVoter());
+        checkArgument(preference != null);
+        return preference.isPreferred(v.getBetterAlternative(), v.getWorstAlternative());
+      case COMMITTEE_QUESTION:
+        final CommitteePreferenceInformation c = information.asCommitteeInformation();
+        checkArgument(c.getRank() <= alternatives.size() - 2);
+        return !changesConstraints(c.getRank(), getProvidedRange(c.getOperator(), c.getLambda()));
+      default:
+        throw new VerifyException();
     }
-    return true;
   }
 
   public void update(PreferenceInformation information) {
@@ -169,8 +332,14 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
         final Alternative better = v.getBetterAlternative();
         final Alternative worst = v.getWorstAlternative();
         final VoterPartialPreference voterPartialPreference = getProfile().get(v.getVoter());
-        voterPartialPreference.asGraph().putEdge(better, worst);
-        voterPartialPreference.setGraphChanged();
+        if (ownedVoters.contains(v.getVoter())) {
+          /**
+           * The partial preference is notified and updates its transitive relation incrementally.
+           */
+          voterPartialPreference.asGraph().putEdge(better, worst);
+        } else {
+          replace(VoterPartialPreference.withEdgeAdded(voterPartialPreference, better, worst));
+        }
         break;
       case COMMITTEE_QUESTION:
         final CommitteePreferenceInformation c = information.asCommitteeInformation();
@@ -184,6 +353,21 @@ public class UpdateablePreferenceKnowledge implements PreferenceKnowledge {
     }
   }
 
+  /**
+   * Replaces the partial preference of the voter of the given one, which this knowledge then owns.
+   */
+  private void replace(VoterPartialPreference preference) {
+    final Voter voter = preference.getVoter();
+    final ImmutableMap.Builder<Voter, VoterPartialPreference> builder = ImmutableMap.builder();
+    for (Entry<Voter, VoterPartialPreference> entry : partialProfile.entrySet()) {
+      builder.put(entry.getKey(), entry.getKey().equals(voter) ? preference : entry.getValue());
+    }
+    partialProfile = builder.build();
+    questionsIndex.setReplaced(partialProfile, voter);
+    preference.setChangeListener(questionsIndex::setChanged);
+    ownedVoters.add(voter);
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this).add("Partial profile", partialProfile)
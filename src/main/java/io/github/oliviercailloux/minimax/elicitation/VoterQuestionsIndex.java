@@ -0,0 +1,184 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.TransitiveBitsets;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+
+/**
+ * Maintains, for each voter of a partial profile, the questions that may be asked to that voter,
+ * thus, one per pair of alternatives that are incomparable in its partial preference, and the set
+ * of voters whose partial preference is incomplete (equivalently, having some question).
+ * <p>
+ * The voters whose preference changed are notified (see
+ * {@link #setChanged(VoterPartialPreference)}) and only their entries are computed again, lazily,
+ * when next queried, so that, as only one voter changes per answer, the cost per question does not
+ * depend on the number of voters.
+ * </p>
+ * <p>
+ * The questions about a voter are ordered by their first alternative then by their second one,
+ * following the order of the alternatives in the profile, where the first alternative of a
+ * question precedes the second one. The voters are ordered as in the profile.
+ * </p>
+ */
+class VoterQuestionsIndex {
+  public static VoterQuestionsIndex given(ImmutableMap<Voter, VoterPartialPreference> profile) {
+    return new VoterQuestionsIndex(profile);
+  }
+
+  /**
+   * Returns a copy of the given index, about the same profile, that evolves independently of it.
+   */
+  public static VoterQuestionsIndex copyOf(VoterQuestionsIndex index) {
+    return new VoterQuestionsIndex(index);
+  }
+
+  private ImmutableMap<Voter, VoterPartialPreference> profile;
+  private final Map<Voter, ImmutableSet<QuestionVoter>> questionsByVoter;
+  /**
+   * The voters to compute again, in order of notification.
+   */
+  private final Set<Voter> changed;
+  /**
+   * {@code null} when it must be computed again.
+   */
+  private ImmutableSet<Voter> incompleteVoters;
+  /**
+   * {@code null} when it must be computed again.
+   */
+  private ImmutableSet<QuestionVoter> questions;
+
+  private VoterQuestionsIndex(ImmutableMap<Voter, VoterPartialPreference> profile) {
+    this.profile = profile;
+    questionsByVoter = new LinkedHashMap<>();
+    changed = new LinkedHashSet<>(profile.keySet());
+    incompleteVoters = null;
+    questions = null;
+  }
+
+  private VoterQuestionsIndex(VoterQuestionsIndex index) {
+    profile = index.profile;
+    questionsByVoter = new LinkedHashMap<>(index.questionsByVoter);
+    changed = new LinkedHashSet<>(index.changed);
+    incompleteVoters = index.incompleteVoters;
+    questions = index.questions;
+  }
+
+  /**
+   * Must be called after each change of the given preference.
+   */
+  public void setChanged(VoterPartialPreference preference) {
+    final Voter voter = preference.getVoter();
+    checkArgument(profile.get(voter) == preference);
+    changed.add(voter);
+  }
+
+  /**
+   * Must be called when the profile has been replaced by the given one, where only the preference
+   * of the given voter differs.
+   */
+  public void setReplaced(ImmutableMap<Voter, VoterPartialPreference> newProfile, Voter voter) {
+    checkArgument(newProfile.keySet().equals(profile.keySet()));
+    profile = newProfile;
+    changed.add(voter);
+  }
+
+  /**
+   * @return the voters having at least two incomparable alternatives, in the order of the profile.
+   */
+  public ImmutableSet<Voter> getIncompleteVoters() {
+    refresh();
+    if (incompleteVoters == null) {
+      incompleteVoters = profile.keySet().stream().filter(v -> !questionsByVoter.get(v).isEmpty())
+          .collect(ImmutableSet.toImmutableSet());
+    }
+    return incompleteVoters;
+  }
+
+  /**
+   * @return the questions about the given voter, empty iff its preference is complete.
+   */
+  public ImmutableSet<QuestionVoter> getQuestions(Voter voter) {
+    checkArgument(profile.containsKey(voter));
+    refresh();
+    return questionsByVoter.get(voter);
+  }
+
+  /**
+   * @return the questions about all voters, by voter in the order of the profile.
+   */
+  public ImmutableSet<QuestionVoter> getQuestions() {
+    refresh();
+    if (questions == null) {
+      questions = profile.keySet().stream().flatMap(v -> questionsByVoter.get(v).stream())
+          .collect(ImmutableSet.toImmutableSet());
+    }
+    return questions;
+  }
+
+  private void refresh() {
+    for (Voter voter : changed) {
+      final ImmutableSet<QuestionVoter> previous = questionsByVoter.get(voter);
+      final ImmutableSet<QuestionVoter> current = computeQuestions(profile.get(voter));
+      /** An answer implied by the previous ones changes the graph but not the questions. */
+      if (!current.equals(previous)) {
+        questionsByVoter.put(voter, current);
+        questions = null;
+        if (previous == null || previous.isEmpty() != current.isEmpty()) {
+          incompleteVoters = null;
+        }
+      }
+    }
+    changed.clear();
+  }
+
+  private static ImmutableSet<QuestionVoter> computeQuestions(VoterPartialPreference preference) {
+    final Voter voter = preference.getVoter();
+    final ImmutableSet.Builder<QuestionVoter> builder = ImmutableSet.builder();
+    if (preference.isBitsetsSupported()) {
+      final TransitiveBitsets bitsets = preference.asTransitiveBitsets();
+      final ImmutableList<Alternative> alternatives = bitsets.getAlternatives();
+      for (int i = 0; i < alternatives.size(); ++i) {
+        final Alternative a = alternatives.get(i);
+        /** The alternatives following a (shifting by 64 would do nothing, hence two shifts). */
+        final long following = bitsets.getAllBits() & (-1L << i << 1);
+        final long comparables = bitsets.getSuccessors(a) | bitsets.getPredecessors(a);
+        for (long bits = following & ~comparables; bits != 0; bits &= bits - 1) {
+          builder.add(
+              QuestionVoter.given(voter, a, alternatives.get(Long.numberOfTrailingZeros(bits))));
+        }
+      }
+    } else {
+      final ImmutableList<Alternative> alternatives =
+          ImmutableList.copyOf(preference.getAlternatives());
+      for (int i = 0; i < alternatives.size(); ++i) {
+        final Alternative a = alternatives.get(i);
+        final ImmutableSet<Alternative> incomparables = preference.getIncomparables(a);
+        for (Alternative b : alternatives.subList(i + 1, alternatives.size())) {
+          if (incomparables.contains(b)) {
+            builder.add(QuestionVoter.given(voter, a, b));
+          }
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("Changed", changed)
+        .add("Questions by voter", questionsByVoter).toString();
+  }
+}
@@ -0,0 +1,449 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Verify.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+
+/**
+ * A linear program over the weights w_1 = 1, w_2, …, w_{m−1} ∈ [0, 1], and w_m = 0 (if m ≥ 2),
+ * whose constraints are fixed, and that may be optimized for any number of objectives.
+ * <p>
+ * The constraints are loaded into a simplex tableau, and a feasible basis is searched for (phase
+ * one) only once, when first optimizing. Each optimization then starts from that feasible basis and
+ * only swaps the objective (phase two), instead of building and solving a whole new program.
+ * </p>
+ * <p>
+ * Pivoting follows Bland’s rule, thus, the solution returned for a given objective depends only on
+ * the constraints and on that objective, not on the objectives previously optimized.
+ * </p>
+ * <p>
+ * Instances of this class are immutable.
+ * </p>
+ */
+public final class WeightsProgram {
+  /**
+   * Much smaller than {@link ConstraintsOnWeights#EPSILON}.
+   */
+  private static final double TOLERANCE = 1e-10;
+
+  /**
+   * The smallest absolute value of a pivot element: dividing by smaller ones amplifies the rounding
+   * errors so much that, on degenerate programs (with many tight constraints), the basis obtained
+   * may be infeasible.
+   */
+  private static final double PIVOT_TOLERANCE = 1e-7;
+
+  /**
+   * The greatest violation of a constraint (or of a bound) tolerated in a solution.
+   */
+  private static final double FEASIBILITY_TOLERANCE = 1e-7;
+
+  /**
+   * @param m at least one: the number of ranks.
+   * @return a program with no constraint besides the bounds on the weights.
+   */
+  public static WeightsProgram withRankNumber(int m) {
+    checkArgument(m >= 1);
+    return new WeightsProgram(m, ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+  }
+
+  /**
+   * A simplex tableau (in canonical form with respect to its basis) and its basis. Rows are
+   * constraints, with the right-hand side in the last column.
+   */
+  private static class Tableau {
+    private final int nbColumns;
+    private final double[][] rows;
+    private final int[] basis;
+
+    /**
+     * @param rows each of size nbColumns + 1.
+     */
+    private Tableau(int nbColumns, double[][] rows, int[] basis) {
+      this.nbColumns = nbColumns;
+      this.rows = rows;
+      this.basis = basis;
+    }
+
+    private Tableau copy() {
+      final double[][] rowsCopy = new double[rows.length][];
+      for (int i = 0; i < rows.length; ++i) {
+        rowsCopy[i] = rows[i].clone();
+      }
+      return new Tableau(nbColumns, rowsCopy, basis.clone());
+    }
+
+    private int getRhsColumn() {
+      return nbColumns;
+    }
+
+    private void pivot(int row, int column) {
+      final double[] pivotRow = rows[row];
+      final double pivotValue = pivotRow[column];
+      for (int j = 0; j < pivotRow.length; ++j) {
+        pivotRow[j] /= pivotValue;
+      }
+      pivotRow[column] = 1d;
+      for (int i = 0; i < rows.length; ++i) {
+        if (i == row) {
+          continue;
+        }
+        final double[] current = rows[i];
+        final double factor = current[column];
+        if (factor == 0d) {
+          continue;
+        }
+        for (int j = 0; j < current.length; ++j) {
+          current[j] -= factor * pivotRow[j];
+        }
+        current[column] = 0d;
+        /** Negative zeroes and imprecision would otherwise break feasibility. */
+        final int rhsColumn = current.length - 1;
+        if (current[rhsColumn] < 0d && current[rhsColumn] > -TOLERANCE) {
+          current[rhsColumn] = 0d;
+        }
+      }
+      basis[row] = column;
+    }
+
+    /**
+     * Maximizes the given objective, starting from the current basis, which must be feasible.
+     *
+     * @param objective one coefficient per column.
+     * @return the optimal value.
+     */
+    private double maximize(double[] objective) {
+      checkArgument(objective.length == nbColumns);
+      final int rhsColumn = getRhsColumn();
+      final double[] reduced = objective.clone();
+      double value = 0d;
+      for (int i = 0; i < rows.length; ++i) {
+        final double basicCost = objective[basis[i]];
+        if (basicCost == 0d) {
+          continue;
+        }
+        for (int j = 0; j < reduced.length; ++j) {
+          reduced[j] -= basicCost * rows[i][j];
+        }
+        value += basicCost * rows[i][rhsColumn];
+      }
+
+      final int maxIterations = 100 * (rows.length + reduced.length + 1);
+      for (int iteration = 0; iteration < maxIterations; ++iteration) {
+        int entering = -1;
+        for (int j = 0; j < reduced.length; ++j) {
+          if (reduced[j] > TOLERANCE) {
+            entering = j;
+            break;
+          }
+        }
+        if (entering == -1) {
+          return value;
+        }
+
+        int leaving = -1;
+        double bestRatio = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < rows.length; ++i) {
+          final double coefficient = rows[i][entering];
+          if (coefficient <= PIVOT_TOLERANCE) {
+            continue;
+          }
+          final double ratio = rows[i][rhsColumn] / coefficient;
+          if (leaving == -1 || ratio < bestRatio - TOLERANCE
+              || (ratio <= bestRatio + TOLERANCE && basis[i] < basis[leaving])) {
+            leaving = i;
+            bestRatio = ratio;
+          }
+        }
+        /** All the variables are bounded. */
+        verify(leaving != -1);
+
+        pivot(leaving, entering);
+        final double enteringReduced = reduced[entering];
+        final double[] pivotRow = rows[leaving];
+        for (int j = 0; j < reduced.length; ++j) {
+          reduced[j] -= enteringReduced * pivotRow[j];
+        }
+        reduced[entering] = 0d;
+        value += enteringReduced * pivotRow[rhsColumn];
+      }
+      throw new IllegalStateException("Simplex does not terminate.");
+    }
+  }
+
+  private final int m;
+  /**
+   * Each constraint is the sum over the ranks of the coefficients multiplied by the weights,
+   * compared to the corresponding right-hand side.
+   */
+  private final ImmutableList<ImmutableList<Double>> lhs;
+  private final ImmutableList<ComparisonOperator> operators;
+  private final ImmutableList<Double> rhs;
+  /**
+   * A feasible tableau involving only the non-fixed weights (w_2 to w_{m−1}) and the slack
+   * variables, to be copied, never modified.
+   */
+  private final Supplier<Tableau> feasible;
+
+  private WeightsProgram(int m, ImmutableList<ImmutableList<Double>> lhs,
+      ImmutableList<ComparisonOperator> operators, ImmutableList<Double> rhs) {
+    this.m = m;
+    this.lhs = lhs;
+    this.operators = operators;
+    this.rhs = rhs;
+    feasible = Suppliers.memoize(this::getFeasibleTableau);
+  }
+
+  public int getM() {
+    return m;
+  }
+
+  /**
+   * Returns a program equal to this one with the given constraint added: the sum over the ranks of
+   * the given coefficients multiplied by the weights, compared to the given right-hand side.
+   *
+   * @param coefficients m finite values, the first one corresponding to rank one.
+   */
+  public WeightsProgram withConstraint(List<Double> coefficients, ComparisonOperator op,
+      double rhs) {
+    checkArgument(coefficients.size() == m);
+    checkArgument(coefficients.stream().allMatch(Double::isFinite));
+    checkArgument(Double.isFinite(rhs));
+    return new WeightsProgram(m,
+        ImmutableList.<ImmutableList<Double>>builder().addAll(lhs)
+            .add(ImmutableList.copyOf(coefficients)).build(),
+        ImmutableList.<ComparisonOperator>builder().addAll(operators).add(op).build(),
+        ImmutableList.<Double>builder().addAll(this.rhs).add(rhs).build());
+  }
+
+  /**
+   * @param objective m finite values, the first one corresponding to rank one.
+   * @return weights maximizing the sum over the ranks of the given coefficients multiplied by the
+   *         weights.
+   * @throws IllegalArgumentException if this program is found infeasible.
+   * @throws ArithmeticException if the solution found violates the constraints, because of
+   *         rounding errors.
+   */
+  public ImmutableList<Double> maximize(List<Double> objective) {
+    return optimize(objective, 1d);
+  }
+
+  /**
+   * @param objective m finite values, the first one corresponding to rank one.
+   * @return weights minimizing the sum over the ranks of the given coefficients multiplied by the
+   *         weights.
+   * @throws IllegalArgumentException if this program is found infeasible.
+   * @throws ArithmeticException if the solution found violates the constraints, because of
+   *         rounding errors.
+   */
+  public ImmutableList<Double> minimize(List<Double> objective) {
+    return optimize(objective, -1d);
+  }
+
+  private int getNbFreeWeights() {
+    return Math.max(m - 2, 0);
+  }
+
+  private ImmutableList<Double> optimize(List<Double> objective, double sign) {
+    checkArgument(objective.size() == m);
+    final int n = getNbFreeWeights();
+    final Tableau tableau = feasible.get().copy();
+    /** The slack variables have a null coefficient. */
+    final double[] columnsObjective = new double[tableau.nbColumns];
+    for (int j = 0; j < n; ++j) {
+      columnsObjective[j] = sign * objective.get(j + 1);
+    }
+    tableau.maximize(columnsObjective);
+
+    final double[] values = new double[n];
+    final int rhsColumn = tableau.getRhsColumn();
+    for (int i = 0; i < tableau.rows.length; ++i) {
+      final int basic = tableau.basis[i];
+      if (basic < n) {
+        values[basic] = tableau.rows[i][rhsColumn];
+      }
+    }
+
+    final ImmutableList.Builder<Double> weightsBuilder = ImmutableList.builder();
+    weightsBuilder.add(1d);
+    for (double value : values) {
+      weightsBuilder.add(value);
+    }
+    if (m >= 2) {
+      weightsBuilder.add(0d);
+    }
+    final ImmutableList<Double> weights = weightsBuilder.build();
+    final double violation = getViolation(weights);
+    if (violation > FEASIBILITY_TOLERANCE) {
+      throw new ArithmeticException("Solution violates the constraints by " + violation + ".");
+    }
+    /** Within the tolerance, thus, only rounding errors are removed. */
+    return weights.stream().map(w -> Math.min(Math.max(w, 0d), 1d))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * @param weights m values, the first one corresponding to rank one.
+   * @return the greatest violation, by the given weights, of the bounds and of the constraints of
+   *         this program, or zero.
+   */
+  private double getViolation(List<Double> weights) {
+    double violation = 0d;
+    for (double weight : weights) {
+      violation = Math.max(violation, Math.max(-weight, weight - 1d));
+    }
+    for (int c = 0; c < lhs.size(); ++c) {
+      final ImmutableList<Double> coefficients = lhs.get(c);
+      double difference = -rhs.get(c);
+      for (int rank = 1; rank <= m; ++rank) {
+        difference += coefficients.get(rank - 1) * weights.get(rank - 1);
+      }
+      switch (operators.get(c)) {
+        case LE:
+          violation = Math.max(violation, difference);
+          break;
+        case GE:
+          violation = Math.max(violation, -difference);
+          break;
+        case EQ:
+          violation = Math.max(violation, Math.abs(difference));
+          break;
+        default:
+          throw new AssertionError();
+      }
+    }
+    return violation;
+  }
+
+  /**
+   * Phase one: finds a feasible basis by minimizing the sum of artificial variables, then removes
+   * the artificial variables.
+   */
+  private Tableau getFeasibleTableau() {
+    final int n = getNbFreeWeights();
+
+    final List<double[]> constraints = new ArrayList<>();
+    final List<ComparisonOperator> ops = new ArrayList<>();
+    for (int c = 0; c < lhs.size(); ++c) {
+      final ImmutableList<Double> coefficients = lhs.get(c);
+      /** Last position is the right-hand side, taking w_1 = 1 into account. */
+      final double[] constraint = new double[n + 1];
+      for (int j = 0; j < n; ++j) {
+        constraint[j] = coefficients.get(j + 1);
+      }
+      constraint[n] = rhs.get(c) - coefficients.get(0);
+      constraints.add(constraint);
+      ops.add(operators.get(c));
+    }
+    for (int j = 0; j < n; ++j) {
+      final double[] upperBound = new double[n + 1];
+      upperBound[j] = 1d;
+      upperBound[n] = 1d;
+      constraints.add(upperBound);
+      ops.add(ComparisonOperator.LE);
+    }
+
+    final int nbRows = constraints.size();
+    for (int i = 0; i < nbRows; ++i) {
+      final double[] constraint = constraints.get(i);
+      if (constraint[n] < 0d) {
+        for (int j = 0; j <= n; ++j) {
+          constraint[j] = -constraint[j];
+        }
+        final ComparisonOperator op = ops.get(i);
+        ops.set(i, op == ComparisonOperator.LE ? ComparisonOperator.GE
+            : op == ComparisonOperator.GE ? ComparisonOperator.LE : op);
+      }
+    }
+
+    final int nbSlacks = (int) ops.stream().filter(o -> o != ComparisonOperator.EQ).count();
+    final int nbArtificials =
+        (int) ops.stream().filter(o -> o != ComparisonOperator.LE).count();
+    final int firstArtificial = n + nbSlacks;
+    final int nbColumns = firstArtificial + nbArtificials;
+    final double[][] rows = new double[nbRows][nbColumns + 1];
+    final int[] basis = new int[nbRows];
+    int slack = n;
+    int artificial = firstArtificial;
+    for (int i = 0; i < nbRows; ++i) {
+      final double[] constraint = constraints.get(i);
+      System.arraycopy(constraint, 0, rows[i], 0, n);
+      rows[i][nbColumns] = constraint[n];
+      switch (ops.get(i)) {
+        case LE:
+          rows[i][slack] = 1d;
+          basis[i] = slack;
+          ++slack;
+          break;
+        case GE:
+          rows[i][slack] = -1d;
+          ++slack;
+          rows[i][artificial] = 1d;
+          basis[i] = artificial;
+          ++artificial;
+          break;
+        case EQ:
+          rows[i][artificial] = 1d;
+          basis[i] = artificial;
+          ++artificial;
+          break;
+        default:
+          throw new AssertionError();
+      }
+    }
+
+    final Tableau tableau = new Tableau(nbColumns, rows, basis);
+    final double[] phaseOne = new double[nbColumns];
+    for (int j = firstArtificial; j < nbColumns; ++j) {
+      phaseOne[j] = -1d;
+    }
+    final double infeasibility = -tableau.maximize(phaseOne);
+    checkArgument(infeasibility <= 1e-9, "Infeasible program.");
+
+    final List<Integer> keptRows = new ArrayList<>();
+    for (int i = 0; i < nbRows; ++i) {
+      if (tableau.basis[i] >= firstArtificial) {
+        /** The greatest pivot element, for stability. */
+        int replacement = -1;
+        for (int j = 0; j < firstArtificial; ++j) {
+          final double coefficient = Math.abs(tableau.rows[i][j]);
+          if (coefficient > PIVOT_TOLERANCE
+              && (replacement == -1 || coefficient > Math.abs(tableau.rows[i][replacement]))) {
+            replacement = j;
+          }
+        }
+        if (replacement == -1) {
+          /** Redundant constraint. */
+          continue;
+        }
+        tableau.pivot(i, replacement);
+      }
+      keptRows.add(i);
+    }
+
+    final double[][] feasibleRows = new double[keptRows.size()][firstArtificial + 1];
+    final int[] feasibleBasis = new int[keptRows.size()];
+    for (int k = 0; k < keptRows.size(); ++k) {
+      final int i = keptRows.get(k);
+      System.arraycopy(tableau.rows[i], 0, feasibleRows[k], 0, firstArtificial);
+      feasibleRows[k][firstArtificial] = tableau.rows[i][nbColumns];
+      feasibleBasis[k] = tableau.basis[i];
+    }
+    return new Tableau(firstArtificial, feasibleRows, feasibleBasis);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("m", m).add("Constraints", lhs.size())
+        .toString();
+  }
+}
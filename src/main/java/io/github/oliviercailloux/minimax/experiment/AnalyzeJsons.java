@@ -25,7 +25,8 @@ import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.Question;
 import io.github.oliviercailloux.minimax.elicitation.QuestionType;
-import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
+import io.github.oliviercailloux.minimax.experiment.json.RunsReader;
+import io.github.oliviercailloux.minimax.experiment.json.RunsWriter;
 import io.github.oliviercailloux.minimax.experiment.other_formats.ToCsv;
 import io.github.oliviercailloux.minimax.regret.Regrets;
 
@@ -65,7 +66,7 @@ public class AnalyzeJsons {
     for (String file : fileNames) {
       LOGGER.info("File: {}", file);
       writer.addValue("file", file);
-      final Runs runs = JsonConverter.toRuns(Files.readString(Path.of(dir + "/" + file)));
+      final Runs runs = RunsReader.readRuns(Path.of(dir + "/" + file));
       LinkedList<Run> necRuns = new LinkedList<>();
       double threshold = ((double) runs.getN()) / ((double) 10);
       System.out.println(threshold);
@@ -131,7 +132,7 @@ public class AnalyzeJsons {
   private void analyzeQuestions(String fileName, Path fileOut) throws Exception {
     Files.writeString(fileOut, fileName + "\n", StandardOpenOption.APPEND);
     final Path json = Path.of("experiments", "TableLinearity", fileName);
-    final Runs runs = JsonConverter.toRuns(Files.readString(json));
+    final Runs runs = RunsReader.readRuns(json);
     for (Run run : runs.getRuns()) {
       int countCommBef = 0, countVotBef = 0, countCommAft = 0, countVotAft = 0;
       ImmutableList<Question> questions = run.getQuestions();
@@ -161,15 +162,20 @@ public class AnalyzeJsons {
   public void writeFileCsv(Path file, Path fileOut) throws Exception {
     Files.deleteIfExists(fileOut);
     Files.createFile(fileOut);
-    final Runs runs = JsonConverter.toRuns(Files.readString(file));
-    Files.writeString(fileOut, ToCsv.toCsv(runs, 1));
+    if (file.getFileName().toString().endsWith(RunsWriter.EXTENSION)) {
+      try (RunsReader reader = RunsReader.open(file)) {
+        Files.writeString(fileOut, ToCsv.toCsv(reader.runs(), 1));
+      }
+    } else {
+      Files.writeString(fileOut, ToCsv.toCsv(RunsReader.readRuns(file), 1));
+    }
   }
 
   public void writeFileMMRtoCsv(Path file, Path fileOut, int step) throws Exception {
     Files.deleteIfExists(fileOut);
     Files.createFile(fileOut);
     LOGGER.info("Reading runs.");
-    final Runs runs = JsonConverter.toRuns(Files.readString(file));
+    final Runs runs = RunsReader.readRuns(file);
     final StringWriter stringWriter = new StringWriter();
     final NumberFormat formatter = NumberFormat.getNumberInstance(Locale.ENGLISH);
     formatter.setMaximumFractionDigits(2);
@@ -205,7 +211,7 @@ public class AnalyzeJsons {
   }
 
   public static void analyze(Path json) throws Exception {
-    final Runs runs = JsonConverter.toRuns(Files.readString(json));
+    final Runs runs = RunsReader.readRuns(json);
     int i = 0;
     for (Run run : runs.getRuns()) {
       final double value = run.getMinimalMaxRegrets().get(0).getMinimalMaxRegretValue();
@@ -230,7 +236,7 @@ public class AnalyzeJsons {
             n, k, nbRuns));
     // final Path json = Path.of("experiments",
     // "Limited MAX, constrained to [], m = 10, n = 20, k = 500, nbRuns = 10.json");
-    final Runs runs = JsonConverter.toRuns(Files.readString(json));
+    final Runs runs = RunsReader.readRuns(json);
     for (Run run : runs.getRuns()) {
       LOGGER.info("Run: {} qC, {} qV, mmr {}.", run.getNbQCommittee(), run.getNbQVoters(),
           run.getMinimalMaxRegrets().get(k).getMinimalMaxRegretValue());
@@ -246,7 +252,7 @@ public class AnalyzeJsons {
     final int nbRuns = 50;
     final Path json = Path.of("experiments",
         String.format("By MMR MAX, m = %d, n = %d, k = %d, nbRuns = %d.json", m, n, k, nbRuns));
-    final Runs runs = JsonConverter.toRuns(Files.readString(json));
+    final Runs runs = RunsReader.readRuns(json);
     LOGGER.info("qst {} , tot {}", runs.getQuestionTimeStats(), runs.getTotalTimeStats());
     // LOGGER.info("Loss after k: {}.", Runner.asStringEstimator(runs.getLossesStats().get(k)));
     // LOGGER.info("MMR after k: {}.",
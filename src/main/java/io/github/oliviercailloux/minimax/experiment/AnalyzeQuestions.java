@@ -30,7 +30,7 @@ import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.Question;
 import io.github.oliviercailloux.minimax.elicitation.QuestionType;
-import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
+import io.github.oliviercailloux.minimax.experiment.json.RunsReader;
 import io.github.oliviercailloux.minimax.experiment.other_formats.ToCsv;
 import io.github.oliviercailloux.minimax.regret.Regrets;
 
@@ -52,7 +52,7 @@ public class AnalyzeQuestions {
   }
 
   public void questionsm10n20(String file, Path dir) throws Exception {
-    final Runs runs = JsonConverter.toRuns(Files.readString(Path.of(dir + "/" + file)));
+    final Runs runs = RunsReader.readRuns(Path.of(dir + "/" + file));
     StatisticsRuns statistics = new StatisticsRuns();
     final NumberFormat formatter = NumberFormat.getNumberInstance(Locale.ENGLISH);
     formatter.setMaximumFractionDigits(2);
@@ -98,7 +98,7 @@ public class AnalyzeQuestions {
     for (String file : fileNames) {
       LOGGER.info("File: {}", file);
       writer.addValue("file", file);
-      final Runs runs = JsonConverter.toRuns(Files.readString(Path.of(dir + "/" + file)));
+      final Runs runs = RunsReader.readRuns(Path.of(dir + "/" + file));
       writer.addValue("m", runs.getM());
       writer.addValue("n", runs.getN());
 
@@ -28,6 +28,7 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.FileAppender;
 import io.github.oliviercailloux.jaris.exceptions.Unchecker;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.elicitation.SolverStatistics;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 import io.github.oliviercailloux.minimax.strategies.StrategyType;
 import io.github.oliviercailloux.minimax.utils.Generator;
@@ -89,6 +90,11 @@ public class Commander {
     public int qC;
     @Parameter(names = "--qV")
     public int qV;
+    /**
+     * The number of voter questions evaluated per question asked by the SAMPLED family.
+     */
+    @Parameter(names = "--budget")
+    public int budget = 100;
 
     @Parameter(names = "-m")
     public int m = 5;
@@ -150,7 +156,7 @@ public class Commander {
     if (qC != 0 && qV != 0) {
       throw new ParameterException("At most one of the qC and qV parameters can be specified.");
     }
-    if (family != StrategyType.LIMITED) {
+    if ((qC != 0 || qV != 0) && family != StrategyType.LIMITED) {
       throw new ParameterException(
           "The qC and qV parameters can only be used with the LIMITED family.");
     }
@@ -175,6 +181,12 @@ public class Commander {
       case CSS:
         factory = StrategyFactory.css();
         break;
+      case SAMPLED:
+        if (command.budget < 1) {
+          throw new ParameterException("The budget must be positive.");
+        }
+        factory = StrategyFactory.sampled(command.budget);
+        break;
       case TWO_PHASES_HEURISTIC:
       case PESSIMISTIC:
       case PESSIMISTIC_HEURISTIC:
@@ -194,7 +206,10 @@ public class Commander {
     final Path outDir =
         Path.of(Objects.requireNonNullElse(command.outputDirectory, "experiments/"));
 
-    final Runs runs = new VariousXps().runs(factory, oracles, command.k, outDir);
+    final SolverStatistics statistics = SolverStatistics.newInstance();
+    final Runs runs = new VariousXps().runs(factory, oracles, command.k, outDir, statistics);
+    TimingXp.logSolves(statistics, runs);
+    LOGGER.info("Quality versus time: {}", runs.asStringQualityVersusTime());
     final Stats stats = runs.getMinimalMaxRegretStats().get(runs.getK());
     final String descr = Runner.asStringEstimator(stats);
     LOGGER.info("Got final estimator: {}.", descr);
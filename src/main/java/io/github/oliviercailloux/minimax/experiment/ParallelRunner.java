@@ -0,0 +1,126 @@
+package io.github.oliviercailloux.minimax.experiment;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.elicitation.SolverMetrics;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+
+/**
+ * Executes independent runs, each one with its own knowledge and strategy, in parallel on a pool of
+ * a given number of threads.
+ * <p>
+ * The run of index i (the one using the i-th oracle) uses the strategy obtained from its factory
+ * with {@link StrategyFactory#get(int)}, so that the runs do not depend on the order in which they
+ * are executed, nor on the number of threads: they ask the same questions as when executed
+ * sequentially using {@link Runner#run(io.github.oliviercailloux.minimax.strategies.Strategy,
+ * Oracle, UpdateablePreferenceKnowledge, int)} with those strategies. The runs are collected in the
+ * order of their oracles.
+ * </p>
+ * <p>
+ * Only as many runs as there are threads are in progress at any given time, so that the memory
+ * used by the knowledge and by the strategies (as opposed to the results) stays bounded.
+ * </p>
+ */
+public class ParallelRunner {
+  @SuppressWarnings("unused")
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRunner.class);
+
+  /**
+   * @param parallelism the number of runs to execute simultaneously, at least one.
+   */
+  public static ParallelRunner withParallelism(int parallelism) {
+    return new ParallelRunner(parallelism);
+  }
+
+  /**
+   * Returns a runner that uses as many threads as there are available processors.
+   */
+  public static ParallelRunner usingAllProcessors() {
+    return new ParallelRunner(Runtime.getRuntime().availableProcessors());
+  }
+
+  private final int parallelism;
+  private SolverMetrics metrics;
+
+  private ParallelRunner(int parallelism) {
+    checkArgument(parallelism >= 1);
+    this.parallelism = parallelism;
+    metrics = SolverMetrics.noOp();
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Sets the metrics, which must be thread-safe, that record the solves of all the runs. Defaults
+   * to {@link SolverMetrics#noOp()}.
+   */
+  public void setMetrics(SolverMetrics metrics) {
+    this.metrics = checkNotNull(metrics);
+  }
+
+  /**
+   * Asks k questions to each oracle using strategies from the given factory.
+   *
+   * @return the runs, in the order of the oracles.
+   */
+  public Runs runs(StrategyFactory factory, List<Oracle> oracles, int k) {
+    return runs(ImmutableList.of(factory), oracles, k).get(0);
+  }
+
+  /**
+   * Asks k questions to each oracle using strategies from each of the given factories, all runs
+   * sharing the same pool.
+   *
+   * @return for each factory, in order, the runs, in the order of the oracles.
+   */
+  public ImmutableList<Runs> runs(List<StrategyFactory> factories, List<Oracle> oracles, int k) {
+    checkArgument(!oracles.isEmpty());
+    final ImmutableList<StrategyFactory> factoriesCopy = ImmutableList.copyOf(factories);
+    final ImmutableList<Oracle> oraclesCopy = ImmutableList.copyOf(oracles);
+    final int nbOracles = oraclesCopy.size();
+    final int nbRuns = factoriesCopy.size() * nbOracles;
+    LOGGER.info("Executing {} runs on {} threads.", nbRuns, parallelism);
+
+    final ForkJoinPool pool = new ForkJoinPool(parallelism);
+    final ImmutableList<Run> allRuns;
+    try {
+      allRuns = pool.submit(() -> IntStream.range(0, nbRuns).parallel()
+          .mapToObj(i -> run(factoriesCopy.get(i / nbOracles), i % nbOracles,
+              oraclesCopy.get(i % nbOracles), k))
+          .collect(ImmutableList.toImmutableList())).join();
+    } finally {
+      pool.shutdownNow();
+    }
+
+    final ImmutableList.Builder<Runs> runsBuilder = ImmutableList.builder();
+    for (int f = 0; f < factoriesCopy.size(); ++f) {
+      runsBuilder.add(Runs.of(factoriesCopy.get(f),
+          allRuns.subList(f * nbOracles, (f + 1) * nbOracles)));
+    }
+    return runsBuilder.build();
+  }
+
+  private Run run(StrategyFactory factory, int runIndex, Oracle oracle, int k) {
+    final UpdateablePreferenceKnowledge knowledge =
+        UpdateablePreferenceKnowledge.given(oracle.getAlternatives(), oracle.getProfile().keySet());
+    knowledge.getConstraintsOnWeights().setMetrics(metrics);
+    final Run run = Runner.run(factory.get(runIndex), oracle, knowledge, k);
+    LOGGER.debug("Run {} of '{}' done in {}.", runIndex, factory.getDescription(),
+        run.getTotalTime());
+    return run;
+  }
+}
@@ -0,0 +1,124 @@
+package io.github.oliviercailloux.minimax.experiment;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Objects;
+
+import javax.json.bind.annotation.JsonbCreator;
+import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbPropertyOrder;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * The durations, in nanoseconds, of the phases of asking one question: selecting it, obtaining the
+ * answer from the oracle, and updating the knowledge with that answer, as measured by the clock.
+ * <p>
+ * Also the time spent, during the selection, computing regrets and optimizing weights. These are
+ * not phases: they are the times spent by each computation, summed over the threads that did them,
+ * thus, they exceed the selection time when the strategy computes concurrently.
+ * </p>
+ * <p>
+ * Immutable.
+ * </p>
+ */
+@JsonbPropertyOrder({"selectionNs", "regretNs", "nbOptimizations", "optimizationNs", "answerNs",
+    "updateNs"})
+public class QuestionTimes {
+  @JsonbCreator
+  public static QuestionTimes given(@JsonbProperty("selectionNs") long selectionNs,
+      @JsonbProperty("regretNs") long regretNs,
+      @JsonbProperty("nbOptimizations") long nbOptimizations,
+      @JsonbProperty("optimizationNs") long optimizationNs,
+      @JsonbProperty("answerNs") long answerNs, @JsonbProperty("updateNs") long updateNs) {
+    return new QuestionTimes(selectionNs, regretNs, nbOptimizations, optimizationNs, answerNs,
+        updateNs);
+  }
+
+  private final long selectionNs;
+  private final long regretNs;
+  private final long nbOptimizations;
+  private final long optimizationNs;
+  private final long answerNs;
+  private final long updateNs;
+
+  private QuestionTimes(long selectionNs, long regretNs, long nbOptimizations,
+      long optimizationNs, long answerNs, long updateNs) {
+    checkArgument(selectionNs >= 0l);
+    checkArgument(regretNs >= 0l);
+    checkArgument(nbOptimizations >= 0l);
+    checkArgument(optimizationNs >= 0l);
+    checkArgument(answerNs >= 0l);
+    checkArgument(updateNs >= 0l);
+    this.selectionNs = selectionNs;
+    this.regretNs = regretNs;
+    this.nbOptimizations = nbOptimizations;
+    this.optimizationNs = optimizationNs;
+    this.answerNs = answerNs;
+    this.updateNs = updateNs;
+  }
+
+  /**
+   * @return the time spent by the strategy choosing the question.
+   */
+  public long getSelectionNs() {
+    return selectionNs;
+  }
+
+  /**
+   * @return the time spent computing regrets during the selection, including hypothetical ones,
+   *         summed over the threads (see the class documentation).
+   */
+  public long getRegretNs() {
+    return regretNs;
+  }
+
+  /**
+   * @return the number of optimizations of weights, not answered from the cache, during the
+   *         selection.
+   */
+  public long getNbOptimizations() {
+    return nbOptimizations;
+  }
+
+  /**
+   * @return the time spent optimizing weights during the selection, summed over the threads (see
+   *         the class documentation).
+   */
+  public long getOptimizationNs() {
+    return optimizationNs;
+  }
+
+  public long getAnswerNs() {
+    return answerNs;
+  }
+
+  public long getUpdateNs() {
+    return updateNs;
+  }
+
+  @Override
+  public boolean equals(Object o2) {
+    if (!(o2 instanceof QuestionTimes)) {
+      return false;
+    }
+    final QuestionTimes t2 = (QuestionTimes) o2;
+    return selectionNs == t2.selectionNs && regretNs == t2.regretNs
+        && nbOptimizations == t2.nbOptimizations && optimizationNs == t2.optimizationNs
+        && answerNs == t2.answerNs && updateNs == t2.updateNs;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(selectionNs, regretNs, nbOptimizations, optimizationNs, answerNs,
+        updateNs);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("selectionNs", selectionNs)
+        .add("regretNs", regretNs).add("nbOptimizations", nbOptimizations)
+        .add("optimizationNs", optimizationNs).add("answerNs", answerNs).add("updateNs", updateNs)
+        .toString();
+  }
+}
@@ -23,7 +23,7 @@ import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
-import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
+import io.github.oliviercailloux.minimax.experiment.json.RunsWriter;
 import io.github.oliviercailloux.minimax.experiment.other_formats.ToCsv;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 import io.github.oliviercailloux.minimax.utils.Generator;
@@ -76,31 +76,32 @@ public class RealDataXps {
     final Path outDir = Path.of("experiments/RealData");
     Files.createDirectories(outDir);
     final String prefixTemp = prefixDescription + ", ongoing";
-    final Path tmpJson = outDir.resolve(prefixTemp + ".json");
+    final Path tmpJson = outDir.resolve(prefixTemp + RunsWriter.EXTENSION);
 
     final ImmutableList.Builder<Run> runsBuilder = ImmutableList.builder();
     LOGGER.info("Started '{}'.", factory.getDescription());
-    for (int i = 0; i < nbRuns; ++i) {
-      final Oracle oracle = oracles.get(i);
-      UpdateablePreferenceKnowledge startingKnowledge = UpdateablePreferenceKnowledge
-          .given(oracle.getAlternatives(), oracle.getProfile().keySet());
+    try (RunsWriter jsonWriter = RunsWriter.create(tmpJson, factory)) {
+      for (int i = 0; i < nbRuns; ++i) {
+        final Oracle oracle = oracles.get(i);
+        UpdateablePreferenceKnowledge startingKnowledge = UpdateablePreferenceKnowledge
+            .given(oracle.getAlternatives(), oracle.getProfile().keySet());
 
-      LOGGER.info("Set weights.");
-      addWeights(startingKnowledge, oracle);
+        LOGGER.info("Set weights.");
+        addWeights(startingKnowledge, oracle);
 
-      LOGGER.info("Before run.");
-      final Run run = Runner.run(factory.get(), oracle, startingKnowledge, k);
+        LOGGER.info("Before run.");
+        final Run run = Runner.run(factory.get(), oracle, startingKnowledge, k);
 
-      LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
-      runsBuilder.add(run);
-      final Runs runs = Runs.of(factory, runsBuilder.build());
+        LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
+        runsBuilder.add(run);
 
-      Files.writeString(tmpJson, JsonConverter.toJson(runs).toString());
-      LOGGER.info("Written json.");
+        jsonWriter.write(run);
+        LOGGER.info("Written json.");
+      }
     }
 
     final String prefix = prefixDescription + ", nbRuns = " + nbRuns;
-    final Path outJson = outDir.resolve(prefix + ".json");
+    final Path outJson = outDir.resolve(prefix + RunsWriter.EXTENSION);
     Files.move(tmpJson, outJson, StandardCopyOption.REPLACE_EXISTING);
 
     return Runs.of(factory, runsBuilder.build());
@@ -111,38 +112,36 @@ public class RealDataXps {
     final Path outDir = Path.of("experiments/RealData");
     Files.createDirectories(outDir);
     final String prefixTemp = prefixDescription + ", ongoing";
-    final Path tmpJson = outDir.resolve(prefixTemp + ".json");
-    final Path tmpCsv = outDir.resolve(prefixTemp + ".csv");
+    final Path tmpJson = outDir.resolve(prefixTemp + RunsWriter.EXTENSION);
 
     final ImmutableList.Builder<Run> runsBuilder = ImmutableList.builder();
     LOGGER.info("Started '{}'.", factory.getDescription());
-    for (int i = 0; i < nbRuns; ++i) {
-      final Oracle oracle = oracles.get(i);
-      UpdateablePreferenceKnowledge startingKnowledge = UpdateablePreferenceKnowledge
-          .given(oracle.getAlternatives(), oracle.getProfile().keySet());
-
-      LOGGER.info("Set weights.");
-      addWeights(startingKnowledge, oracle);
-
-      LOGGER.info("Before run.");
-      final Run run = Runner.run(factory, oracle, k);
-      LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
-      runsBuilder.add(run);
-      final Runs runs = Runs.of(factory, runsBuilder.build());
-      LOGGER.info("Runs.");
-      Files.writeString(tmpJson, JsonConverter.toJson(runs).toString());
-      LOGGER.info("Written json.");
-      Files.writeString(tmpCsv, ToCsv.toCsv(runs, 1));
-      LOGGER.info("Written csv.");
+    try (RunsWriter jsonWriter = RunsWriter.create(tmpJson, factory)) {
+      for (int i = 0; i < nbRuns; ++i) {
+        final Oracle oracle = oracles.get(i);
+        UpdateablePreferenceKnowledge startingKnowledge = UpdateablePreferenceKnowledge
+            .given(oracle.getAlternatives(), oracle.getProfile().keySet());
+
+        LOGGER.info("Set weights.");
+        addWeights(startingKnowledge, oracle);
+
+        LOGGER.info("Before run.");
+        final Run run = Runner.run(factory, oracle, k);
+        LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
+        runsBuilder.add(run);
+        jsonWriter.write(run);
+        LOGGER.info("Written json.");
+      }
     }
 
     final String prefix = prefixDescription + ", nbRuns = " + nbRuns;
-    final Path outJson = outDir.resolve(prefix + ".json");
+    final Path outJson = outDir.resolve(prefix + RunsWriter.EXTENSION);
     final Path outCsv = outDir.resolve(prefix + ".csv");
     Files.move(tmpJson, outJson, StandardCopyOption.REPLACE_EXISTING);
-    Files.move(tmpCsv, outCsv, StandardCopyOption.REPLACE_EXISTING);
+    final Runs runs = Runs.of(factory, runsBuilder.build());
+    Files.writeString(outCsv, ToCsv.toCsv(runs, 1));
 
-    return Runs.of(factory, runsBuilder.build());
+    return runs;
   }
 
   /**
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
+import io.github.oliviercailloux.minimax.experiment.json.RunsReader;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 import io.github.oliviercailloux.minimax.utils.Generator;
 
@@ -26,7 +27,7 @@ public class ReproduceXp {
   public static void reproduce() throws Exception {
     final Path json =
         Path.of("experiments/Limited, constrained to [], m = 10, n = 20, k = 10, nbRuns = 2.json");
-    final Runs runs = JsonConverter.toRuns(Files.readString(json));
+    final Runs runs = RunsReader.readRuns(json);
     final StrategyFactory factory = runs.getFactory();
     for (Run run : runs.getRuns()) {
       final Oracle oracle = run.getOracle();
@@ -8,6 +8,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.stream.IntStream;
 
@@ -35,8 +36,9 @@ import io.github.oliviercailloux.minimax.elicitation.QuestionType;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 import io.github.oliviercailloux.minimax.regret.RegretComputer;
 import io.github.oliviercailloux.minimax.regret.Regrets;
+import io.github.oliviercailloux.minimax.strategies.AnytimeSelection;
 
-@JsonbPropertyOrder({"oracle", "questions", "times"})
+@JsonbPropertyOrder({"oracle", "questions", "times", "phases", "selections", "nbPruned"})
 public class Run {
   @SuppressWarnings("unused")
   private static final Logger LOGGER = LoggerFactory.getLogger(Run.class);
@@ -66,16 +68,63 @@ public class Run {
     return times;
   }
 
+  /**
+   * @param phases {@code null} if the phases have not been timed.
+   * @param selections {@code null} if the questions have not been selected within a time budget.
+   * @param nbPruned {@code null} if the questions have not been selected with pruning.
+   */
   @JsonbCreator
   public static Run of(@JsonbProperty("oracle") Oracle oracle,
       @JsonbProperty("questions") List<Question> questions,
-      @JsonbProperty("timesMs") List<Integer> durationsMs) {
-    return new Run(oracle, questions, durationsMs);
+      @JsonbProperty("timesMs") List<Integer> durationsMs,
+      @JsonbProperty("phases") List<QuestionTimes> phases,
+      @JsonbProperty("selections") List<AnytimeSelection> selections,
+      @JsonbProperty("nbPruned") List<Integer> nbPruned) {
+    return new Run(oracle, questions, durationsMs, Optional.ofNullable(phases),
+        Optional.ofNullable(selections), Optional.ofNullable(nbPruned));
+  }
+
+  public static Run of(Oracle oracle, List<Question> questions, List<Integer> durationsMs) {
+    return new Run(oracle, questions, durationsMs, Optional.empty(), Optional.empty(),
+        Optional.empty());
   }
 
   public static Run of(Oracle oracle, List<Long> startTimes, List<Question> questions,
       long endTime) {
-    return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime));
+    return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime), Optional.empty(),
+        Optional.empty(), Optional.empty());
+  }
+
+  /**
+   * @param phases the timing of the phases of each question.
+   */
+  public static Run of(Oracle oracle, List<Long> startTimes, List<Question> questions,
+      long endTime, List<QuestionTimes> phases) {
+    return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime),
+        Optional.of(phases), Optional.empty(), Optional.empty());
+  }
+
+  /**
+   * @param phases the timing of the phases of each question.
+   * @param selections how each question has been selected within its time budget.
+   */
+  public static Run of(Oracle oracle, List<Long> startTimes, List<Question> questions,
+      long endTime, List<QuestionTimes> phases, List<AnytimeSelection> selections) {
+    return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime),
+        Optional.of(phases), Optional.of(selections), Optional.empty());
+  }
+
+  /**
+   * @param phases the timing of the phases of each question.
+   * @param selections {@code null} if the questions have not been selected within a time budget.
+   * @param nbPruned {@code null} if the questions have not been selected with pruning, otherwise,
+   *        the number of candidate questions whose evaluation was skipped, for each question.
+   */
+  public static Run of(Oracle oracle, List<Long> startTimes, List<Question> questions,
+      long endTime, List<QuestionTimes> phases, List<AnytimeSelection> selections,
+      List<Integer> nbPruned) {
+    return new Run(oracle, questions, getQuestionTimesMs(startTimes, endTime),
+        Optional.of(phases), Optional.ofNullable(selections), Optional.ofNullable(nbPruned));
   }
 
   private final Oracle oracle;
@@ -83,18 +132,33 @@ public class Run {
   @JsonbTransient
   private final ImmutableList<Integer> durationsMs;
   @JsonbTransient
+  private final Optional<ImmutableList<QuestionTimes>> questionPhases;
+  @JsonbTransient
+  private final Optional<ImmutableList<AnytimeSelection>> questionSelections;
+  @JsonbTransient
+  private final Optional<ImmutableList<Integer>> questionNbPruned;
+  @JsonbTransient
   private ImmutableList<Regrets> regrets;
   @JsonbTransient
   private Map<Integer, Regrets> regretsMap;
   private ImmutableList<Double> losses;
 
-  private Run(Oracle oracle, List<Question> questions, List<Integer> durationsMs) {
+  private Run(Oracle oracle, List<Question> questions, List<Integer> durationsMs,
+      Optional<List<QuestionTimes>> phases, Optional<List<AnytimeSelection>> selections,
+      Optional<List<Integer>> nbPruned) {
     checkArgument(!questions.isEmpty());
     checkArgument(durationsMs.size() == questions.size());
+    phases.ifPresent((p) -> checkArgument(p.size() == questions.size()));
+    selections.ifPresent((s) -> checkArgument(s.size() == questions.size()));
+    nbPruned.ifPresent((n) -> checkArgument(n.size() == questions.size()));
+    nbPruned.ifPresent((n) -> checkArgument(n.stream().allMatch(i -> i >= 0)));
     checkArgument(questions.size() >= 1);
     this.oracle = checkNotNull(oracle);
     this.questions = ImmutableList.copyOf(questions);
     this.durationsMs = ImmutableList.copyOf(durationsMs);
+    this.questionPhases = phases.map(ImmutableList::copyOf);
+    this.questionSelections = selections.map(ImmutableList::copyOf);
+    this.questionNbPruned = nbPruned.map(ImmutableList::copyOf);
     this.regrets = null;
     this.regretsMap = new TreeMap<>();
     verify((getNbQVoters() + getNbQCommittee()) == questions.size());
@@ -127,6 +191,68 @@ public class Run {
     return durationsMs;
   }
 
+  /**
+   * @return a list of size k, or an empty optional if the phases have not been timed.
+   */
+  @JsonbTransient
+  public Optional<ImmutableList<QuestionTimes>> getQuestionPhases() {
+    return questionPhases;
+  }
+
+  /**
+   * @return the value of {@link #getQuestionPhases()}, or {@code null} if absent, as serialized.
+   */
+  @JsonbProperty("phases")
+  public ImmutableList<QuestionTimes> getPhasesOrNull() {
+    return questionPhases.orElse(null);
+  }
+
+  /**
+   * @return a list of size k, or an empty optional if the questions have not been selected within
+   *         a time budget.
+   */
+  @JsonbTransient
+  public Optional<ImmutableList<AnytimeSelection>> getQuestionSelections() {
+    return questionSelections;
+  }
+
+  /**
+   * @return the value of {@link #getQuestionSelections()}, or {@code null} if absent, as
+   *         serialized.
+   */
+  @JsonbProperty("selections")
+  public ImmutableList<AnytimeSelection> getSelectionsOrNull() {
+    return questionSelections.orElse(null);
+  }
+
+  /**
+   * @return a list of size k, giving, for each question, the number of candidate questions whose
+   *         evaluation was skipped by pruning, or an empty optional if the questions have not been
+   *         selected with pruning.
+   */
+  @JsonbTransient
+  public Optional<ImmutableList<Integer>> getQuestionNbPruned() {
+    return questionNbPruned;
+  }
+
+  /**
+   * @return the value of {@link #getQuestionNbPruned()}, or {@code null} if absent, as serialized.
+   */
+  @JsonbProperty("nbPruned")
+  public ImmutableList<Integer> getNbPrunedOrNull() {
+    return questionNbPruned.orElse(null);
+  }
+
+  /**
+   * @return the number of questions selected by the fallback heuristic, zero if the questions have
+   *         not been selected within a time budget.
+   */
+  @JsonbTransient
+  public int getNbFallbacks() {
+    return questionSelections
+        .map(l -> (int) l.stream().filter(AnytimeSelection::isFallback).count()).orElse(0);
+  }
+
   @JsonbTransient
   public int getNbQVoters() {
     return (int) questions.stream().filter((q) -> q.getType().equals(QuestionType.VOTER_QUESTION))
@@ -260,17 +386,21 @@ public class Run {
 
     final Run r2 = (Run) o2;
     return oracle.equals(r2.oracle) && questions.equals(r2.questions)
-        && durationsMs.equals(r2.durationsMs);
+        && durationsMs.equals(r2.durationsMs) && questionPhases.equals(r2.questionPhases)
+        && questionSelections.equals(r2.questionSelections)
+        && questionNbPruned.equals(r2.questionNbPruned);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(oracle, questions, durationsMs);
+    return Objects.hash(oracle, questions, durationsMs, questionPhases, questionSelections,
+        questionNbPruned);
   }
 
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this).add("oracle", oracle).add("questions", questions)
-        .add("durationsMs", durationsMs).toString();
+        .add("durationsMs", durationsMs).add("phases", questionPhases)
+        .add("selections", questionSelections).add("nbPruned", questionNbPruned).toString();
   }
 }
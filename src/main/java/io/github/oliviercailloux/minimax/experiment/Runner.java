@@ -17,14 +17,19 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.math.Stats;
 
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.ComputationTimes;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
 import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.SolverMetrics;
 import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
+import io.github.oliviercailloux.minimax.strategies.AnytimeSelection;
 import io.github.oliviercailloux.minimax.strategies.Strategy;
+import io.github.oliviercailloux.minimax.strategies.StrategyByMmr;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+import io.github.oliviercailloux.minimax.strategies.StrategyWithDeadline;
 import io.github.oliviercailloux.minimax.utils.Generator;
 
 public class Runner {
@@ -47,9 +52,18 @@ public class Runner {
    * strategy.
    */
   public static Run run(StrategyFactory strategyFactory, int m, int n, int k) {
+    return run(strategyFactory, m, n, k, SolverMetrics.noOp());
+  }
+
+  /**
+   * Creates a new random oracle; returns a single run of asking k questions with the given
+   * strategy, whose solves are recorded by the given metrics.
+   */
+  public static Run run(StrategyFactory strategyFactory, int m, int n, int k,
+      SolverMetrics metrics) {
     final Oracle oracle =
         Oracle.build(Generator.genProfile(m, n), Generator.genWeightsWithUnbalancedDistribution(m));
-    return run(strategyFactory, oracle, k);
+    return run(strategyFactory, oracle, k, metrics);
   }
 
   public static Run runWeights(StrategyFactory strategyFactory, Oracle oracle, int k)
@@ -84,50 +98,32 @@ public class Runner {
     }
     strategy.setKnowledge(knowledge);
 
-    final ImmutableList.Builder<Question> qBuilder = ImmutableList.builder();
-    final ImmutableList.Builder<Long> tBuilder = ImmutableList.builder();
-
     try {
-      for (int i = 1; i <= k; i++) {
-        final long startTime = System.currentTimeMillis();
-        final Question q = strategy.nextQuestion();
-        final PreferenceInformation a = oracle.getPreferenceInformation(q);
-        knowledge.update(a);
-        LOGGER.debug("Asked {}.", q);
-        qBuilder.add(q);
-        tBuilder.add(startTime);
-      }
+      return ask(strategy, oracle, knowledge, k);
     } catch (Exception e) {
       Files.writeString(Path.of("oracle-crashed.json"), JsonConverter.toJson(oracle).toString());
       throw e;
     }
-    final long endTime = System.currentTimeMillis();
-
-    return Run.of(oracle, tBuilder.build(), qBuilder.build(), endTime);
   }
 
   public static Run run(StrategyFactory strategyFactory, Oracle oracle, int k) {
+    return run(strategyFactory, oracle, k, SolverMetrics.noOp());
+  }
+
+  /**
+   * Returns a single run of asking k questions with the given strategy, whose solves are recorded
+   * by the given metrics.
+   */
+  public static Run run(StrategyFactory strategyFactory, Oracle oracle, int k,
+      SolverMetrics metrics) {
     final Strategy strategy = strategyFactory.get();
 
     final UpdateablePreferenceKnowledge knowledge =
         UpdateablePreferenceKnowledge.given(oracle.getAlternatives(), oracle.getProfile().keySet());
+    knowledge.getConstraintsOnWeights().setMetrics(metrics);
     strategy.setKnowledge(knowledge);
 
-    final ImmutableList.Builder<Question> qBuilder = ImmutableList.builder();
-    final ImmutableList.Builder<Long> tBuilder = ImmutableList.builder();
-
-    for (int i = 1; i <= k; i++) {
-      final long startTime = System.currentTimeMillis();
-      final Question q = strategy.nextQuestion();
-      final PreferenceInformation a = oracle.getPreferenceInformation(q);
-      knowledge.update(a);
-      LOGGER.debug("Asked {}.", q);
-      qBuilder.add(q);
-      tBuilder.add(startTime);
-    }
-    final long endTime = System.currentTimeMillis();
-
-    return Run.of(oracle, tBuilder.build(), qBuilder.build(), endTime);
+    return ask(strategy, oracle, knowledge, k);
   }
 
   public static Run run(Strategy strategy, Oracle oracle,
@@ -138,21 +134,58 @@ public class Runner {
     /** Rename for clarity. */
     final UpdateablePreferenceKnowledge knowledge = startingKnowledge;
 
+    return ask(strategy, oracle, knowledge, k);
+  }
+
+  /**
+   * Asks k questions chosen by the strategy, which must use the given knowledge, and times the
+   * phases of each question (the regret and optimization times being summed over threads, see
+   * {@link QuestionTimes}). Also records how each question has been selected if the strategy
+   * selects them within a time budget, and how many candidates it pruned if it prunes.
+   */
+  private static Run ask(Strategy strategy, Oracle oracle, UpdateablePreferenceKnowledge knowledge,
+      int k) {
+    final ComputationTimes times = knowledge.getConstraintsOnWeights().getComputationTimes();
     final ImmutableList.Builder<Question> qBuilder = ImmutableList.builder();
     final ImmutableList.Builder<Long> tBuilder = ImmutableList.builder();
+    final ImmutableList.Builder<QuestionTimes> phasesBuilder = ImmutableList.builder();
+    final ImmutableList.Builder<AnytimeSelection> selectionsBuilder = ImmutableList.builder();
+    final boolean pruning =
+        strategy instanceof StrategyByMmr && ((StrategyByMmr) strategy).isPruning();
+    final ImmutableList.Builder<Integer> nbPrunedBuilder = ImmutableList.builder();
 
     for (int i = 1; i <= k; i++) {
       final long startTime = System.currentTimeMillis();
+      final long regretNsBefore = times.getRegretNanos();
+      final long nbOptimizationsBefore = times.getNbOptimizations();
+      final long optimizationNsBefore = times.getOptimizationNanos();
+      final long start = System.nanoTime();
       final Question q = strategy.nextQuestion();
+      final long selected = System.nanoTime();
+      if (strategy instanceof StrategyWithDeadline) {
+        selectionsBuilder.add(((StrategyWithDeadline) strategy).getLastSelection());
+      }
+      if (pruning) {
+        nbPrunedBuilder.add(((StrategyByMmr) strategy).getLastNbPruned());
+      }
       final PreferenceInformation a = oracle.getPreferenceInformation(q);
+      final long answered = System.nanoTime();
       knowledge.update(a);
+      final long updated = System.nanoTime();
       LOGGER.debug("Asked {}.", q);
       qBuilder.add(q);
       tBuilder.add(startTime);
+      phasesBuilder.add(QuestionTimes.given(selected - start,
+          times.getRegretNanos() - regretNsBefore,
+          times.getNbOptimizations() - nbOptimizationsBefore,
+          times.getOptimizationNanos() - optimizationNsBefore, answered - selected,
+          updated - answered));
     }
     final long endTime = System.currentTimeMillis();
 
-    return Run.of(oracle, tBuilder.build(), qBuilder.build(), endTime);
+    return Run.of(oracle, tBuilder.build(), qBuilder.build(), endTime, phasesBuilder.build(),
+        strategy instanceof StrategyWithDeadline ? selectionsBuilder.build() : null,
+        pruning ? nbPrunedBuilder.build() : null);
   }
 
   public static void show(Run run) {
@@ -5,6 +5,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
 import java.util.stream.IntStream;
 
 import javax.json.bind.annotation.JsonbCreator;
@@ -101,12 +103,37 @@ public class Runs {
     return Stats.of(allTimes);
   }
 
+  /**
+   * @param phase the duration of a phase of a question, for example
+   *        {@link QuestionTimes#getSelectionNs()}, or another value recorded for a question, such
+   *        as {@link QuestionTimes#getRegretNs()}, which is summed over threads, thus, is not
+   *        comparable to the phases when the strategy computes concurrently.
+   * @return statistics about that value over the questions of the runs whose phases have been
+   *         timed.
+   */
+  public Stats getQuestionTimeStats(ToLongFunction<QuestionTimes> phase) {
+    return Stats.of(runs.stream().map(Run::getQuestionPhases).flatMap(Optional::stream)
+        .flatMap(List::stream).mapToLong(phase));
+  }
+
   @JsonbTransient
   public Stats getTotalTimeStats() {
     final IntStream totalTimesStream = runs.stream().mapToInt(Run::getTotalTimeMs);
     return Stats.of(totalTimesStream);
   }
 
+  /**
+   * Describes the quality of the questions asked, as the final minimal max regrets, against the
+   * time spent asking them, as the total times of the runs, for comparing strategies that trade
+   * one for the other, such as those evaluating samples of candidate questions of various sizes.
+   */
+  public String asStringQualityVersusTime() {
+    return factory.getDescription() + ": final MMR "
+        + Runner.asStringEstimator(getMinimalMaxRegretStats().get(k)) + ", total time (ms) "
+        + Runner.asStringEstimator(getTotalTimeStats()) + ", time per question (ms) "
+        + Runner.asStringEstimator(getQuestionTimeStats()) + ".";
+  }
+
   @JsonbTransient
   public int nbRuns() {
     return runs.size();
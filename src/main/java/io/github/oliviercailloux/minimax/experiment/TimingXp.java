@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 
+import io.github.oliviercailloux.minimax.elicitation.SolverStatistics;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 
 public class TimingXp {
@@ -35,9 +36,10 @@ public class TimingXp {
       LOGGER.info("Time warm up: {}.", run.getTotalTime());
     }
 
+    final SolverStatistics statistics = SolverStatistics.newInstance();
     final ImmutableList.Builder<Run> runsBuilder = ImmutableList.builder();
     for (int i = 0; i < nbRuns; ++i) {
-      final Run run = Runner.run(factory, m, n, k);
+      final Run run = Runner.run(factory, m, n, k, statistics);
       LOGGER.info("Time run {}: {}.", i, run.getTotalTime());
       runsBuilder.add(run);
     }
@@ -47,5 +49,17 @@ public class TimingXp {
         factory.getDescription(), m, n, runs.getQuestionTimeStats());
     LOGGER.info("Timing statistics for finding all questions (in ms): {}.",
         runs.getTotalTimeStats());
+    logSolves(statistics, runs);
+  }
+
+  /**
+   * Logs the solver metrics recorded during the given runs, including the number of solves per
+   * question, which permits to compare strategies independently of the machine.
+   */
+  static void logSolves(SolverStatistics statistics, Runs runs) {
+    final long nbQuestions = runs.getRuns().stream().mapToLong(Run::getK).sum();
+    LOGGER.info("Solves per question: {}.",
+        nbQuestions == 0l ? Double.NaN : (double) statistics.getNbSolves() / nbQuestions);
+    LOGGER.info("Solver metrics: {}", statistics.asString());
   }
 }
@@ -35,8 +35,11 @@ import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
 import io.github.oliviercailloux.minimax.elicitation.Question;
 import io.github.oliviercailloux.minimax.elicitation.QuestionType;
+import io.github.oliviercailloux.minimax.elicitation.SolverMetrics;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
+import io.github.oliviercailloux.minimax.experiment.json.RunsReader;
+import io.github.oliviercailloux.minimax.experiment.json.RunsWriter;
 import io.github.oliviercailloux.minimax.experiment.other_formats.ToCsv;
 import io.github.oliviercailloux.minimax.strategies.Strategy;
 import io.github.oliviercailloux.minimax.strategies.StrategyByMmr;
@@ -199,6 +202,15 @@ public class VariousXps {
 
   public Runs runs(StrategyFactory factory, List<Oracle> oracles, int k, Path outDir)
       throws IOException {
+    return runs(factory, oracles, k, outDir, SolverMetrics.noOp());
+  }
+
+  /**
+   * As {@link #runs(StrategyFactory, List, int, Path)}, recording the solves of all the runs into
+   * the given metrics.
+   */
+  public Runs runs(StrategyFactory factory, List<Oracle> oracles, int k, Path outDir,
+      SolverMetrics metrics) throws IOException {
     final int m =
         oracles.stream().map(Oracle::getM).distinct().collect(MoreCollectors.onlyElement());
     final int n =
@@ -209,30 +221,30 @@ public class VariousXps {
     final String prefixDescription =
         factory.getDescription() + ", m = " + m + ", n = " + n + ", k = " + k;
     final String prefixTemp = prefixDescription + ", ongoing";
-    final Path tmpJson = outDir.resolve(prefixTemp + ".json");
-    final Path tmpCsv = outDir.resolve(prefixTemp + ".csv");
+    final Path tmpJson = outDir.resolve(prefixTemp + RunsWriter.EXTENSION);
 
     final ImmutableList.Builder<Run> runsBuilder = ImmutableList.builder();
     LOGGER.info("Started '{}'.", factory.getDescription());
-    for (int i = 0; i < nbRuns; ++i) {
-      final Oracle oracle = oracles.get(i);
-      final Run run = Runner.run(factory, oracle, k);
-      LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
-      runsBuilder.add(run);
-      final Runs runs = Runs.of(factory, runsBuilder.build());
-      Files.writeString(tmpJson, JsonConverter.toJson(runs).toString());
-      LOGGER.debug("Written json.");
-      Files.writeString(tmpCsv, ToCsv.toCsv(runs, 1));
-      LOGGER.debug("Written csv.");
+    try (RunsWriter jsonWriter = RunsWriter.create(tmpJson, factory)) {
+      for (int i = 0; i < nbRuns; ++i) {
+        final Oracle oracle = oracles.get(i);
+        final Run run = Runner.run(factory, oracle, k, metrics);
+        LOGGER.info("Time (run {}): {}.", i, run.getTotalTime());
+        runsBuilder.add(run);
+        jsonWriter.write(run);
+        LOGGER.debug("Written json.");
+      }
     }
 
     final String prefix = prefixDescription + ", nbRuns = " + nbRuns;
-    final Path outJson = outDir.resolve(prefix + ".json");
+    final Path outJson = outDir.resolve(prefix + RunsWriter.EXTENSION);
     final Path outCsv = outDir.resolve(prefix + ".csv");
     Files.move(tmpJson, outJson, StandardCopyOption.REPLACE_EXISTING);
-    Files.move(tmpCsv, outCsv, StandardCopyOption.REPLACE_EXISTING);
+    final Runs runs = Runs.of(factory, runsBuilder.build());
+    // Written once, as it summarizes all the runs: the JSON file shows the progress.
+    Files.writeString(outCsv, ToCsv.toCsv(runs, 1));
 
-    return Runs.of(factory, runsBuilder.build());
+    return runs;
   }
 
   public void runShowTies(StrategyByMmr strategy, Oracle oracle, int k) {
@@ -331,7 +343,7 @@ public class VariousXps {
     for (Path path : inputPaths) {
       // Pattern.compile("Limited, constrained to [(<nbX>2)(<x>c), 28v], m = 6, n = 6, k = 30,
       // nbRuns = 50.json");
-      final Runs runs = JsonConverter.toRuns(Files.readString(path));
+      final Runs runs = RunsReader.readRuns(path);
       verify(runs.getK() == k);
       final String fullFileName = path.toString();
       writer.addValue("Strategy", fullFileName.substring(greatestCommonPrefixLength,
@@ -0,0 +1,88 @@
+package io.github.oliviercailloux.minimax.experiment.json;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.minimax.experiment.Run;
+import io.github.oliviercailloux.minimax.experiment.Runs;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+
+/**
+ * Reads runs written by a {@link RunsWriter}, one at a time, so that a file containing many runs
+ * may be processed without keeping all of them (or the whole file content) in memory.
+ */
+public class RunsReader implements Closeable {
+  @SuppressWarnings("unused")
+  private static final Logger LOGGER = LoggerFactory.getLogger(RunsReader.class);
+
+  /**
+   * Opens the given file and reads its first line.
+   *
+   * @param file written by a {@link RunsWriter}.
+   */
+  public static RunsReader open(Path file) throws IOException {
+    final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    final String factoryLine = reader.readLine();
+    if (factoryLine == null) {
+      reader.close();
+      throw new IllegalArgumentException("Empty file: " + file + ".");
+    }
+    return new RunsReader(reader, JsonConverter.toFactory(factoryLine));
+  }
+
+  /**
+   * Reads all the runs in the given file, which may be written by a {@link RunsWriter} (if its name
+   * ends with {@link RunsWriter#EXTENSION}) or contain a single JSON object as written by
+   * {@link JsonConverter#toJson(Runs)}.
+   */
+  public static Runs readRuns(Path file) throws IOException {
+    if (!file.getFileName().toString().endsWith(RunsWriter.EXTENSION)) {
+      return JsonConverter.toRuns(Files.readString(file));
+    }
+    try (RunsReader reader = open(file)) {
+      final ImmutableList<Run> runs = reader.runs().collect(ImmutableList.toImmutableList());
+      return Runs.of(reader.getFactory(), runs);
+    }
+  }
+
+  private final BufferedReader reader;
+  private final StrategyFactory factory;
+  private boolean read;
+
+  private RunsReader(BufferedReader reader, StrategyFactory factory) {
+    this.reader = reader;
+    this.factory = factory;
+    read = false;
+  }
+
+  public StrategyFactory getFactory() {
+    return factory;
+  }
+
+  /**
+   * Returns the runs, read and parsed lazily, while the stream is consumed. May be called only
+   * once. Blank lines are ignored.
+   */
+  public Stream<Run> runs() {
+    checkState(!read);
+    read = true;
+    return reader.lines().filter(l -> !l.isBlank()).map(JsonConverter::toRun);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
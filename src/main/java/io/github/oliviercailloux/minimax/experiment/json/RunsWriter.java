@@ -0,0 +1,101 @@
+package io.github.oliviercailloux.minimax.experiment.json;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.oliviercailloux.minimax.experiment.Run;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+
+/**
+ * Writes runs in the JSON Lines format, appending each run as soon as it is given, so that
+ * writing n runs costs time linear in their total size, instead of re-serializing all previous runs
+ * after each one.
+ * <p>
+ * The first line is the factory, as written by {@link JsonConverter#toJson(StrategyFactory)}, and
+ * each following line is a run, as written by {@link JsonConverter#toJson(Run)}, both without
+ * pretty printing. Such a file can be read by {@link RunsReader}. Each line is flushed once
+ * written, so that an interrupted experiment leaves all its completed runs on disk.
+ * </p>
+ */
+public class RunsWriter implements Closeable {
+  @SuppressWarnings("unused")
+  private static final Logger LOGGER = LoggerFactory.getLogger(RunsWriter.class);
+
+  /**
+   * The file extension conventionally used for files written by this class.
+   */
+  public static final String EXTENSION = ".jsonl";
+
+  /**
+   * Creates the given file, or truncates it if it exists, and writes the given factory as its
+   * first line.
+   */
+  public static RunsWriter create(Path file, StrategyFactory factory) throws IOException {
+    final RunsWriter writer = new RunsWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    writer.writeLine(JsonConverter.toJson(factory));
+    return writer;
+  }
+
+  /**
+   * Returns the given JSON object, written on a single line.
+   */
+  static String toLine(JsonObject json) {
+    final StringWriter line = new StringWriter();
+    try (JsonWriter jsonWriter = Json.createWriter(line)) {
+      jsonWriter.writeObject(json);
+    }
+    return line.toString();
+  }
+
+  private final BufferedWriter writer;
+  private int nbRuns;
+  private boolean closed;
+
+  private RunsWriter(BufferedWriter writer) {
+    this.writer = writer;
+    nbRuns = 0;
+    closed = false;
+  }
+
+  /**
+   * Appends the given run to the file.
+   */
+  public void write(Run run) throws IOException {
+    writeLine(JsonConverter.toJson(run));
+    ++nbRuns;
+  }
+
+  private void writeLine(JsonObject json) throws IOException {
+    checkState(!closed);
+    writer.write(toLine(json));
+    writer.newLine();
+    writer.flush();
+  }
+
+  /**
+   * @return the number of runs written so far.
+   */
+  public int getNbRuns() {
+    return nbRuns;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    writer.close();
+  }
+}
@@ -4,26 +4,65 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.StringWriter;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.math.Stats;
+import com.google.common.math.StatsAccumulator;
 import com.univocity.parsers.csv.CsvWriter;
 import com.univocity.parsers.csv.CsvWriterSettings;
 
+import io.github.oliviercailloux.minimax.experiment.Run;
 import io.github.oliviercailloux.minimax.experiment.Runs;
+import io.github.oliviercailloux.minimax.experiment.json.RunsReader;
+import io.github.oliviercailloux.minimax.regret.Regrets;
 
 public class ToCsv {
   @SuppressWarnings("unused")
   private static final Logger LOGGER = LoggerFactory.getLogger(ToCsv.class);
 
   public static String toCsv(Runs runs, int modulo) {
+    return toCsv(runs.getRuns().stream(), modulo);
+  }
+
+  /**
+   * Returns the same content as {@link #toCsv(Runs, int)}, consuming the runs one at a time, so
+   * that they need not all be kept in memory (for example, when streamed by a
+   * {@link RunsReader}).
+   *
+   * @param runs a non-empty stream of runs that all have the same number of questions.
+   */
+  public static String toCsv(Stream<Run> runs, int modulo) {
     checkArgument(modulo >= 1);
-    final ImmutableList<Integer> ks = IntStream.rangeClosed(0, runs.getK())
+    final List<StatsAccumulator> regretStats = new ArrayList<>();
+    final List<StatsAccumulator> lossStats = new ArrayList<>();
+    final Iterator<Run> iterator = runs.iterator();
+    checkArgument(iterator.hasNext());
+    while (iterator.hasNext()) {
+      final Run run = iterator.next();
+      if (regretStats.isEmpty()) {
+        for (int i = 0; i <= run.getK(); ++i) {
+          regretStats.add(new StatsAccumulator());
+          lossStats.add(new StatsAccumulator());
+        }
+      }
+      checkArgument(run.getK() == regretStats.size() - 1);
+      final ImmutableList<Regrets> regrets = run.getMinimalMaxRegrets();
+      for (int i = 0; i <= run.getK(); ++i) {
+        regretStats.get(i).add(regrets.get(i).getMinimalMaxRegretValue());
+        lossStats.get(i).add(run.getLoss(i));
+      }
+    }
+    final int nbQuestions = regretStats.size() - 1;
+    final ImmutableList<Integer> ks = IntStream.rangeClosed(0, nbQuestions)
         .filter(i -> i % modulo == 0).boxed().collect(ImmutableList.toImmutableList());
 
     final NumberFormat formatter = NumberFormat.getNumberInstance(Locale.ENGLISH);
@@ -36,7 +75,7 @@ public class ToCsv {
     for (int k : ks) {
       writer.addValue("k", k);
       {
-        final Stats stat = runs.getMinimalMaxRegretStats().get(k);
+        final Stats stat = regretStats.get(k).snapshot();
         writer.addValue("MMR min", formatter.format(stat.min()));
         writer.addValue("MMR avg", formatter.format(stat.mean()));
         writer.addValue("MMR max", formatter.format(stat.max()));
@@ -45,7 +84,7 @@ public class ToCsv {
         writer.addValue("MMR σ (est.)", dev);
       }
       {
-        final Stats stat = runs.getLossesStats().get(k);
+        final Stats stat = lossStats.get(k).snapshot();
         writer.addValue("Loss min", formatter.format(stat.min()));
         writer.addValue("Loss avg", formatter.format(stat.mean()));
         writer.addValue("Loss max", formatter.format(stat.max()));
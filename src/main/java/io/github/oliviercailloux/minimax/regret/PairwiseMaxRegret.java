@@ -8,7 +8,10 @@ import java.util.Map;
 import java.util.Objects;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.ImmutableIntArray;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
@@ -17,6 +20,11 @@ import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
 
 /**
  * Immutable.
+ * <p>
+ * Stores the ranks of x and y as histograms: at index r − 1, the number of voters giving the rank
+ * r. The ranks of each voter may be given lazily, in which case they are computed only if asked
+ * for. Two instances are equal iff they have the same alternatives, histograms and weights.
+ * </p>
  *
  * @author Olivier Cailloux
  *
@@ -26,6 +34,30 @@ public class PairwiseMaxRegret {
     return ranks.values().stream().mapToDouble(weights::getWeightAtRank).sum();
   }
 
+  /**
+   * @return the score, given the histogram of the ranks.
+   */
+  public static double getScore(ImmutableIntArray histogramOfRanks, PSRWeights weights) {
+    checkArgument(histogramOfRanks.length() == weights.size());
+    double score = 0d;
+    for (int r = 1; r <= histogramOfRanks.length(); ++r) {
+      score += histogramOfRanks.get(r - 1) * weights.getWeightAtRank(r);
+    }
+    return score;
+  }
+
+  /**
+   * @param m the number of ranks, at least the highest rank.
+   * @return the histogram of the given ranks.
+   */
+  public static ImmutableIntArray getHistogram(Map<Voter, Integer> ranks, int m) {
+    final int[] histogram = new int[m];
+    for (int rank : ranks.values()) {
+      ++histogram[rank - 1];
+    }
+    return ImmutableIntArray.copyOf(histogram);
+  }
+
   public static double getScore(Alternative alternative, VoterStrictPreference v,
       PSRWeights weights) {
     final int rank = v.getAlternativeRank(alternative);
@@ -39,13 +71,34 @@ public class PairwiseMaxRegret {
 
   public static PairwiseMaxRegret given(Alternative x, Alternative y, Map<Voter, Integer> ranksOfX,
       Map<Voter, Integer> ranksOfY, PSRWeights weights) {
-    return new PairwiseMaxRegret(x, y, ranksOfX, ranksOfY, weights,
+    return given(x, y, ranksOfX, ranksOfY, weights,
         getScore(ranksOfY, weights) - getScore(ranksOfX, weights));
   }
 
   public static PairwiseMaxRegret given(Alternative x, Alternative y, Map<Voter, Integer> ranksOfX,
       Map<Voter, Integer> ranksOfY, PSRWeights weights, double pmrValue) {
-    return new PairwiseMaxRegret(x, y, ranksOfX, ranksOfY, weights, pmrValue);
+    final ImmutableMap<Voter, Integer> ranksOfXCopy = ImmutableMap.copyOf(ranksOfX);
+    final ImmutableMap<Voter, Integer> ranksOfYCopy = ImmutableMap.copyOf(ranksOfY);
+    if (x.equals(y)) {
+      checkArgument(ranksOfX.equals(ranksOfY), ranksOfXCopy.toString() + ", " + ranksOfYCopy);
+    }
+    return new PairwiseMaxRegret(x, y, getHistogram(ranksOfX, weights.size()),
+        getHistogram(ranksOfY, weights.size()), Suppliers.ofInstance(ranksOfXCopy),
+        Suppliers.ofInstance(ranksOfYCopy), weights, pmrValue);
+  }
+
+  /**
+   * @param ranksOfX computed at most once, only if asked for, and must be consistent with the
+   *        histogram.
+   * @param ranksOfY computed at most once, only if asked for, and must be consistent with the
+   *        histogram.
+   */
+  static PairwiseMaxRegret givenLazily(Alternative x, Alternative y,
+      ImmutableIntArray histogramOfRanksOfX, ImmutableIntArray histogramOfRanksOfY,
+      Supplier<ImmutableMap<Voter, Integer>> ranksOfX,
+      Supplier<ImmutableMap<Voter, Integer>> ranksOfY, PSRWeights weights, double pmrValue) {
+    return new PairwiseMaxRegret(x, y, histogramOfRanksOfX, histogramOfRanksOfY,
+        Suppliers.memoize(ranksOfX), Suppliers.memoize(ranksOfY), weights, pmrValue);
   }
 
   public static final Comparator<PairwiseMaxRegret> BY_VALUE =
@@ -61,24 +114,29 @@ public class PairwiseMaxRegret {
 
   private Alternative y;
 
-  private ImmutableMap<Voter, Integer> ranksOfX;
-  private ImmutableMap<Voter, Integer> ranksOfY;
+  private ImmutableIntArray histogramOfRanksOfX;
+  private ImmutableIntArray histogramOfRanksOfY;
+  private Supplier<ImmutableMap<Voter, Integer>> ranksOfX;
+  private Supplier<ImmutableMap<Voter, Integer>> ranksOfY;
   private PSRWeights weights;
   private double pmrValue;
 
-  private PairwiseMaxRegret(Alternative x, Alternative y, Map<Voter, Integer> ranksOfX,
-      Map<Voter, Integer> ranksOfY, PSRWeights weights, double pmrValue) {
+  private PairwiseMaxRegret(Alternative x, Alternative y, ImmutableIntArray histogramOfRanksOfX,
+      ImmutableIntArray histogramOfRanksOfY, Supplier<ImmutableMap<Voter, Integer>> ranksOfX,
+      Supplier<ImmutableMap<Voter, Integer>> ranksOfY, PSRWeights weights, double pmrValue) {
     this.x = requireNonNull(x);
     this.y = requireNonNull(y);
-    this.ranksOfX = ImmutableMap.copyOf(requireNonNull(ranksOfX));
-    this.ranksOfY = ImmutableMap.copyOf(requireNonNull(ranksOfY));
+    this.histogramOfRanksOfX = histogramOfRanksOfX.trimmed();
+    this.histogramOfRanksOfY = histogramOfRanksOfY.trimmed();
+    this.ranksOfX = requireNonNull(ranksOfX);
+    this.ranksOfY = requireNonNull(ranksOfY);
     this.weights = requireNonNull(weights);
     this.pmrValue = pmrValue;
-    checkArgument(Math.abs(pmrValue
-        - (getScore(ranksOfY, weights) - getScore(ranksOfX, weights))) < IMPRECISION_TOLERATED);
+    checkArgument(Math.abs(pmrValue - (getScore(histogramOfRanksOfY, weights)
+        - getScore(histogramOfRanksOfX, weights))) < IMPRECISION_TOLERATED);
     if (x.equals(y)) {
-      checkArgument(ranksOfX.equals(ranksOfY),
-          this.ranksOfX.toString() + ", " + this.ranksOfY.toString());
+      checkArgument(histogramOfRanksOfX.equals(histogramOfRanksOfY),
+          histogramOfRanksOfX.toString() + ", " + histogramOfRanksOfY.toString());
       checkArgument(pmrValue == 0d);
     }
   }
@@ -92,11 +150,25 @@ public class PairwiseMaxRegret {
   }
 
   public ImmutableMap<Voter, Integer> getRanksOfX() {
-    return ranksOfX;
+    return ranksOfX.get();
   }
 
   public ImmutableMap<Voter, Integer> getRanksOfY() {
-    return ranksOfY;
+    return ranksOfY.get();
+  }
+
+  /**
+   * @return at index r − 1, the number of voters giving the rank r to x.
+   */
+  public ImmutableIntArray getHistogramOfRanksOfX() {
+    return histogramOfRanksOfX;
+  }
+
+  /**
+   * @return at index r − 1, the number of voters giving the rank r to y.
+   */
+  public ImmutableIntArray getHistogramOfRanksOfY() {
+    return histogramOfRanksOfY;
   }
 
   public PSRWeights getWeights() {
@@ -113,18 +185,19 @@ public class PairwiseMaxRegret {
       return false;
     }
     final PairwiseMaxRegret p2 = (PairwiseMaxRegret) o2;
-    return x.equals(p2.x) && y.equals(p2.y) && ranksOfX.equals(p2.ranksOfX)
-        && ranksOfY.equals(p2.ranksOfY) && weights.equals(p2.weights);
+    return x.equals(p2.x) && y.equals(p2.y) && histogramOfRanksOfX.equals(p2.histogramOfRanksOfX)
+        && histogramOfRanksOfY.equals(p2.histogramOfRanksOfY) && weights.equals(p2.weights);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(x, y, ranksOfX, ranksOfY, weights);
+    return Objects.hash(x, y, histogramOfRanksOfX, histogramOfRanksOfY, weights);
   }
 
   @Override
   public String toString() {
-    return MoreObjects.toStringHelper(this).add("x", x).add("y", y).add("ranks x", ranksOfX)
-        .add("ranks y", ranksOfY).add("weights", weights).add("value", pmrValue).toString();
+    return MoreObjects.toStringHelper(this).add("x", x).add("y", y)
+        .add("ranks x", histogramOfRanksOfX).add("ranks y", histogramOfRanksOfY)
+        .add("weights", weights).add("value", pmrValue).toString();
   }
 }
@@ -4,19 +4,31 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static java.util.Objects.requireNonNull;
 
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ImmutableSortedMultiset;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.SortedMultiset;
-import com.google.common.graph.ImmutableGraph;
+import com.google.common.primitives.ImmutableIntArray;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
@@ -24,72 +36,397 @@ import io.github.oliviercailloux.j_voting.VoterPartialPreference;
 import io.github.oliviercailloux.jlp.elements.SumTerms;
 import io.github.oliviercailloux.jlp.elements.SumTermsBuilder;
 import io.github.oliviercailloux.jlp.elements.Term;
+import io.github.oliviercailloux.minimax.elicitation.ConstraintsOnWeights;
+import io.github.oliviercailloux.minimax.elicitation.OptimalWeights;
 import io.github.oliviercailloux.minimax.elicitation.PreferenceKnowledge;
 
+/**
+ * <p>
+ * The partial preferences of the knowledge are read once per computation of a set of pairwise max
+ * regrets, and kept as an immutable snapshot (the ranks computed from the transitive relation of
+ * each voter) during that computation. The ranks of a voter are computed again only when its
+ * transitive relation changes. When given a pool, the pairwise max regrets are then computed in
+ * parallel, using that pool, with results identical to the sequential computation.
+ * </p>
+ * <p>
+ * The minimal max regrets are computed lazily: alternatives that can’t have a minimal max regret
+ * are abandoned as soon as this is known (see {@link #getMinimalMaxRegrets()}).
+ * </p>
+ * <p>
+ * The optimal weights found for the last objectives optimized under the current constraints on
+ * weights are kept (see {@link WeightCertificates}) and give bounds on the pairwise max regrets
+ * still to be computed. The solver is called only when these bounds can’t decide whether the
+ * pairwise max regret matters to the minimal max regret.
+ * </p>
+ * <p>
+ * The durations of the computations are added to the
+ * {@link ConstraintsOnWeights#getComputationTimes() computation times} of the knowledge.
+ * </p>
+ * <p>
+ * The knowledge must not be modified during a computation.
+ * </p>
+ */
 public class RegretComputer {
   @SuppressWarnings("unused")
   private static final Logger LOGGER = LoggerFactory.getLogger(RegretComputer.class);
 
+  /**
+   * The optima found so far, indexed by the identity of the program of the constraints on weights
+   * they were found under (see {@link ConstraintsOnWeights#getProgramIdentity()}). The certificates
+   * are thus forgotten when a constraint is added, and are shared among the knowledges sharing
+   * their constraints on weights, such as a knowledge and the delegating knowledges representing
+   * hypothetical answers of voters.
+   */
+  private static final Cache<Object, WeightCertificates> CERTIFICATES =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  /**
+   * The margin by which a bound must decide a comparison, so that the imprecision of the solver
+   * can’t change the results, per unit of the L1 norm of the objective (see
+   * {@link #getMargin(ImmutableIntArray)}).
+   */
+  private static final double MARGIN = 1e-6;
+
+  /**
+   * The ranks of each voter, and the classes of voters sharing the same ranks, thus, the same
+   * transitive relation, with the number of voters in each class. The coefficients of the pairwise
+   * max regrets are computed over the classes rather than over the voters. Also, the certificates
+   * valid under the current constraints on weights.
+   */
+  private static final class RanksSnapshot {
+    private final ImmutableMap<Voter, VoterRanks> byVoter;
+    /** The voter ranks compare by identity. */
+    private final ImmutableMultiset<VoterRanks> classes;
+    private final WeightCertificates certificates;
+
+    private RanksSnapshot(ImmutableMap<Voter, VoterRanks> byVoter,
+        WeightCertificates certificates) {
+      this.byVoter = byVoter;
+      classes = ImmutableMultiset.copyOf(byVoter.values());
+      this.certificates = certificates;
+    }
+  }
+
   private final PreferenceKnowledge knowledge;
+  /**
+   * Empty iff the computations are sequential.
+   */
+  private final Optional<ForkJoinPool> pool;
 
   public RegretComputer(PreferenceKnowledge knowledge) {
     this.knowledge = requireNonNull(knowledge);
+    this.pool = Optional.empty();
+  }
+
+  /**
+   * @param pool the pool used to compute the pairwise max regrets in parallel.
+   */
+  public RegretComputer(PreferenceKnowledge knowledge, ForkJoinPool pool) {
+    this.knowledge = requireNonNull(knowledge);
+    this.pool = Optional.of(pool);
   }
 
+  /**
+   * Equivalent to {@code getAllPairwiseMaxRegrets().getMinimalMaxRegrets()}, but computes only
+   * part of the pairwise max regrets.
+   * <p>
+   * The alternatives x are considered in increasing order of the sum of their worst ranks, as those
+   * tend to have low max regrets, and, for each x, the opponents are considered in that same order,
+   * as those tend to give high regrets. The pairwise max regrets of x are abandoned as soon as one
+   * of them is greater than the max regret of an alternative whose pairwise max regrets are all
+   * known, as x then can’t have a minimal max regret. Before solving anything for x, the lower
+   * bounds given by the certificates are checked against that bound.
+   * </p>
+   */
   public Regrets getMinimalMaxRegrets() {
-    return getAllPairwiseMaxRegrets().getMinimalMaxRegrets();
+    final long start = System.nanoTime();
+    final RanksSnapshot snapshot = getSnapshot();
+    final ImmutableMap<Alternative, ImmutableIntArray> histogramsOfRanksOfXs =
+        getHistogramsOfWorstRanks(snapshot);
+    final ImmutableList<Alternative> ordered = knowledge.getAlternatives().stream()
+        .sorted(Comparator
+            .comparing((Alternative x) -> getSumOfRanks(histogramsOfRanksOfXs.get(x))))
+        .collect(ImmutableList.toImmutableList());
+
+    /** The lowest max regret among the alternatives whose pairwise max regrets are all known. */
+    final DoubleAccumulator bound = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    final ImmutableList<Optional<ImmutableMap<Alternative, PairwiseMaxRegret>>> rows =
+        collect(ordered.stream()
+            .map((x) -> getPmrsNotAbove(x, ordered, bound, histogramsOfRanksOfXs.get(x),
+                snapshot)));
+
+    final ImmutableMap<Alternative, ImmutableMap<Alternative, PairwiseMaxRegret>> rowsByX =
+        rows.stream().flatMap(Optional::stream).collect(ImmutableMap.toImmutableMap(
+            (r) -> r.values().iterator().next().getX(), (r) -> r));
+    LOGGER.debug("Abandoned {} alternatives among {}.", ordered.size() - rowsByX.size(),
+        ordered.size());
+    final ImmutableSetMultimap.Builder<Alternative, PairwiseMaxRegret> pmrs =
+        ImmutableSetMultimap.builder();
+    for (Alternative x : knowledge.getAlternatives()) {
+      if (rowsByX.containsKey(x)) {
+        for (Alternative y : knowledge.getAlternatives()) {
+          pmrs.put(x, rowsByX.get(x).get(y));
+        }
+      }
+    }
+    final Regrets minimalMaxRegrets = Regrets.given(pmrs.build()).getMinimalMaxRegrets();
+    addTime(start);
+    return minimalMaxRegrets;
+  }
+
+  /**
+   * @return the pairwise max regrets of x against each opponent, or an empty optional if one of
+   *         them is greater than the bound.
+   */
+  private Optional<ImmutableMap<Alternative, PairwiseMaxRegret>> getPmrsNotAbove(Alternative x,
+      ImmutableList<Alternative> opponents, DoubleAccumulator bound,
+      ImmutableIntArray histogramOfRanksOfX, RanksSnapshot snapshot) {
+    final Supplier<ImmutableMap<Voter, Integer>> ranksOfX =
+        Suppliers.memoize(() -> getWorstRanksOfX(x, snapshot));
+    final ImmutableMap<Alternative, ImmutableIntArray> histogramsOfRanksOfYs =
+        ImmutableMap.copyOf(Maps.toMap(opponents,
+            (y) -> getHistogramOfBestRanksOfY(x, y, snapshot)));
+    final double boundBefore = bound.get();
+    if (boundBefore < Double.POSITIVE_INFINITY) {
+      for (Alternative y : opponents) {
+        final ImmutableIntArray objective =
+            getDifference(histogramsOfRanksOfYs.get(y), histogramOfRanksOfX);
+        if (snapshot.certificates.getLowerBound(objective) > boundBefore + getMargin(objective)) {
+          return Optional.empty();
+        }
+      }
+    }
+    final Map<Alternative, PairwiseMaxRegret> pmrs = new LinkedHashMap<>();
+    double maxRegret = 0d;
+    for (Alternative y : opponents) {
+      final PairwiseMaxRegret pmr = getPmr(x, y, histogramOfRanksOfX,
+          histogramsOfRanksOfYs.get(y), ranksOfX, snapshot);
+      /** The bound only decreases, thus reading an outdated value is harmless. */
+      if (pmr.getPmrValue() > bound.get()) {
+        return Optional.empty();
+      }
+      pmrs.put(y, pmr);
+      maxRegret = Math.max(maxRegret, pmr.getPmrValue());
+    }
+    bound.accumulate(maxRegret);
+    return Optional.of(ImmutableMap.copyOf(pmrs));
   }
 
   ImmutableSet<PairwiseMaxRegret> getPairwiseMaxRegrets(Alternative x) {
     checkArgument(knowledge.getAlternatives().contains(x));
 
-    final ImmutableMap<Voter, Integer> ranksOfX = getWorstRanksOfX(x);
-    final ImmutableSortedMultiset<Integer> multiSetOfRanksOfX =
-        ImmutableSortedMultiset.copyOf(ranksOfX.values());
+    final RanksSnapshot snapshot = getSnapshot();
+    final ImmutableIntArray histogramOfRanksOfX = getHistogramOfWorstRanksOfX(x, snapshot);
+    final Supplier<ImmutableMap<Voter, Integer>> ranksOfX =
+        Suppliers.memoize(() -> getWorstRanksOfX(x, snapshot));
 
-    final ImmutableSet<PairwiseMaxRegret> pmrs =
-        knowledge.getAlternatives().stream().map((y) -> getPmr(x, y, ranksOfX, multiSetOfRanksOfX))
-            .collect(ImmutableSet.toImmutableSet());
+    final ImmutableSet<PairwiseMaxRegret> pmrs = compute(knowledge.getAlternatives().stream()
+        .map((y) -> getPmr(x, y, histogramOfRanksOfX,
+            getHistogramOfBestRanksOfY(x, y, snapshot), ranksOfX, snapshot)));
     verify(!pmrs.isEmpty());
 
     return pmrs;
   }
 
   public Regrets getAllPairwiseMaxRegrets() {
-    final ImmutableMap<Alternative, ImmutableSet<PairwiseMaxRegret>> allPmrs =
-        knowledge.getAlternatives().stream()
-            .collect(ImmutableMap.toImmutableMap(Function.identity(), this::getPairwiseMaxRegrets));
+    final long start = System.nanoTime();
+    final RanksSnapshot snapshot = getSnapshot();
+    final ImmutableMap<Alternative, ImmutableIntArray> histogramsOfRanksOfXs =
+        getHistogramsOfWorstRanks(snapshot);
+    final ImmutableMap<Alternative, Supplier<ImmutableMap<Voter, Integer>>> ranksOfXs =
+        ImmutableMap.copyOf(Maps.toMap(knowledge.getAlternatives(),
+            (x) -> Suppliers.memoize(() -> getWorstRanksOfX(x, snapshot))));
+
+    /** All the pairs are computed in a single stream, for a better load balance. */
+    final ImmutableSet<PairwiseMaxRegret> pmrs = compute(knowledge.getAlternatives().stream()
+        .flatMap((x) -> knowledge.getAlternatives().stream()
+            .map((y) -> getPmr(x, y, histogramsOfRanksOfXs.get(x),
+                getHistogramOfBestRanksOfY(x, y, snapshot), ranksOfXs.get(x), snapshot))));
+    final ImmutableSetMultimap<Alternative, PairwiseMaxRegret> allPmrs = pmrs.stream()
+        .collect(ImmutableSetMultimap.toImmutableSetMultimap(PairwiseMaxRegret::getX, (p) -> p));
     final Regrets regrets = Regrets.given(allPmrs);
     LOGGER.debug("Computed from {}: {}.", knowledge, regrets);
+    addTime(start);
     return regrets;
   }
 
-  private PairwiseMaxRegret getPmr(Alternative x, Alternative y, Map<Voter, Integer> ranksOfX,
-      SortedMultiset<Integer> multiSetOfRanksOfX) {
-    final ImmutableMap<Voter, Integer> ranksOfY = getBestRanksOfY(x, y);
-    final ImmutableSortedMultiset<Integer> multiSetOfRanksOfY =
-        ImmutableSortedMultiset.copyOf(ranksOfY.values());
+  /**
+   * Returns the minimal, over the alternatives x, maximal pairwise max regret of x against the
+   * given opponents (and x itself). This is a lower bound of the minimal max regret value, which is
+   * cheaper to compute when there are few opponents.
+   * <p>
+   * The certificates are used to avoid solving for the opponents that can’t increase the max regret
+   * of x, and for the alternatives x whose max regret is known to be greater than the minimum
+   * found so far.
+   * </p>
+   *
+   * @param opponents some alternatives of the knowledge.
+   */
+  public double getMinimalMaxRegretValueAgainst(Set<Alternative> opponents) {
+    checkArgument(knowledge.getAlternatives().containsAll(opponents));
+    final long start = System.nanoTime();
+    final RanksSnapshot snapshot = getSnapshot();
+    final WeightCertificates certificates = snapshot.certificates;
+    double minMaxRegret = Double.POSITIVE_INFINITY;
+    int nbPairs = 0;
+    int nbSolved = 0;
+    for (Alternative x : knowledge.getAlternatives()) {
+      final ImmutableIntArray histogramOfRanksOfX = getHistogramOfWorstRanksOfX(x, snapshot);
+      final Map<Alternative, ImmutableIntArray> objectives = new LinkedHashMap<>();
+      boolean abandoned = false;
+      for (Alternative y : opponents) {
+        if (y.equals(x)) {
+          continue;
+        }
+        ++nbPairs;
+        final ImmutableIntArray objective =
+            getDifference(getHistogramOfBestRanksOfY(x, y, snapshot), histogramOfRanksOfX);
+        if (certificates.getLowerBound(objective) > minMaxRegret + getMargin(objective)) {
+          abandoned = true;
+          break;
+        }
+        objectives.put(y, objective);
+      }
+      if (abandoned) {
+        continue;
+      }
+      /** The pairwise max regret of x against itself is zero. */
+      double maxRegret = 0d;
+      for (Alternative y : objectives.keySet()) {
+        final ImmutableIntArray objective = objectives.get(y);
+        final double margin = getMargin(objective);
+        if (maxRegret > minMaxRegret + margin
+            || certificates.getUpperBound(objective) < maxRegret - margin) {
+          continue;
+        }
+        final OptimalWeights optimum =
+            knowledge.getConstraintsOnWeights().getMaximum(getTermsOfDifference(objective));
+        ++nbSolved;
+        certificates.add(objective, optimum);
+        maxRegret = Math.max(maxRegret, optimum.getValue());
+      }
+      minMaxRegret = Math.min(minMaxRegret, maxRegret);
+    }
+    LOGGER.debug("Solved {} pairwise max regrets among {} considered.", nbSolved, nbPairs);
+    addTime(start);
+    return minMaxRegret;
+  }
+
+  /**
+   * Records the time elapsed since the given start of a computation of regrets.
+   */
+  private void addTime(long start) {
+    knowledge.getConstraintsOnWeights().getComputationTimes()
+        .addRegretComputation(System.nanoTime() - start);
+  }
+
+  /**
+   * Collects the given stream, in parallel on the pool if there is one, keeping its encounter
+   * order.
+   */
+  private ImmutableSet<PairwiseMaxRegret> compute(Stream<PairwiseMaxRegret> pmrs) {
+    return ImmutableSet.copyOf(collect(pmrs));
+  }
+
+  private <T> ImmutableList<T> collect(Stream<T> elements) {
+    if (pool.isEmpty()) {
+      return elements.collect(ImmutableList.toImmutableList());
+    }
+    return pool.get().submit(() -> elements.parallel().collect(ImmutableList.toImmutableList()))
+        .join();
+  }
+
+  /**
+   * Reads the partial preferences of the knowledge sequentially, as the lazy computation of the
+   * transitive relations is not thread-safe.
+   */
+  private RanksSnapshot getSnapshot() {
+    final ImmutableMap.Builder<Voter, VoterRanks> builder = ImmutableMap.builder();
+    for (Voter voter : knowledge.getVoters()) {
+      builder.put(voter, VoterRanks.of(knowledge.getPartialPreference(voter)));
+    }
+    final ConstraintsOnWeights constraintsOnWeights = knowledge.getConstraintsOnWeights();
+    final WeightCertificates certificates =
+        CERTIFICATES.asMap().computeIfAbsent(constraintsOnWeights.getProgramIdentity(),
+            (p) -> WeightCertificates.given(constraintsOnWeights.isConvexityConstraintSet()));
+    return new RanksSnapshot(builder.build(), certificates);
+  }
 
-    final SumTerms sumTerms = getTermScoreYMinusScoreX(multiSetOfRanksOfY, multiSetOfRanksOfX);
-    final double pmr = knowledge.getConstraintsOnWeights().maximize(sumTerms);
+  private PairwiseMaxRegret getPmr(Alternative x, Alternative y,
+      ImmutableIntArray histogramOfRanksOfX, ImmutableIntArray histogramOfRanksOfY,
+      Supplier<ImmutableMap<Voter, Integer>> ranksOfX, RanksSnapshot snapshot) {
+    final ImmutableIntArray objective = getDifference(histogramOfRanksOfY, histogramOfRanksOfX);
+    final OptimalWeights optimum =
+        knowledge.getConstraintsOnWeights().getMaximum(getTermsOfDifference(objective));
+    snapshot.certificates.add(objective, optimum);
+    final double pmr = optimum.getValue();
     /** Just a check that the value seems to make sense. */
     verify(Math.abs(pmr) <= knowledge.getVoters().size());
     if (x.equals(y)) {
       verify(pmr == 0d);
     }
-    final PairwiseMaxRegret pmrY = PairwiseMaxRegret.given(x, y, ranksOfX, ranksOfY,
-        knowledge.getConstraintsOnWeights().getLastSolution(), pmr);
+    final PairwiseMaxRegret pmrY = PairwiseMaxRegret.givenLazily(x, y, histogramOfRanksOfX,
+        histogramOfRanksOfY, ranksOfX, () -> getBestRanksOfY(x, y, snapshot),
+        optimum.asPsrWeights(), pmr);
     return pmrY;
   }
 
   public SumTerms getTermScoreYMinusScoreX(SortedMultiset<Integer> multiSetOfRanksOfY,
       SortedMultiset<Integer> multiSetOfRanksOfX) {
     final int m = knowledge.getAlternatives().size();
-    final SumTermsBuilder builder = SumTerms.builder();
+    final int[] histogramOfRanksOfY = new int[m];
+    final int[] histogramOfRanksOfX = new int[m];
     for (int r = 1; r <= m; ++r) {
-      final int coefY = multiSetOfRanksOfY.count(r);
-      final int coefX = multiSetOfRanksOfX.count(r);
-      final int coef = coefY - coefX;
+      histogramOfRanksOfY[r - 1] = multiSetOfRanksOfY.count(r);
+      histogramOfRanksOfX[r - 1] = multiSetOfRanksOfX.count(r);
+    }
+    return getTermScoreYMinusScoreX(ImmutableIntArray.copyOf(histogramOfRanksOfY),
+        ImmutableIntArray.copyOf(histogramOfRanksOfX));
+  }
+
+  /**
+   * @param histogramOfRanksOfY at index r − 1, the number of voters giving the rank r to y.
+   * @param histogramOfRanksOfX at index r − 1, the number of voters giving the rank r to x.
+   */
+  public SumTerms getTermScoreYMinusScoreX(ImmutableIntArray histogramOfRanksOfY,
+      ImmutableIntArray histogramOfRanksOfX) {
+    return getTermsOfDifference(getDifference(histogramOfRanksOfY, histogramOfRanksOfX));
+  }
+
+  /**
+   * @return at index r − 1, the coefficient of the weight of rank r in the score of y minus the
+   *         score of x.
+   */
+  private ImmutableIntArray getDifference(ImmutableIntArray histogramOfRanksOfY,
+      ImmutableIntArray histogramOfRanksOfX) {
+    final int m = knowledge.getAlternatives().size();
+    checkArgument(histogramOfRanksOfY.length() == m);
+    checkArgument(histogramOfRanksOfX.length() == m);
+    final int[] difference = new int[m];
+    for (int r = 1; r <= m; ++r) {
+      difference[r - 1] = histogramOfRanksOfY.get(r - 1) - histogramOfRanksOfX.get(r - 1);
+    }
+    return ImmutableIntArray.copyOf(difference);
+  }
+
+  /**
+   * Returns the margin that a bound on the given objective must exceed. The optima the bounds come
+   * from violate the constraints on weights by up to the tolerance of the program, and the
+   * objective multiplies such errors by up to the sum of the absolute values of its coefficients,
+   * which reaches twice the number of voters.
+   */
+  private static double getMargin(ImmutableIntArray objective) {
+    long norm = 0l;
+    for (int i = 0; i < objective.length(); ++i) {
+      norm += Math.abs(objective.get(i));
+    }
+    return MARGIN * Math.max(norm, 1l);
+  }
+
+  private SumTerms getTermsOfDifference(ImmutableIntArray difference) {
+    final SumTermsBuilder builder = SumTerms.builder();
+    for (int r = 1; r <= difference.length(); ++r) {
+      final int coef = difference.get(r - 1);
       if (coef != 0) {
         final Term term = knowledge.getConstraintsOnWeights().getTerm(coef, r);
         builder.add(term);
@@ -98,11 +435,51 @@ public class RegretComputer {
     return builder.build();
   }
 
+  private ImmutableMap<Alternative, ImmutableIntArray>
+      getHistogramsOfWorstRanks(RanksSnapshot snapshot) {
+    final ImmutableMap.Builder<Alternative, ImmutableIntArray> histogramsBuilder =
+        ImmutableMap.builder();
+    for (Alternative x : knowledge.getAlternatives()) {
+      histogramsBuilder.put(x, getHistogramOfWorstRanksOfX(x, snapshot));
+    }
+    return histogramsBuilder.build();
+  }
+
+  private static int getSumOfRanks(ImmutableIntArray histogramOfRanks) {
+    int sum = 0;
+    for (int r = 1; r <= histogramOfRanks.length(); ++r) {
+      sum += r * histogramOfRanks.get(r - 1);
+    }
+    return sum;
+  }
+
+  private ImmutableIntArray getHistogramOfWorstRanksOfX(Alternative x, RanksSnapshot snapshot) {
+    final int[] histogram = new int[knowledge.getAlternatives().size()];
+    for (Multiset.Entry<VoterRanks> voterClass : snapshot.classes.entrySet()) {
+      histogram[voterClass.getElement().getWorstRank(x) - 1] += voterClass.getCount();
+    }
+    return ImmutableIntArray.copyOf(histogram);
+  }
+
+  private ImmutableIntArray getHistogramOfBestRanksOfY(Alternative x, Alternative y,
+      RanksSnapshot snapshot) {
+    final int[] histogram = new int[knowledge.getAlternatives().size()];
+    for (Multiset.Entry<VoterRanks> voterClass : snapshot.classes.entrySet()) {
+      histogram[voterClass.getElement().getBestRank(x, y) - 1] += voterClass.getCount();
+    }
+    return ImmutableIntArray.copyOf(histogram);
+  }
+
   public ImmutableMap<Voter, Integer> getWorstRanksOfX(Alternative x) {
+    return getWorstRanksOfX(x, getSnapshot());
+  }
+
+  private ImmutableMap<Voter, Integer> getWorstRanksOfX(Alternative x,
+      RanksSnapshot snapshot) {
     final ImmutableMap<Voter, Integer> ranksOfX;
     final ImmutableMap.Builder<Voter, Integer> ranksOfXBuilder = ImmutableMap.builder();
     for (Voter voter : knowledge.getVoters()) {
-      final int rankX = getWorstRankOfX(x, knowledge.getPartialPreference(voter));
+      final int rankX = snapshot.byVoter.get(voter).getWorstRank(x);
       ranksOfXBuilder.put(voter, rankX);
     }
     ranksOfX = ranksOfXBuilder.build();
@@ -110,22 +487,19 @@ public class RegretComputer {
   }
 
   int getWorstRankOfX(Alternative x, VoterPartialPreference partialPreference) {
-    final ImmutableGraph<Alternative> transitivePreference = partialPreference.asTransitiveGraph();
-    final int m = transitivePreference.nodes().size();
-    /** +1 because x itself is to be counted. */
-    final int nbWeaklyLessGoodThanX = transitivePreference.successors(x).size() + 1;
-    assert 1 <= nbWeaklyLessGoodThanX && nbWeaklyLessGoodThanX <= m;
-    final int nbNotWeaklyLessGoodThanX = m - nbWeaklyLessGoodThanX;
-    final int rankX = 1 + nbNotWeaklyLessGoodThanX;
-    assert 1 <= rankX && rankX <= m;
-    return rankX;
+    return VoterRanks.of(partialPreference).getWorstRank(x);
   }
 
   public ImmutableMap<Voter, Integer> getBestRanksOfY(Alternative x, Alternative y) {
+    return getBestRanksOfY(x, y, getSnapshot());
+  }
+
+  private ImmutableMap<Voter, Integer> getBestRanksOfY(Alternative x, Alternative y,
+      RanksSnapshot snapshot) {
     final ImmutableMap<Voter, Integer> ranksOfY;
     final ImmutableMap.Builder<Voter, Integer> ranksOfYBuilder = ImmutableMap.builder();
     for (Voter voter : knowledge.getVoters()) {
-      final int rankY = getBestRankOfY(x, y, knowledge.getPartialPreference(voter));
+      final int rankY = snapshot.byVoter.get(voter).getBestRank(x, y);
       ranksOfYBuilder.put(voter, rankY);
     }
     ranksOfY = ranksOfYBuilder.build();
@@ -133,28 +507,6 @@ public class RegretComputer {
   }
 
   int getBestRankOfY(Alternative x, Alternative y, VoterPartialPreference partialPreference) {
-    final ImmutableGraph<Alternative> transitivePreference = partialPreference.asTransitiveGraph();
-    final int m = transitivePreference.nodes().size();
-    Set<Alternative> strictlyBetterThanY = transitivePreference.predecessors(y);
-    final int nbStrictlyBetterThanY = strictlyBetterThanY.size();
-    assert 0 <= nbStrictlyBetterThanY && nbStrictlyBetterThanY <= m - 1;
-    final int beta;
-    if (transitivePreference.hasEdgeConnecting(x, y) || x.equals(y)) {
-      final HashSet<Alternative> incomparableAlternatives =
-          new HashSet<>(transitivePreference.nodes());
-      final HashSet<Alternative> notBetterThanX = new HashSet<>(transitivePreference.successors(x));
-      notBetterThanX.add(x);
-      incomparableAlternatives.removeAll(notBetterThanX);
-      incomparableAlternatives.removeAll(strictlyBetterThanY);
-
-      final int nbIncomparableAlts = incomparableAlternatives.size();
-      assert 0 <= nbIncomparableAlts && nbIncomparableAlts <= m - 1;
-      beta = nbIncomparableAlts;
-    } else {
-      beta = 0;
-    }
-    final int rankY = 1 + nbStrictlyBetterThanY + beta;
-    assert 1 <= rankY && rankY <= m;
-    return rankY;
+    return VoterRanks.of(partialPreference).getBestRank(x, y);
   }
 }
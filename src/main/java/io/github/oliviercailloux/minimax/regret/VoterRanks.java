@@ -0,0 +1,178 @@
+package io.github.oliviercailloux.minimax.regret;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.graph.ImmutableGraph;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.TransitiveBitsets;
+import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+
+/**
+ * The worst ranks of the alternatives and the best ranks of the alternatives given another one,
+ * in the partial preference of a voter, represented by its transitive relation.
+ * <p>
+ * With at most {@link TransitiveBitsets#MAX_SIZE} alternatives, the ranks are obtained by counting
+ * the bits of the transitive bitsets of the preference, rather than by building sets of
+ * alternatives.
+ * </p>
+ * <p>
+ * The worst ranks are computed at creation; the best ranks are computed on demand and remembered.
+ * The instances may be shared among threads: two threads computing the same best rank concurrently
+ * merely write the same value.
+ * </p>
+ */
+class VoterRanks {
+  /**
+   * The ranks in the partial preferences, indexed by the identity of their transitive relation.
+   * As a partial preference computes its transitive relation again only when it changes, and
+   * shares it with the equal ones, the ranks are computed again only for the voters whose
+   * preference changed, and are shared among the voters having equal preferences and among the
+   * knowledges sharing the partial preference of a voter, such as a knowledge and a delegating
+   * knowledge.
+   */
+  private static final LoadingCache<TransitiveBitsets, VoterRanks> BY_BITSETS = CacheBuilder
+      .newBuilder().weakKeys().build(CacheLoader.from((TransitiveBitsets b) -> new VoterRanks(b)));
+  private static final LoadingCache<ImmutableGraph<Alternative>, VoterRanks> BY_GRAPH =
+      CacheBuilder.newBuilder().weakKeys()
+          .build(CacheLoader.from((ImmutableGraph<Alternative> g) -> new VoterRanks(g)));
+
+  /**
+   * Computes the transitive relation of the given preference, if not done yet, thus, must not be
+   * called concurrently with other reads of that preference unless its transitive relation is
+   * known (see {@link VoterPartialPreference#computeTransitiveRelation()}).
+   */
+  public static VoterRanks of(VoterPartialPreference preference) {
+    if (preference.isBitsetsSupported()) {
+      return BY_BITSETS.getUnchecked(preference.asTransitiveBitsets());
+    }
+    return BY_GRAPH.getUnchecked(preference.asTransitiveGraph());
+  }
+
+  /**
+   * {@code null} iff there are at most {@link TransitiveBitsets#MAX_SIZE} alternatives.
+   */
+  private final ImmutableGraph<Alternative> transitivePreference;
+  /**
+   * {@code null} iff there are too many alternatives.
+   */
+  private final TransitiveBitsets bitsets;
+  /**
+   * {@code null} iff there are at most {@link TransitiveBitsets#MAX_SIZE} alternatives.
+   */
+  private final ImmutableMap<Alternative, Integer> indices;
+  private final int m;
+  private final int[] worstRanks;
+  /**
+   * At index (index of x) × m + (index of y), the best rank of y given x, or zero if not computed
+   * yet.
+   */
+  private final int[] bestRanks;
+
+  private VoterRanks(TransitiveBitsets bitsets) {
+    this.transitivePreference = null;
+    this.bitsets = requireNonNull(bitsets);
+    this.indices = null;
+    final ImmutableList<Alternative> alternatives = bitsets.getAlternatives();
+    m = alternatives.size();
+    worstRanks = new int[m];
+    for (int i = 0; i < m; ++i) {
+      worstRanks[i] = getWorstRank(bitsets.getNbSuccessors(alternatives.get(i)));
+    }
+    bestRanks = new int[m * m];
+  }
+
+  private VoterRanks(ImmutableGraph<Alternative> transitivePreference) {
+    this.transitivePreference = requireNonNull(transitivePreference);
+    this.bitsets = null;
+    final ImmutableList<Alternative> alternatives =
+        ImmutableList.copyOf(transitivePreference.nodes());
+    final ImmutableMap.Builder<Alternative, Integer> indicesBuilder = ImmutableMap.builder();
+    for (int i = 0; i < alternatives.size(); ++i) {
+      indicesBuilder.put(alternatives.get(i), i);
+    }
+    indices = indicesBuilder.build();
+    m = alternatives.size();
+    worstRanks = new int[m];
+    for (int i = 0; i < m; ++i) {
+      worstRanks[i] = getWorstRank(transitivePreference.successors(alternatives.get(i)).size());
+    }
+    bestRanks = new int[m * m];
+  }
+
+  private int getWorstRank(int nbSuccessors) {
+    /** +1 because x itself is to be counted. */
+    final int nbWeaklyLessGoodThanX = nbSuccessors + 1;
+    assert 1 <= nbWeaklyLessGoodThanX && nbWeaklyLessGoodThanX <= m;
+    return 1 + m - nbWeaklyLessGoodThanX;
+  }
+
+  private int getIndex(Alternative a) {
+    if (bitsets != null) {
+      return bitsets.getIndex(a);
+    }
+    final Integer index = indices.get(a);
+    checkArgument(index != null, a);
+    return index;
+  }
+
+  public int getWorstRank(Alternative x) {
+    return worstRanks[getIndex(x)];
+  }
+
+  public int getBestRank(Alternative x, Alternative y) {
+    final int index = getIndex(x) * m + getIndex(y);
+    if (bestRanks[index] == 0) {
+      bestRanks[index] = computeBestRank(x, y);
+    }
+    return bestRanks[index];
+  }
+
+  private int computeBestRank(Alternative x, Alternative y) {
+    if (bitsets != null) {
+      return computeBestRankFromBitsets(x, y);
+    }
+    final Set<Alternative> strictlyBetterThanY = transitivePreference.predecessors(y);
+    final int nbStrictlyBetterThanY = strictlyBetterThanY.size();
+    assert 0 <= nbStrictlyBetterThanY && nbStrictlyBetterThanY <= m - 1;
+    final int beta;
+    if (transitivePreference.hasEdgeConnecting(x, y) || x.equals(y)) {
+      final HashSet<Alternative> incomparableAlternatives =
+          new HashSet<>(transitivePreference.nodes());
+      final HashSet<Alternative> notBetterThanX = new HashSet<>(transitivePreference.successors(x));
+      notBetterThanX.add(x);
+      incomparableAlternatives.removeAll(notBetterThanX);
+      incomparableAlternatives.removeAll(strictlyBetterThanY);
+
+      final int nbIncomparableAlts = incomparableAlternatives.size();
+      assert 0 <= nbIncomparableAlts && nbIncomparableAlts <= m - 1;
+      beta = nbIncomparableAlts;
+    } else {
+      beta = 0;
+    }
+    final int rankY = 1 + nbStrictlyBetterThanY + beta;
+    assert 1 <= rankY && rankY <= m;
+    return rankY;
+  }
+
+  private int computeBestRankFromBitsets(Alternative x, Alternative y) {
+    final long strictlyBetterThanY = bitsets.getPredecessors(y);
+    final int beta;
+    if (bitsets.hasEdgeConnecting(x, y) || x.equals(y)) {
+      final long notBetterThanX = bitsets.getSuccessors(x) | (1L << bitsets.getIndex(x));
+      beta = Long.bitCount(bitsets.getAllBits() & ~notBetterThanX & ~strictlyBetterThanY);
+    } else {
+      beta = 0;
+    }
+    return 1 + Long.bitCount(strictlyBetterThanY) + beta;
+  }
+}
@@ -0,0 +1,139 @@
+package io.github.oliviercailloux.minimax.regret;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.primitives.ImmutableDoubleArray;
+import com.google.common.primitives.ImmutableIntArray;
+
+import io.github.oliviercailloux.minimax.elicitation.OptimalWeights;
+
+/**
+ * The last few optima found when maximizing objectives under some constraints on weights, used to
+ * bound the maximum of another objective under the same constraints without solving.
+ * <p>
+ * Given a known optimum w* of an objective c, and another objective c′:
+ * </p>
+ * <ul>
+ * <li>w* is feasible, thus c′ · w* is a lower bound of the maximum of c′;</li>
+ * <li>the maximum of c′ is at most the maximum of c plus the maximum of c′ − c over a set
+ * containing the feasible weights. When the weights are convex, they are non-increasing from
+ * w_1 = 1 to w_m = 0, and the maximum of some δ over such weights is the greatest sum of its first
+ * k components, for 1 ≤ k ≤ m − 1 (the vertices of that set are the vectors 1, …, 1, 0, …, 0).
+ * Otherwise, each weight w_r, for 1 &lt; r &lt; m, is only known to belong to [0, 1].</li>
+ * </ul>
+ * <p>
+ * Thread-safe.
+ * </p>
+ */
+class WeightCertificates {
+  /**
+   * The number of optima kept.
+   */
+  private static final int SIZE = 32;
+
+  /**
+   * An objective, its maximum, and optimal weights.
+   */
+  private static final class Certificate {
+    private final ImmutableIntArray objective;
+    private final double value;
+    private final ImmutableDoubleArray weights;
+
+    private Certificate(ImmutableIntArray objective, double value, ImmutableDoubleArray weights) {
+      this.objective = objective;
+      this.value = value;
+      this.weights = weights;
+    }
+  }
+
+  public static WeightCertificates given(boolean convex) {
+    return new WeightCertificates(convex);
+  }
+
+  private final boolean convex;
+  private final AtomicReferenceArray<Certificate> certificates;
+  private final AtomicInteger nbAdded;
+
+  private WeightCertificates(boolean convex) {
+    this.convex = convex;
+    certificates = new AtomicReferenceArray<>(SIZE);
+    nbAdded = new AtomicInteger(0);
+  }
+
+  /**
+   * @param objective at index r − 1, the coefficient of the weight of rank r.
+   * @param optimum the maximum of that objective.
+   */
+  public void add(ImmutableIntArray objective, OptimalWeights optimum) {
+    final List<Double> weights = optimum.getWeights();
+    checkArgument(weights.size() == objective.length());
+    final Certificate certificate = new Certificate(objective, optimum.getValue(),
+        ImmutableDoubleArray.copyOf(weights));
+    certificates.set(Math.floorMod(nbAdded.getAndIncrement(), SIZE), certificate);
+  }
+
+  /**
+   * @return a lower bound of the maximum of the given objective, or negative infinity if no optimum
+   *         is known.
+   */
+  public double getLowerBound(ImmutableIntArray objective) {
+    double bound = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < SIZE; ++i) {
+      final Certificate certificate = certificates.get(i);
+      if (certificate == null) {
+        break;
+      }
+      double value = 0d;
+      for (int r = 0; r < objective.length(); ++r) {
+        value += objective.get(r) * certificate.weights.get(r);
+      }
+      bound = Math.max(bound, value);
+    }
+    return bound;
+  }
+
+  /**
+   * @return an upper bound of the maximum of the given objective, or positive infinity if no
+   *         optimum is known.
+   */
+  public double getUpperBound(ImmutableIntArray objective) {
+    double bound = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < SIZE; ++i) {
+      final Certificate certificate = certificates.get(i);
+      if (certificate == null) {
+        break;
+      }
+      bound = Math.min(bound, certificate.value + getMaxDifference(objective, certificate));
+    }
+    return bound;
+  }
+
+  /**
+   * @return the maximum of (objective − certificate objective) · w over a set of weights containing
+   *         the feasible ones.
+   */
+  private double getMaxDifference(ImmutableIntArray objective, Certificate certificate) {
+    final int m = objective.length();
+    if (m == 1) {
+      return objective.get(0) - certificate.objective.get(0);
+    }
+    double max = Double.NEGATIVE_INFINITY;
+    double sum = 0d;
+    for (int r = 0; r < m - 1; ++r) {
+      final int difference = objective.get(r) - certificate.objective.get(r);
+      if (convex) {
+        sum += difference;
+        max = Math.max(max, sum);
+      } else {
+        /** w_1 = 1. */
+        sum += r == 0 ? difference : Math.max(difference, 0);
+        max = sum;
+      }
+    }
+    return max;
+  }
+}
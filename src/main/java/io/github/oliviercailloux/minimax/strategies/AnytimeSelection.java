@@ -0,0 +1,91 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Objects;
+
+import javax.json.bind.annotation.JsonbCreator;
+import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbPropertyOrder;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * How one question has been selected within a time budget by a {@link StrategyWithDeadline}: the
+ * budget, in nanoseconds, the number of candidate questions, the number of those whose lotteries
+ * have been evaluated before the deadline, and whether the strategy fell back to its heuristic
+ * because none had. Immutable.
+ */
+@JsonbPropertyOrder({"budgetNs", "nbCandidates", "nbEvaluated", "fallback"})
+public class AnytimeSelection {
+  @JsonbCreator
+  public static AnytimeSelection given(@JsonbProperty("budgetNs") long budgetNs,
+      @JsonbProperty("nbCandidates") int nbCandidates,
+      @JsonbProperty("nbEvaluated") int nbEvaluated, @JsonbProperty("fallback") boolean fallback) {
+    return new AnytimeSelection(budgetNs, nbCandidates, nbEvaluated, fallback);
+  }
+
+  private final long budgetNs;
+  private final int nbCandidates;
+  private final int nbEvaluated;
+  private final boolean fallback;
+
+  private AnytimeSelection(long budgetNs, int nbCandidates, int nbEvaluated, boolean fallback) {
+    checkArgument(budgetNs >= 0l);
+    checkArgument(nbCandidates >= 0);
+    checkArgument(nbEvaluated >= 0);
+    checkArgument(nbEvaluated <= nbCandidates);
+    checkArgument(!fallback || nbEvaluated == 0);
+    this.budgetNs = budgetNs;
+    this.nbCandidates = nbCandidates;
+    this.nbEvaluated = nbEvaluated;
+    this.fallback = fallback;
+  }
+
+  /**
+   * @return the time allowed for selecting the question.
+   */
+  public long getBudgetNs() {
+    return budgetNs;
+  }
+
+  /**
+   * @return the number of candidate questions, zero if the question was a dummy one.
+   */
+  public int getNbCandidates() {
+    return nbCandidates;
+  }
+
+  public int getNbEvaluated() {
+    return nbEvaluated;
+  }
+
+  /**
+   * @return {@code true} iff the question has been selected by the fallback heuristic.
+   */
+  public boolean isFallback() {
+    return fallback;
+  }
+
+  @Override
+  public boolean equals(Object o2) {
+    if (!(o2 instanceof AnytimeSelection)) {
+      return false;
+    }
+    final AnytimeSelection s2 = (AnytimeSelection) o2;
+    return budgetNs == s2.budgetNs && nbCandidates == s2.nbCandidates
+        && nbEvaluated == s2.nbEvaluated && fallback == s2.fallback;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(budgetNs, nbCandidates, nbEvaluated, fallback);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("budgetNs", budgetNs)
+        .add("nbCandidates", nbCandidates).add("nbEvaluated", nbEvaluated)
+        .add("fallback", fallback).toString();
+  }
+}
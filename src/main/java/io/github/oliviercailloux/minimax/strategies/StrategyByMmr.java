@@ -5,29 +5,40 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.UnmodifiableIterator;
 import com.google.common.graph.EndpointPair;
-import com.google.common.graph.Graph;
-import com.google.common.graph.ImmutableGraph;
 import com.google.common.math.IntMath;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.j_voting.VoterPartialPreference;
 import io.github.oliviercailloux.minimax.elicitation.DelegatingPreferenceKnowledge;
 import io.github.oliviercailloux.minimax.elicitation.Question;
 import io.github.oliviercailloux.minimax.elicitation.QuestionType;
@@ -47,6 +58,33 @@ import io.github.oliviercailloux.minimax.regret.RegretComputer;
  * entirely known and the constraint mandates to ask the next question to voters, this strategy will
  * anyway ask a question to the committee.
  * </p>
+ * <p>
+ * The lotteries of the candidate questions may be evaluated concurrently, in a pool that the
+ * caller owns (see {@link #setPool(ForkJoinPool)}). This does not change the question chosen: the random draws happen
+ * only before and after the evaluation, in the same order as when evaluating sequentially.
+ * </p>
+ * <p>
+ * With the {@link MmrLottery#MAX_COMPARATOR max} or {@link MmrLottery#MIN_COMPARATOR min}
+ * comparator, the evaluation of candidate questions that provably can’t win may be skipped (see
+ * {@link #setPruning(boolean)}). A lower bound of the lottery of a voter question is obtained by
+ * restricting the MMR computation to the alternatives touched by the question (see
+ * {@link RegretComputer#getMinimalMaxRegretValueAgainst(java.util.Set)}); the lower bound of a
+ * committee question is zero. As both comparators are increasing in both MMRs of the lottery, a
+ * question whose lower bound compares strictly greater than an evaluated question can’t be among
+ * the best questions. Thus, pruning changes {@link #getLastQuestions()} but not the question
+ * chosen.
+ * </p>
+ * <p>
+ * When not limited, the number of voter questions evaluated may be bounded by a budget (see
+ * {@link #setCandidateBudget(int)}), in which case, when there are more possible voter questions,
+ * only a sample of them is evaluated, favoring those about the alternatives involved in the current
+ * MMR solution and spread evenly over the voters. This trades the quality of the question chosen
+ * for speed.
+ * </p>
+ * <p>
+ * The selection may also be bounded by a deadline (see {@link #nextQuestionBefore(long)}), in which
+ * case the candidates are evaluated in order of priority until the deadline passes.
+ * </p>
  **/
 public class StrategyByMmr implements Strategy {
 
@@ -136,6 +174,15 @@ public class StrategyByMmr implements Strategy {
     return limited(MmrLottery.MAX_COMPARATOR, constraints);
   }
 
+  /**
+   * @param candidateBudget the maximal number of voter questions to evaluate per question asked.
+   */
+  public static StrategyByMmr sampled(Comparator<MmrLottery> comparator, int candidateBudget) {
+    final StrategyByMmr strategy = build(comparator);
+    strategy.setCandidateBudget(candidateBudget);
+    return strategy;
+  }
+
   private final StrategyHelper helper;
   private boolean limited;
   private final QuestioningConstraints constraints;
@@ -143,6 +190,18 @@ public class StrategyByMmr implements Strategy {
 
   private ImmutableMap<Question, MmrLottery> questions;
   private double penalty;
+  /**
+   * Empty iff the lotteries are evaluated sequentially.
+   */
+  private Optional<ForkJoinPool> pool;
+  private boolean pruning;
+  private int lastNbPruned;
+  /**
+   * {@link Integer#MAX_VALUE} iff all possible voter questions are evaluated.
+   */
+  private int candidateBudget;
+  private int lastNbCandidates;
+  private int lastNbEvaluated;
 
   private StrategyByMmr(Comparator<MmrLottery> lotteryComparator, boolean limited,
       List<QuestioningConstraint> constraints, double penalty) {
@@ -154,6 +213,12 @@ public class StrategyByMmr implements Strategy {
 
     helper = StrategyHelper.newInstance();
     questions = null;
+    pool = Optional.empty();
+    pruning = false;
+    lastNbPruned = 0;
+    candidateBudget = Integer.MAX_VALUE;
+    lastNbCandidates = 0;
+    lastNbEvaluated = 0;
     LOGGER.debug("Creating with constraints: {}.", constraints);
   }
 
@@ -170,16 +235,115 @@ public class StrategyByMmr implements Strategy {
     helper.setKnowledge(knowledge);
   }
 
+  /**
+   * @return the number of candidate questions whose lotteries are evaluated concurrently, one
+   *         meaning sequentially (the default).
+   */
+  public int getParallelism() {
+    return pool.map(ForkJoinPool::getParallelism).orElse(1);
+  }
+
+  /**
+   * @param pool the pool in which to evaluate the lotteries of the candidate questions, which this
+   *        strategy does not shut down, as it may be shared by several strategies; or {@code null}
+   *        for a sequential evaluation in the calling thread.
+   */
+  public void setPool(@Nullable ForkJoinPool pool) {
+    this.pool = Optional.ofNullable(pool);
+  }
+
+  public boolean isPruning() {
+    return pruning;
+  }
+
+  /**
+   * @param pruning {@code true} to skip the evaluation of the candidate questions that provably
+   *        can’t win, which requires the max or min comparator.
+   */
+  public void setPruning(boolean pruning) {
+    checkArgument(!pruning || lotteryComparator == MmrLottery.MAX_COMPARATOR
+        || lotteryComparator == MmrLottery.MIN_COMPARATOR);
+    this.pruning = pruning;
+  }
+
+  /**
+   * @return the number of candidate questions whose evaluation was skipped when computing the last
+   *         question (zero when not pruning).
+   */
+  public int getLastNbPruned() {
+    return lastNbPruned;
+  }
+
   public boolean isLimited() {
     return limited;
   }
 
+  /**
+   * @return the maximal number of voter questions evaluated per question asked when not limited,
+   *         {@link Integer#MAX_VALUE} (the default) for evaluating all of them.
+   */
+  public int getCandidateBudget() {
+    return candidateBudget;
+  }
+
+  /**
+   * @param candidateBudget at least one, {@link Integer#MAX_VALUE} for evaluating all possible
+   *        voter questions.
+   */
+  public void setCandidateBudget(int candidateBudget) {
+    checkArgument(candidateBudget >= 1);
+    this.candidateBudget = candidateBudget;
+  }
+
   public void setLimited(boolean limited) {
     this.limited = limited;
   }
 
+  /**
+   * @return the number of candidate questions when computing the last question, zero if it was a
+   *         dummy question.
+   */
+  public int getLastNbCandidates() {
+    return lastNbCandidates;
+  }
+
+  /**
+   * @return the number of candidate questions whose lotteries were evaluated when computing the
+   *         last question, zero if it was a dummy question.
+   */
+  public int getLastNbEvaluated() {
+    return lastNbEvaluated;
+  }
+
   @Override
   public Question nextQuestion() {
+    final Optional<Question> question = nextQuestion(OptionalLong.empty());
+    verify(question.isPresent());
+    return question.get();
+  }
+
+  /**
+   * Returns the best question among the candidates that could be evaluated before the given
+   * deadline. The candidates are evaluated (without pruning) in order of priority: when not
+   * limited, first the voter questions involving an alternative of the current MMR solution, spread
+   * over the voters, then the committee questions, then the other voter questions. The deadline is
+   * checked before each evaluation (of a group of candidates, when evaluating concurrently), thus,
+   * it is exceeded by the time taken by the last evaluation. It is also checked before computing
+   * the current MMR solution, which this order requires: once passed, the candidates are left
+   * unordered (or, when limited, the voter questions are left out), as none will be evaluated.
+   *
+   * @param deadline as given by {@link System#nanoTime()}.
+   * @return empty iff the deadline passed before the first evaluation, in which case the last
+   *         questions are empty.
+   */
+  public Optional<Question> nextQuestionBefore(long deadline) {
+    return nextQuestion(OptionalLong.of(deadline));
+  }
+
+  private Optional<Question> nextQuestion(OptionalLong deadline) {
+    lastNbCandidates = 0;
+    lastNbEvaluated = 0;
+    lastNbPruned = 0;
     final int m = helper.getAndCheckM();
     if (m == 2) {
       verify(constraints.mayAskVoters());
@@ -199,7 +363,7 @@ public class StrategyByMmr implements Strategy {
       Question q = Question.toVoter(helper.getKnowledge().getVoters().iterator().next(),
           iterator.next(), iterator.next());
       LOGGER.info("Profile complete, question {}", q);
-      return q;
+      return Optional.of(q);
     }
 
     verify(allowCommittee || allowVoters);
@@ -207,7 +371,7 @@ public class StrategyByMmr implements Strategy {
     final ImmutableSet.Builder<Question> questionsBuilder = ImmutableSet.builder();
 
     if (limited) {
-      if (allowVoters) {
+      if (allowVoters && !hasPassed(deadline)) {
         final ImmutableSetMultimap<Alternative, PairwiseMaxRegret> mmrs =
             helper.getMinimalMaxRegrets().asMultimap();
 
@@ -226,19 +390,50 @@ public class StrategyByMmr implements Strategy {
             i -> questionsBuilder.add(Question.toCommittee(helper.getQuestionAboutHalfRange(i))));
       }
     } else {
+      final ImmutableList<Question> committeeQuestions = allowCommittee
+          ? helper.getQuestionsAboutLambdaRangesWiderThanOrAll(0.1).stream()
+              .map(Question::toCommittee).collect(ImmutableList.toImmutableList())
+          : ImmutableList.of();
       if (allowVoters) {
-        helper.getPossibleVoterQuestions().stream()
-            .forEach(q -> questionsBuilder.add(Question.toVoter(q)));
-      }
-      if (allowCommittee) {
-        helper.getQuestionsAboutLambdaRangesWiderThanOrAll(0.1).stream()
-            .forEach(q -> questionsBuilder.add(Question.toCommittee(q)));
+        final ImmutableSet<QuestionVoter> possible = helper.getPossibleVoterQuestions();
+        if (deadline.isEmpty() && possible.size() <= candidateBudget) {
+          possible.stream().forEach(q -> questionsBuilder.add(Question.toVoter(q)));
+        } else if (hasPassed(deadline)) {
+          possible.stream().limit(candidateBudget)
+              .forEach(q -> questionsBuilder.add(Question.toVoter(q)));
+        } else {
+          final ImmutableList<ImmutableList<QuestionVoter>> strata = getStrata(possible);
+          final ImmutableList<QuestionVoter> involving = strata.get(0);
+          involving.stream().limit(candidateBudget)
+              .forEach(q -> questionsBuilder.add(Question.toVoter(q)));
+          if (deadline.isPresent()) {
+            committeeQuestions.forEach(questionsBuilder::add);
+          }
+          strata.get(1).stream().limit(Math.max(0, candidateBudget - involving.size()))
+              .forEach(q -> questionsBuilder.add(Question.toVoter(q)));
+        }
       }
+      /** Ignored by the builder if already added, by priority. */
+      committeeQuestions.forEach(questionsBuilder::add);
     }
     constraints.next();
 
-    questions = questionsBuilder.build().stream()
-        .collect(ImmutableMap.toImmutableMap(q -> q, this::toLottery));
+    final ImmutableList<Question> candidates = questionsBuilder.build().asList();
+    lastNbCandidates = candidates.size();
+    if (deadline.isPresent()) {
+      questions = toLotteriesBefore(candidates, deadline.getAsLong());
+      LOGGER.debug("Evaluated {} questions among {} before the deadline.", questions.size(),
+          candidates.size());
+      if (questions.isEmpty()) {
+        return Optional.empty();
+      }
+    } else if (pruning) {
+      questions = toLotteriesPruning(candidates);
+      LOGGER.debug("Pruned {} questions among {}.", lastNbPruned, candidates.size());
+    } else {
+      questions = toLotteries(candidates, this::toLottery);
+    }
+    lastNbEvaluated = questions.size();
     verify(!questions.isEmpty());
 
     final Comparator<Question> questionsComparator =
@@ -253,19 +448,91 @@ public class StrategyByMmr implements Strategy {
       LOGGER.debug("Questioning committee: {}, best lotteries: {}.", winner.asQuestionCommittee(),
           sortedQuestions.entrySet().stream().limit(6).collect(ImmutableList.toImmutableList()));
     }
-    return winner;
+    return Optional.of(winner);
   }
 
+  /**
+   * @return the questions evaluated when computing the last question, which, when pruning, exclude
+   *         those pruned.
+   */
   public ImmutableMap<Question, MmrLottery> getLastQuestions() {
     checkState(questions != null);
     return questions;
   }
 
+  /**
+   * Orders the given questions by priority, in two strata: first those that involve an alternative
+   * of the current MMR solution, thus, an alternative of minimal max regret or one of its
+   * adversaries, then the others. Within each stratum, the questions come one per voter in turn, in
+   * the order of the voters, and randomly among the questions of that voter. The first
+   * {@link #candidateBudget} questions thus form a sample stratified by voter and by involvement in
+   * the MMR solution.
+   *
+   * @param candidates ordered by voter.
+   * @return two lists, forming together a permutation of the given questions.
+   */
+  private ImmutableList<ImmutableList<QuestionVoter>>
+      getStrata(ImmutableSet<QuestionVoter> candidates) {
+    final ImmutableSetMultimap<Alternative, PairwiseMaxRegret> mmrs =
+        helper.getMinimalMaxRegrets().asMultimap();
+    final ImmutableSet<Alternative> involved = Stream
+        .concat(mmrs.keySet().stream(), mmrs.values().stream().map(PairwiseMaxRegret::getY))
+        .collect(ImmutableSet.toImmutableSet());
+    final ImmutableListMultimap<Boolean, QuestionVoter> byInvolvement = Multimaps
+        .index(candidates, q -> !Collections.disjoint(q.getAlternatives(), involved));
+
+    final ImmutableList.Builder<ImmutableList<QuestionVoter>> strataBuilder =
+        ImmutableList.builder();
+    for (boolean involving : ImmutableList.of(true, false)) {
+      final ImmutableListMultimap<Voter, QuestionVoter> byVoter =
+          Multimaps.index(byInvolvement.get(involving), QuestionVoter::getVoter);
+      final List<Iterator<QuestionVoter>> drawsByVoter = new ArrayList<>();
+      for (Voter voter : byVoter.keySet()) {
+        final List<QuestionVoter> shuffled = new ArrayList<>(byVoter.get(voter));
+        Collections.shuffle(shuffled, helper.getRandom());
+        drawsByVoter.add(shuffled.iterator());
+      }
+      final ImmutableList.Builder<QuestionVoter> stratumBuilder = ImmutableList.builder();
+      while (drawsByVoter.stream().anyMatch(Iterator::hasNext)) {
+        for (Iterator<QuestionVoter> draws : drawsByVoter) {
+          if (draws.hasNext()) {
+            stratumBuilder.add(draws.next());
+          }
+        }
+      }
+      strataBuilder.add(stratumBuilder.build());
+    }
+    final ImmutableList<ImmutableList<QuestionVoter>> strata = strataBuilder.build();
+    verify(strata.get(0).size() + strata.get(1).size() == candidates.size());
+    return strata;
+  }
+
+  private static boolean hasPassed(OptionalLong deadline) {
+    return deadline.isPresent() && System.nanoTime() - deadline.getAsLong() >= 0l;
+  }
+
+  /**
+   * Evaluates the candidates in the given order, by groups of as many candidates as the
+   * parallelism, until all are evaluated or the deadline has passed.
+   *
+   * @return in the order of the given questions, possibly empty.
+   */
+  private ImmutableMap<Question, MmrLottery>
+      toLotteriesBefore(ImmutableList<Question> candidates, long deadline) {
+    final ImmutableMap.Builder<Question, MmrLottery> builder = ImmutableMap.builder();
+    for (List<Question> group : Lists.partition(candidates, getParallelism())) {
+      if (System.nanoTime() - deadline >= 0l) {
+        break;
+      }
+      builder.putAll(toLotteries(ImmutableList.copyOf(group), this::toLottery));
+    }
+    return builder.build();
+  }
+
   private QuestionVoter getLimitedQuestion(Alternative xStar, Alternative yBar, Voter voter) {
-    final ImmutableGraph<Alternative> graph =
-        helper.getKnowledge().getPartialPreference(voter).asTransitiveGraph();
+    final VoterPartialPreference preference = helper.getKnowledge().getPartialPreference(voter);
     final QuestionVoter question;
-    if (!graph.adjacentNodes(xStar).contains(yBar)) {
+    if (!preference.isPreferred(xStar, yBar) && !preference.isPreferred(yBar, xStar)) {
       if (xStar.equals(yBar)) {
         verify(helper.getMinimalMaxRegrets().getMinimalMaxRegretValue() == 0d);
         /** We do not care which question we ask. */
@@ -276,10 +543,10 @@ public class StrategyByMmr implements Strategy {
     } else {
       final Alternative tryFirst;
       final Alternative trySecond;
-      if (graph.hasEdgeConnecting(xStar, yBar)) {
+      if (preference.isPreferred(xStar, yBar)) {
         tryFirst = xStar;
         trySecond = yBar;
-      } else if (graph.hasEdgeConnecting(yBar, xStar)) {
+      } else if (preference.isPreferred(yBar, xStar)) {
         tryFirst = yBar;
         trySecond = xStar;
       } else {
@@ -290,20 +557,19 @@ public class StrategyByMmr implements Strategy {
           Comparator.comparing(EndpointPair::nodeU);
       final Comparator<EndpointPair<Alternative>> c2 =
           comparingPair.thenComparing(EndpointPair::nodeV);
-      question = getQuestionAboutIncomparableTo(voter, graph, tryFirst)
-          .or(() -> getQuestionAboutIncomparableTo(voter, graph, trySecond))
+      question = getQuestionAboutIncomparableTo(preference, tryFirst)
+          .or(() -> getQuestionAboutIncomparableTo(preference, trySecond))
           .orElseGet(() -> getQuestionAbout(voter,
-              helper.sortAndDraw(StrategyHelper.getIncomparablePairs(graph).asList(), c2)));
+              helper.sortAndDraw(StrategyHelper.getIncomparablePairs(preference).asList(), c2)));
     }
     return question;
   }
 
-  private Optional<QuestionVoter> getQuestionAboutIncomparableTo(Voter voter,
-      Graph<Alternative> graph, Alternative a) {
-    final ImmutableSet<Alternative> incomparables =
-        StrategyHelper.getIncomparables(graph, a).collect(ImmutableSet.toImmutableSet());
+  private Optional<QuestionVoter>
+      getQuestionAboutIncomparableTo(VoterPartialPreference preference, Alternative a) {
+    final ImmutableSet<Alternative> incomparables = preference.getIncomparables(a);
     return incomparables.isEmpty() ? Optional.empty()
-        : Optional.of(QuestionVoter.given(voter, a,
+        : Optional.of(QuestionVoter.given(preference.getVoter(), a,
             helper.sortAndDraw(incomparables.asList(), Comparator.naturalOrder())));
   }
 
@@ -311,6 +577,79 @@ public class StrategyByMmr implements Strategy {
     return QuestionVoter.given(voter, incomparablePair.nodeU(), incomparablePair.nodeV());
   }
 
+  /**
+   * Evaluates the candidates in increasing order of their lower bounds, by groups of as many
+   * candidates as the parallelism, and skips those whose lower bound is worse than the best
+   * lottery found so far.
+   *
+   * @return in the order of the given questions.
+   */
+  private ImmutableMap<Question, MmrLottery>
+      toLotteriesPruning(ImmutableList<Question> candidates) {
+    final ImmutableMap<Question, MmrLottery> bounds =
+        toLotteries(candidates, this::toLotteryLowerBound);
+    final ImmutableMap<Question, MmrLottery> adjustedBounds =
+        bounds.entrySet().stream().collect(ImmutableMap.toImmutableMap(Map.Entry::getKey,
+            e -> adjustLottery(e.getKey(), e.getValue())));
+    final ImmutableList<Question> sorted = candidates.stream()
+        .sorted(Comparator.comparing(adjustedBounds::get, lotteryComparator))
+        .collect(ImmutableList.toImmutableList());
+
+    final Map<Question, MmrLottery> evaluated = new LinkedHashMap<>();
+    MmrLottery best = null;
+    int nbPruned = 0;
+    for (List<Question> group : Lists.partition(sorted, getParallelism())) {
+      final ImmutableList.Builder<Question> toEvaluateBuilder = ImmutableList.builder();
+      for (Question question : group) {
+        if (best == null || lotteryComparator.compare(adjustedBounds.get(question), best) <= 0) {
+          toEvaluateBuilder.add(question);
+        } else {
+          ++nbPruned;
+        }
+      }
+      final ImmutableMap<Question, MmrLottery> lotteries =
+          toLotteries(toEvaluateBuilder.build(), this::toLottery);
+      for (Question question : lotteries.keySet()) {
+        final MmrLottery adjusted = adjustLottery(question, lotteries.get(question));
+        if (best == null || lotteryComparator.compare(adjusted, best) < 0) {
+          best = adjusted;
+        }
+      }
+      evaluated.putAll(lotteries);
+    }
+    lastNbPruned = nbPruned;
+    return candidates.stream().filter(evaluated::containsKey)
+        .collect(ImmutableMap.toImmutableMap(q -> q, evaluated::get));
+  }
+
+  /**
+   * Evaluates the lotteries using the given function, concurrently if a pool is set.
+   *
+   * @return in the order of the given questions.
+   */
+  private ImmutableMap<Question, MmrLottery> toLotteries(ImmutableList<Question> candidates,
+      Function<Question, MmrLottery> evaluator) {
+    final ImmutableList<MmrLottery> lotteries;
+    if (pool.isEmpty() || candidates.size() <= 1) {
+      lotteries = candidates.stream().map(evaluator).collect(ImmutableList.toImmutableList());
+    } else {
+      /**
+       * Each task works on its own delegating knowledge, thus on its own copy of the modified voter
+       * preference, and reads the shared ones, whose transitive relations, lazily computed, must
+       * thus be computed beforehand.
+       */
+      helper.getKnowledge().getProfile().values()
+          .forEach(VoterPartialPreference::computeTransitiveRelation);
+      lotteries = pool.get().submit(() -> candidates.parallelStream().map(evaluator)
+          .collect(ImmutableList.toImmutableList())).join();
+    }
+    final ImmutableMap.Builder<Question, MmrLottery> builder = ImmutableMap.builder();
+    for (int i = 0; i < candidates.size(); ++i) {
+      builder.put(candidates.get(i), lotteries.get(i));
+    }
+    return builder.build();
+  }
+
   private MmrLottery toLottery(Question question) {
     final double yesMMR;
     {
@@ -331,6 +670,30 @@ public class StrategyByMmr implements Strategy {
     return lottery;
   }
 
+  /**
+   * @return a lottery whose MMRs are lower than or equal to those of the lottery of the given
+   *         question.
+   */
+  private MmrLottery toLotteryLowerBound(Question question) {
+    if (question.getType() == QuestionType.COMMITTEE_QUESTION) {
+      return MmrLottery.given(0d, 0d);
+    }
+    final ImmutableSet<Alternative> touched = question.asQuestionVoter().getAlternatives();
+    final double yesBound;
+    {
+      final DelegatingPreferenceKnowledge delegatingKnowledge = DelegatingPreferenceKnowledge
+          .given(helper.getKnowledge(), question.getPositiveInformation());
+      yesBound = new RegretComputer(delegatingKnowledge).getMinimalMaxRegretValueAgainst(touched);
+    }
+    final double noBound;
+    {
+      final DelegatingPreferenceKnowledge delegatingKnowledge = DelegatingPreferenceKnowledge
+          .given(helper.getKnowledge(), question.getNegativeInformation());
+      noBound = new RegretComputer(delegatingKnowledge).getMinimalMaxRegretValueAgainst(touched);
+    }
+    return MmrLottery.given(yesBound, noBound);
+  }
+
   private MmrLottery adjustLottery(Question question, MmrLottery lottery) {
     final MmrLottery output;
     switch (question.getType()) {
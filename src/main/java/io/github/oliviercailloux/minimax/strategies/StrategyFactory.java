@@ -4,11 +4,13 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -21,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 
 import io.github.oliviercailloux.json.JsonbUtils;
 import io.github.oliviercailloux.json.PrintableJsonObject;
@@ -28,6 +31,13 @@ import io.github.oliviercailloux.minimax.elicitation.QuestionType;
 
 /**
  * Immutable.
+ * <p>
+ * The strategies obtained using {@link #get()} share a single random number generator, seeded with
+ * the seed of this factory, so that a sequence of runs is reproducible only if the strategies are
+ * obtained and used in the same order. The strategy obtained using {@link #get(int)} for a given
+ * run index has its own generator, seeded by a seed derived from the seed of this factory and that
+ * index, so that runs may be executed in any order, or in parallel, reproducibly.
+ * </p>
  */
 public class StrategyFactory implements Supplier<Strategy> {
   @SuppressWarnings("unused")
@@ -59,6 +69,13 @@ public class StrategyFactory implements Supplier<Strategy> {
         return elitist();
       case CSS:
         return css(json.getJsonNumber("seed").longValue());
+      case SAMPLED:
+        return sampled(json.getJsonNumber("seed").longValue(),
+            MmrLottery.comparatorFromDescription(json.getString("comparator")),
+            json.getInt("candidateBudget"));
+      case ANYTIME:
+        return anytime(json.getJsonNumber("seed").longValue(),
+            Duration.ofMillis(json.getJsonNumber("budgetMs").longValue()));
       case RANDOM:
         return random(json.getJsonNumber("seed").longValue(),
             json.getJsonNumber("probabilityCommittee").doubleValue(),
@@ -70,29 +87,70 @@ public class StrategyFactory implements Supplier<Strategy> {
   }
 
   public static StrategyFactory byMmrs(long seed, Comparator<MmrLottery> comparator) {
-    final Random random = new Random(seed);
     final PrintableJsonObject json = JsonbUtils.toJsonObject(ImmutableMap.of("family",
         StrategyType.PESSIMISTIC, "seed", seed, "comparator", comparator));
 
-    return new StrategyFactory(() -> {
+    return new StrategyFactory(seed, random -> {
       final StrategyByMmr strategy = StrategyByMmr.build(comparator);
       strategy.setRandom(random);
       return strategy;
     }, json, "By MMR " + comparator);
   }
 
+  public static StrategyFactory sampled(int candidateBudget) {
+    final long seed = ThreadLocalRandom.current().nextLong();
+    return sampled(seed, MmrLottery.MAX_COMPARATOR, candidateBudget);
+  }
+
+  /**
+   * Returns a factory of unlimited strategies by MMR that evaluate at most the given number of
+   * voter questions per question asked.
+   *
+   * @see StrategyByMmr#setCandidateBudget(int)
+   */
+  public static StrategyFactory sampled(long seed, ComparatorWithDescription<MmrLottery> comparator,
+      int candidateBudget) {
+    checkArgument(candidateBudget >= 1);
+    final PrintableJsonObject json =
+        JsonbUtils.toJsonObject(ImmutableMap.of("family", StrategyType.SAMPLED, "seed", seed,
+            "comparator", comparator.toString(), "candidateBudget", candidateBudget));
+
+    return new StrategyFactory(seed, random -> {
+      final StrategyByMmr strategy = StrategyByMmr.sampled(comparator, candidateBudget);
+      strategy.setRandom(random);
+      return strategy;
+    }, json, String.format("Sampled (%s) %s", candidateBudget, comparator));
+  }
+
+  /**
+   * Returns a factory of strategies that select each question within the given time budget.
+   *
+   * @param budget a whole number of milliseconds.
+   * @see StrategyWithDeadline
+   */
+  public static StrategyFactory anytime(long seed, Duration budget) {
+    final long budgetMs = budget.toMillis();
+    checkArgument(Duration.ofMillis(budgetMs).equals(budget));
+    final PrintableJsonObject json = JsonbUtils.toJsonObject(
+        ImmutableMap.of("family", StrategyType.ANYTIME, "seed", seed, "budgetMs", budgetMs));
+
+    return new StrategyFactory(seed, random -> {
+      final StrategyWithDeadline strategy = StrategyWithDeadline.newInstance(budget);
+      strategy.setRandom(random);
+      return strategy;
+    }, json, String.format("Anytime (%s ms)", budgetMs));
+  }
+
   public static StrategyFactory css() {
     final long seed = ThreadLocalRandom.current().nextLong();
     return css(seed);
   }
 
   public static StrategyFactory css(long seed) {
-    final Random random = new Random(seed);
-
     final PrintableJsonObject json =
         JsonbUtils.toJsonObject(ImmutableMap.of("family", StrategyType.CSS, "seed", seed));
 
-    return new StrategyFactory(() -> {
+    return new StrategyFactory(seed, random -> {
       final StrategyCss strategy = StrategyCss.newInstance();
       strategy.setRandom(random);
       return strategy;
@@ -134,7 +192,6 @@ public class StrategyFactory implements Supplier<Strategy> {
   public static StrategyFactory limited(long seed, ComparatorWithDescription<MmrLottery> comparator,
       List<QuestioningConstraint> constraints, double penalty) {
     LOGGER.info("Using seed {}.", seed);
-    final Random random = new Random(seed);
 
     final String comparatorDescription = comparator.toString();
     final PrintableJsonObject json =
@@ -148,7 +205,7 @@ public class StrategyFactory implements Supplier<Strategy> {
             + (c.getKind() == QuestionType.COMMITTEE_QUESTION ? "c" : "v"))
         .collect(Collectors.joining(", ", prefix, suffix));
 
-    return new StrategyFactory(() -> {
+    return new StrategyFactory(seed, random -> {
       final StrategyByMmr strategy = StrategyByMmr.build(comparator, true, constraints, penalty);
       strategy.setRandom(random);
       return strategy;
@@ -160,7 +217,8 @@ public class StrategyFactory implements Supplier<Strategy> {
     final PrintableJsonObject json =
         JsonbUtils.toJsonObject(ImmutableMap.of("family", StrategyType.ELITIST));
 
-    return new StrategyFactory(() -> {
+    /** The elitist strategy does not use randomness, hence the arbitrary seed. */
+    return new StrategyFactory(0l, random -> {
       final StrategyElitist strategy = StrategyElitist.newInstance();
       return strategy;
     }, json, "Elitist");
@@ -181,8 +239,7 @@ public class StrategyFactory implements Supplier<Strategy> {
         JsonbUtils.toJsonObject(ImmutableMap.of("family", StrategyType.RANDOM, "seed", seed,
             "probabilityCommittee", probabilityCommittee, "toVoters", toVoters));
 
-    final Random random = new Random(seed);
-    return new StrategyFactory(() -> {
+    return new StrategyFactory(seed, random -> {
       final StrategyRandom strategy = toVoters ? StrategyRandom.onlyVoters(probabilityCommittee)
           : StrategyRandom.newInstance(probabilityCommittee);
       strategy.setRandom(random);
@@ -190,23 +247,61 @@ public class StrategyFactory implements Supplier<Strategy> {
     }, json, "Random");
   }
 
-  private final Supplier<Strategy> supplier;
+  private final long seed;
+  /**
+   * Shared by the strategies obtained using {@link #get()}.
+   */
+  private final Random random;
+  /**
+   * Returns a new strategy using the given random number generator.
+   */
+  private final Function<Random, Strategy> creator;
   private final String description;
   private JsonObject json;
 
-  private StrategyFactory(Supplier<Strategy> supplier, JsonObject json, String description) {
-    this.supplier = checkNotNull(supplier);
+  private StrategyFactory(long seed, Function<Random, Strategy> creator, JsonObject json,
+      String description) {
+    this.seed = seed;
+    random = new Random(seed);
+    this.creator = checkNotNull(creator);
     this.json = checkNotNull(json);
     this.description = checkNotNull(description);
   }
 
   @Override
   public Strategy get() {
-    final Strategy instance = supplier.get();
+    final Strategy instance = creator.apply(random);
     checkState(instance != null);
     return instance;
   }
 
+  /**
+   * Returns a new strategy whose random number generator depends only on the seed of this factory
+   * and the given run index.
+   *
+   * @param runIndex non-negative.
+   */
+  public Strategy get(int runIndex) {
+    final Strategy instance = creator.apply(new Random(getRunSeed(runIndex)));
+    checkState(instance != null);
+    return instance;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Returns the seed used by the strategy of the given run index: a hash of the seed of this
+   * factory and of that index, so that the seeds of consecutive runs are unrelated.
+   *
+   * @param runIndex non-negative.
+   */
+  public long getRunSeed(int runIndex) {
+    checkArgument(runIndex >= 0);
+    return Hashing.murmur3_128().newHasher().putLong(seed).putInt(runIndex).hash().asLong();
+  }
+
   public JsonObject toJson() {
     return json;
   }
@@ -220,8 +315,7 @@ public class StrategyFactory implements Supplier<Strategy> {
 
   @Override
   public String toString() {
-    // TODO return MoreObjects.toStringHelper(this).add("Description", description).add("Seed",
-    // seed).toString();
-    return MoreObjects.toStringHelper(this).add("Description", description).toString();
+    return MoreObjects.toStringHelper(this).add("Description", description).add("Seed", seed)
+        .toString();
   }
 }
@@ -1,6 +1,7 @@
 package io.github.oliviercailloux.minimax.strategies;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.IntStream;
@@ -24,9 +26,9 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
-import com.google.common.collect.ImmutableSortedMultiset;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Range;
 import com.google.common.graph.EndpointPair;
@@ -34,6 +36,7 @@ import com.google.common.graph.Graph;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.j_voting.VoterPartialPreference;
 import io.github.oliviercailloux.jlp.elements.SumTerms;
 import io.github.oliviercailloux.minimax.elicitation.ConstraintsOnWeights;
 import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
@@ -59,6 +62,21 @@ public class StrategyHelper {
     return builder.build();
   }
 
+  /**
+   * @return the pairs of distinct alternatives that the given preference does not compare, as
+   *         {@link #getIncomparablePairs(Graph)} given its transitive graph.
+   */
+  public static ImmutableSet<EndpointPair<Alternative>>
+      getIncomparablePairs(VoterPartialPreference preference) {
+    final ImmutableSet.Builder<EndpointPair<Alternative>> builder = ImmutableSet.builder();
+    for (Alternative a1 : preference.getAlternatives()) {
+      for (Alternative a2 : preference.getIncomparables(a1)) {
+        builder.add(EndpointPair.unordered(a1, a2));
+      }
+    }
+    return builder.build();
+  }
+
   public static Stream<Alternative> getIncomparables(Graph<Alternative> graph, Alternative a1) {
     final Set<Alternative> known = graph.adjacentNodes(a1);
     return graph.nodes().stream().filter(a2 -> !known.contains(a2)).filter(a2 -> !a2.equals(a1));
@@ -112,10 +130,16 @@ public class StrategyHelper {
 
   private UpdateablePreferenceKnowledge knowledge;
   private Random random;
+  /**
+   * The indices permuted by {@link #sortAndDraw(Collection, Comparator)}, reused from one draw to
+   * the next, and grown when needed.
+   */
+  private int[] drawIndices;
 
   private StrategyHelper() {
     knowledge = null;
     random = null;
+    drawIndices = new int[0];
   }
 
   public UpdateablePreferenceKnowledge getKnowledge() {
@@ -176,34 +200,118 @@ public class StrategyHelper {
   }
 
   /**
+   * Draws the element at a random index of the candidates sorted stably according to the given
+   * comparator, without sorting them (see {@link #select(List, Comparator, int)}). Selects over an
+   * array of indices reused from one call to the next, and over the given candidates themselves if
+   * they form a random access list (otherwise, over a copy of them).
+   *
    * @param comparator should be consistent with equals
    */
   public <E> E sortAndDraw(Collection<E> candidates, Comparator<E> comparator) {
     checkArgument(!candidates.isEmpty());
     final int i = getRandom().nextInt(candidates.size());
-    final Iterator<E> it = candidates.stream().sorted(comparator).iterator();
-    return Iterators.get(it, i);
-    // final ArrayList<E> sort = new ArrayList<>(candidates);
-    // Collections.sort(sort, comparator);
-    // return sort.get(i);
+    final List<E> list = candidates instanceof List && candidates instanceof RandomAccess
+        ? (List<E>) candidates
+        : ImmutableList.copyOf(candidates);
+    if (drawIndices.length < list.size()) {
+      drawIndices = new int[Math.max(list.size(), 2 * drawIndices.length)];
+    }
+    return select(list, comparator, i, drawIndices);
   }
 
-  public ImmutableSet<Voter> getQuestionableVoters() {
-    return getKnowledge().getVoters().stream().filter(v -> getKnowledge().getPartialPreference(v)
-        .asTransitiveGraph().edges().size() != getM() * (getM() - 1) / 2)
-        .collect(ImmutableSet.toImmutableSet());
+  /**
+   * Returns the element that would be at the given index if the candidates were sorted stably
+   * according to the given comparator, thus, with equivalent elements in their original order.
+   * <p>
+   * Uses a quickselect with random pivots over an array of indices of the candidates, taking
+   * expected linear time on any input, and allocating only that array.
+   * </p>
+   *
+   * @param candidates should support fast random access
+   * @param index 0 ≤ index < number of candidates
+   */
+  public static <E> E select(List<E> candidates, Comparator<? super E> comparator, int index) {
+    return select(candidates, comparator, index, new int[candidates.size()]);
   }
 
-  public ImmutableSet<QuestionVoter> getPossibleVoterQuestions() {
-    return getKnowledge().getVoters().stream().flatMap(this::getPossibleVoterQuestions)
-        .collect(ImmutableSet.toImmutableSet());
+  /**
+   * @param indices at least as long as the candidates, overwritten.
+   */
+  private static <E> E select(List<E> candidates, Comparator<? super E> comparator, int index,
+      int[] indices) {
+    final int size = candidates.size();
+    checkElementIndex(index, size);
+    checkArgument(indices.length >= size);
+    for (int i = 0; i < size; ++i) {
+      indices[i] = i;
+    }
+    int low = 0;
+    int high = size - 1;
+    while (low < high) {
+      final int pivot = partition(candidates, comparator, indices, low, high);
+      if (index == pivot) {
+        break;
+      }
+      if (index < pivot) {
+        high = pivot - 1;
+      } else {
+        low = pivot + 1;
+      }
+    }
+    return candidates.get(indices[index]);
+  }
+
+  /**
+   * Partitions the given range around an element drawn uniformly at random (independently of the
+   * random number generator of this helper), so that the expected time of the selection is linear
+   * whatever the order of the candidates. As ties are broken by index, the selected element does
+   * not depend on the pivots.
+   *
+   * @return the final position of the pivot in the range.
+   */
+  private static <E> int partition(List<E> candidates, Comparator<? super E> comparator,
+      int[] indices, int low, int high) {
+    swap(indices, ThreadLocalRandom.current().nextInt(low, high + 1), high);
+    final int pivot = indices[high];
+    int store = low;
+    for (int i = low; i < high; ++i) {
+      if (compare(candidates, comparator, indices[i], pivot) < 0) {
+        swap(indices, i, store);
+        ++store;
+      }
+    }
+    swap(indices, store, high);
+    return store;
+  }
+
+  /**
+   * Compares the candidates at the given indices, breaking ties by index, as a stable sort does.
+   */
+  private static <E> int compare(List<E> candidates, Comparator<? super E> comparator, int i,
+      int j) {
+    final int comparison = comparator.compare(candidates.get(i), candidates.get(j));
+    return comparison != 0 ? comparison : Integer.compare(i, j);
+  }
+
+  private static void swap(int[] indices, int i, int j) {
+    final int tmp = indices[i];
+    indices[i] = indices[j];
+    indices[j] = tmp;
+  }
+
+  /**
+   * @return the voters whose partial preference is incomplete, as maintained by the knowledge.
+   */
+  public ImmutableSet<Voter> getQuestionableVoters() {
+    return getKnowledge().getIncompleteVoters();
   }
 
-  private Stream<QuestionVoter> getPossibleVoterQuestions(Voter voter) {
-    final Graph<Alternative> graph = knowledge.getProfile().get(voter).asTransitiveGraph();
-    final Stream<QuestionVoter> possibleVoterQuestions = getIncomparablePairs(graph).stream()
-        .map(p -> QuestionVoter.given(voter, p.nodeU(), p.nodeV()));
-    return possibleVoterQuestions;
+  /**
+   * @return the questions about the incomparable pairs of each voter, as maintained by the
+   *         knowledge.
+   */
+  public ImmutableSet<QuestionVoter> getPossibleVoterQuestions() {
+    return getKnowledge().getPossibleVoterQuestions();
   }
 
   private ImmutableSet<Integer> getRanksWithLambdaRangesWiderThan(double threshold) {
@@ -276,15 +384,10 @@ public class StrategyHelper {
   }
 
   public PSRWeights getMinTauW(PairwiseMaxRegret pmr) {
-    final ImmutableSortedMultiset<Integer> multiSetOfRanksOfX =
-        ImmutableSortedMultiset.copyOf(pmr.getRanksOfX().values());
-    final ImmutableSortedMultiset<Integer> multiSetOfRanksOfY =
-        ImmutableSortedMultiset.copyOf(pmr.getRanksOfY().values());
-
     final RegretComputer regretComputer = getRegretComputer();
 
-    final SumTerms sumTerms =
-        regretComputer.getTermScoreYMinusScoreX(multiSetOfRanksOfY, multiSetOfRanksOfX);
+    final SumTerms sumTerms = regretComputer
+        .getTermScoreYMinusScoreX(pmr.getHistogramOfRanksOfY(), pmr.getHistogramOfRanksOfX());
     final ConstraintsOnWeights cow = getKnowledge().getConstraintsOnWeights();
     cow.minimize(sumTerms);
     return cow.getLastSolution();
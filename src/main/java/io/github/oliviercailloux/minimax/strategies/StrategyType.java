@@ -1,5 +1,6 @@
 package io.github.oliviercailloux.minimax.strategies;
 
 public enum StrategyType {
-  PESSIMISTIC, RANDOM, PESSIMISTIC_HEURISTIC, LIMITED, TWO_PHASES_HEURISTIC, ELITIST, CSS
+  PESSIMISTIC, RANDOM, PESSIMISTIC_HEURISTIC, LIMITED, TWO_PHASES_HEURISTIC, ELITIST, CSS, SAMPLED,
+  ANYTIME
 }
@@ -0,0 +1,100 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+
+/**
+ * An anytime strategy, that bounds the time spent selecting each question. It asks the best
+ * question that a {@link StrategyByMmr} finds among the candidates it could evaluate, in order of
+ * priority, before the deadline (see {@link StrategyByMmr#nextQuestionBefore(long)}), and falls
+ * back to the {@link StrategyCss} heuristic when it could evaluate none.
+ * <p>
+ * The deadline is checked between evaluations, thus, the time budget is exceeded by the time taken
+ * by the last evaluation, or by the fallback. The fallback is not bounded: it computes the current
+ * MMR solution, as the strategy by MMR does before its first evaluation, thus, its cost grows with
+ * the numbers of alternatives and voters, just as that of a single evaluation.
+ * </p>
+ */
+public class StrategyWithDeadline implements Strategy {
+  @SuppressWarnings("unused")
+  private static final Logger LOGGER = LoggerFactory.getLogger(StrategyWithDeadline.class);
+
+  public static StrategyWithDeadline given(StrategyByMmr byMmr, Duration budget) {
+    return new StrategyWithDeadline(byMmr, budget);
+  }
+
+  /**
+   * Returns a strategy that uses a default (unlimited) strategy by MMR.
+   */
+  public static StrategyWithDeadline newInstance(Duration budget) {
+    return new StrategyWithDeadline(StrategyByMmr.build(), budget);
+  }
+
+  private final StrategyByMmr byMmr;
+  private final StrategyCss fallback;
+  private final Duration budget;
+  private AnytimeSelection lastSelection;
+
+  private StrategyWithDeadline(StrategyByMmr byMmr, Duration budget) {
+    this.byMmr = checkNotNull(byMmr);
+    checkArgument(!budget.isNegative());
+    this.budget = budget;
+    fallback = StrategyCss.newInstance();
+    lastSelection = null;
+  }
+
+  @Override
+  public void setKnowledge(UpdateablePreferenceKnowledge knowledge) {
+    byMmr.setKnowledge(knowledge);
+    fallback.setKnowledge(knowledge);
+  }
+
+  /**
+   * Sets the random number generator used by both the strategy by MMR and the fallback.
+   */
+  public void setRandom(Random random) {
+    byMmr.setRandom(random);
+    fallback.setRandom(random);
+  }
+
+  public Duration getBudget() {
+    return budget;
+  }
+
+  @Override
+  public Question nextQuestion() {
+    final long budgetNs = budget.toNanos();
+    final Optional<Question> best = byMmr.nextQuestionBefore(System.nanoTime() + budgetNs);
+    final Question question;
+    if (best.isPresent()) {
+      question = best.get();
+      lastSelection = AnytimeSelection.given(budgetNs, byMmr.getLastNbCandidates(),
+          byMmr.getLastNbEvaluated(), false);
+    } else {
+      LOGGER.debug("No question evaluated within {}, falling back.", budget);
+      question = fallback.nextQuestion();
+      lastSelection = AnytimeSelection.given(budgetNs, byMmr.getLastNbCandidates(), 0, true);
+    }
+    return question;
+  }
+
+  /**
+   * @return how the last question has been selected.
+   * @throws IllegalStateException if no question has been selected yet.
+   */
+  public AnytimeSelection getLastSelection() {
+    checkState(lastSelection != null);
+    return lastSelection;
+  }
+}
@@ -0,0 +1,254 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+import com.google.common.base.VerifyException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+
+/**
+ * A pipelined strategy, that uses the time spent waiting for the answer to a question to select the
+ * next question in advance, for both possible answers.
+ * <p>
+ * Three strategies are obtained from the given factory at creation and reused for all questions:
+ * the main one (using {@link StrategyFactory#get(int)} with index 0) and one per answer (indices 1
+ * for the positive answer and 2 for the negative one). The first question after the knowledge has
+ * been set is selected by the main strategy. As soon as a question has been selected, the next
+ * questions are selected in the background by the strategies of both answers, on copies of the
+ * knowledge updated with, respectively, its positive and its negative information. When the next
+ * question is asked for, the one corresponding to the answer that the knowledge now implies is
+ * returned, without further computation if its selection is over. If the knowledge implies neither
+ * answer (or both), the next question is selected on the knowledge by the main strategy.
+ * </p>
+ * <p>
+ * The copies share the partial preferences with the knowledge until one of them is updated (see
+ * {@link UpdateablePreferenceKnowledge#copyOnWrite(UpdateablePreferenceKnowledge)}), thus are taken
+ * before returning the question at a cost linear in the number of voters, and cost at most one copy
+ * of the graph of the voter being asked when updated, in the background. The partial preferences
+ * of the knowledge must thus be modified only using
+ * {@link UpdateablePreferenceKnowledge#update(PreferenceInformation)}.
+ * </p>
+ * <p>
+ * The selection of the answer that was not given is not cancelled: it completes before its
+ * strategy selects again, so that each strategy selects the same questions whatever the timing of
+ * the background selections, and this strategy is reproducible. As the strategies are reused on
+ * successive knowledges, they should not depend on the questions they asked before (as the limited
+ * ones do).
+ * </p>
+ * <p>
+ * The time spent by the selections in the background is not counted in the computation times of
+ * the knowledge, but the solves they cause are recorded by its metrics (which the copies inherit),
+ * that must thus be thread-safe.
+ * </p>
+ */
+public class StrategyWithSpeculation implements Strategy {
+  @SuppressWarnings("unused")
+  private static final Logger LOGGER = LoggerFactory.getLogger(StrategyWithSpeculation.class);
+
+  /**
+   * Returns a strategy that selects the questions in advance using two daemon threads of its own,
+   * enough to select the questions corresponding to both answers at once, and which terminate
+   * when idle.
+   */
+  public static StrategyWithSpeculation given(StrategyFactory factory) {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 10l, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("speculation-%d").build());
+    executor.allowCoreThreadTimeOut(true);
+    return new StrategyWithSpeculation(factory, executor);
+  }
+
+  /**
+   * Returns a strategy that selects the questions in advance using the given executor, which
+   * should be able to run two selections at once.
+   */
+  public static StrategyWithSpeculation given(StrategyFactory factory, Executor executor) {
+    return new StrategyWithSpeculation(factory, executor);
+  }
+
+  private final Executor executor;
+  private final Strategy mainStrategy;
+  private final Strategy positiveStrategy;
+  private final Strategy negativeStrategy;
+  private UpdateablePreferenceKnowledge knowledge;
+  /**
+   * {@code null} iff no question has been asked since the knowledge has been set.
+   */
+  private Question lastQuestion;
+  /**
+   * The last selection of the positive strategy, thus, the next question if the last one is
+   * answered positively when there is a last question, {@code null} if there is none; completes
+   * with {@code null} if that answer is impossible.
+   */
+  private CompletableFuture<Question> ifPositive;
+  /**
+   * The last selection of the negative strategy (see {@link #ifPositive}).
+   */
+  private CompletableFuture<Question> ifNegative;
+  private int nbHits;
+  private int nbMisses;
+
+  private StrategyWithSpeculation(StrategyFactory factory, Executor executor) {
+    this.executor = checkNotNull(executor);
+    mainStrategy = factory.get(0);
+    positiveStrategy = factory.get(1);
+    negativeStrategy = factory.get(2);
+    knowledge = null;
+    lastQuestion = null;
+    ifPositive = null;
+    ifNegative = null;
+    nbHits = 0;
+    nbMisses = 0;
+  }
+
+  /**
+   * Sets the knowledge, after waiting for the selections in progress, if any, whose results are
+   * ignored.
+   */
+  @Override
+  public void setKnowledge(UpdateablePreferenceKnowledge knowledge) {
+    this.knowledge = checkNotNull(knowledge);
+    await(ifPositive);
+    await(ifNegative);
+    lastQuestion = null;
+    ifPositive = null;
+    ifNegative = null;
+  }
+
+  @Override
+  public Question nextQuestion() {
+    checkState(knowledge != null);
+    final CompletableFuture<Question> speculated = getSpeculated();
+    final Question speculatedQuestion = speculated == null ? null : join(speculated);
+    final Question question;
+    if (speculatedQuestion == null) {
+      if (lastQuestion != null) {
+        ++nbMisses;
+      }
+      mainStrategy.setKnowledge(knowledge);
+      question = mainStrategy.nextQuestion();
+    } else {
+      ++nbHits;
+      question = speculatedQuestion;
+    }
+    lastQuestion = question;
+    speculate(question);
+    return question;
+  }
+
+  /**
+   * @return the number of questions that have been selected in advance.
+   */
+  public int getNbHits() {
+    return nbHits;
+  }
+
+  /**
+   * @return the number of questions, except the first ones after the knowledge has been set, that
+   *         have been selected as usual, because the knowledge implied no single answer or because
+   *         the implied answer was not speculated on.
+   */
+  public int getNbMisses() {
+    return nbMisses;
+  }
+
+  /**
+   * @return the selection that corresponds to the current knowledge, or {@code null} if there is
+   *         none.
+   */
+  private CompletableFuture<Question> getSpeculated() {
+    if (lastQuestion == null) {
+      return null;
+    }
+    final boolean positive = knowledge.implies(lastQuestion.getPositiveInformation());
+    final boolean negative = knowledge.implies(lastQuestion.getNegativeInformation());
+    final CompletableFuture<Question> speculated;
+    if (positive && !negative) {
+      speculated = ifPositive;
+    } else if (negative && !positive) {
+      speculated = ifNegative;
+    } else {
+      LOGGER.debug("Knowledge implies no single answer to {}, not using speculation.",
+          lastQuestion);
+      speculated = null;
+    }
+    return speculated;
+  }
+
+  /**
+   * Starts selecting, in the background, the next question for each answer to the given one, each
+   * after the previous selection of the same strategy completes. The copies of the knowledge are
+   * taken now, and updated in the background.
+   */
+  private void speculate(Question question) {
+    final UpdateablePreferenceKnowledge positiveKnowledge =
+        UpdateablePreferenceKnowledge.copyOnWrite(knowledge);
+    final UpdateablePreferenceKnowledge negativeKnowledge =
+        UpdateablePreferenceKnowledge.copyOnWrite(knowledge);
+    ifPositive = after(ifPositive).thenApplyAsync(v -> updateAndSelect(positiveStrategy,
+        positiveKnowledge, question.getPositiveInformation()), executor);
+    ifNegative = after(ifNegative).thenApplyAsync(v -> updateAndSelect(negativeStrategy,
+        negativeKnowledge, question.getNegativeInformation()), executor);
+  }
+
+  /**
+   * @return the question selected by the given strategy given the knowledge updated with the given
+   *         information, or {@code null} if that information contradicts the knowledge.
+   */
+  private static Question updateAndSelect(Strategy strategy,
+      UpdateablePreferenceKnowledge selectionKnowledge, PreferenceInformation information) {
+    try {
+      selectionKnowledge.update(information);
+    } catch (IllegalArgumentException e) {
+      LOGGER.debug("Not speculating on {}: {}.", information, e.getMessage());
+      return null;
+    }
+    strategy.setKnowledge(selectionKnowledge);
+    return strategy.nextQuestion();
+  }
+
+  /**
+   * @return a future that completes normally when the given selection, if any, completes.
+   */
+  private static CompletableFuture<Void> after(CompletableFuture<Question> selection) {
+    if (selection == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return selection.handle((q, e) -> null);
+  }
+
+  /**
+   * Waits for the given selection, if any, ignoring its result.
+   */
+  private static void await(CompletableFuture<Question> selection) {
+    after(selection).join();
+  }
+
+  /**
+   * Waits for the given selection, and throws the exception it threw, if any, as a selection
+   * without speculation would.
+   */
+  private static Question join(CompletableFuture<Question> selection) {
+    try {
+      return selection.join();
+    } catch (CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new VerifyException(e);
+    }
+  }
+}
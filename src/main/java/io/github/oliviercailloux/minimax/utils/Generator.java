@@ -75,7 +75,13 @@ public class Generator {
   }
 
   public static PSRWeights genWeightsWithUnbalancedDistribution(int nbAlternatives) {
-    final Random r = new Random();
+    return genWeightsWithUnbalancedDistribution(nbAlternatives, new Random());
+  }
+
+  /**
+   * @param r the source of randomness, permitting to obtain reproducible weights.
+   */
+  public static PSRWeights genWeightsWithUnbalancedDistribution(int nbAlternatives, Random r) {
     final double p = (1 / (double) (nbAlternatives - 1));
     final Supplier<Double> differenceSupplier =
         () -> r.nextDouble() < p ? 0.9 + (r.nextDouble() * 0.1) : (r.nextDouble() * 0.1);
@@ -130,6 +136,14 @@ public class Generator {
   }
 
   public static Map<Voter, VoterStrictPreference> genProfile(int nbAlternatives, int nbVoters) {
+    return genProfile(nbAlternatives, nbVoters, new Random());
+  }
+
+  /**
+   * @param random the source of randomness, permitting to obtain a reproducible profile.
+   */
+  public static Map<Voter, VoterStrictPreference> genProfile(int nbAlternatives, int nbVoters,
+      Random random) {
     checkArgument(nbVoters >= 1);
     checkArgument(nbAlternatives >= 1);
     Map<Voter, VoterStrictPreference> profile = new HashMap<>();
@@ -142,7 +156,7 @@ public class Generator {
     for (int i = 1; i <= nbVoters; ++i) {
       Voter v = Voter.withId(i);
       List<Alternative> linearOrder = Lists.newArrayList(availableRanks);
-      Collections.shuffle(linearOrder);
+      Collections.shuffle(linearOrder, random);
       VoterStrictPreference pref = VoterStrictPreference.given(v, linearOrder);
       profile.put(v, pref);
     }
@@ -155,4 +169,12 @@ public class Generator {
     return Oracle.build(genProfile(nbAlternatives, nbVoters),
         genWeightsWithUnbalancedDistribution(nbAlternatives));
   }
+
+  /**
+   * @param random the source of randomness, permitting to obtain a reproducible oracle.
+   */
+  public static Oracle generateOracle(int nbAlternatives, int nbVoters, Random random) {
+    return Oracle.build(genProfile(nbAlternatives, nbVoters, random),
+        genWeightsWithUnbalancedDistribution(nbAlternatives, random));
+  }
 }
@@ -0,0 +1,59 @@
+package io.github.oliviercailloux.j_voting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.Graphs;
+import com.google.common.graph.ImmutableGraph;
+import com.google.common.graph.MutableGraph;
+
+class TransitiveBitsetsTest {
+
+  @Test
+  void testChain() {
+    final Alternative a1 = Alternative.withId(1);
+    final Alternative a2 = Alternative.withId(2);
+    final Alternative a3 = Alternative.withId(3);
+    final TransitiveBitsets empty = TransitiveBitsets.empty(ImmutableList.of(a1, a2, a3));
+    assertEquals(0, empty.getNbEdges());
+    final TransitiveBitsets bitsets = empty.withEdge(a2, a3).withEdge(a1, a2);
+    assertEquals(3, bitsets.getNbEdges());
+    assertTrue(bitsets.hasEdgeConnecting(a1, a3));
+    assertFalse(bitsets.hasEdgeConnecting(a3, a1));
+    assertEquals(2, bitsets.getNbSuccessors(a1));
+    assertEquals(2, bitsets.getNbPredecessors(a3));
+    assertEquals(2, bitsets.getNbAdjacentNodes(a2));
+    assertEquals(0, empty.getNbEdges());
+  }
+
+  @Test
+  void testIncrementalAsClosure() {
+    final int m = 64;
+    final Random random = new Random(0);
+    final ImmutableList<Alternative> alternatives =
+        ImmutableList.copyOf(Generator.getAlternatives(m));
+    final MutableGraph<Alternative> graph = GraphBuilder.directed().build();
+    alternatives.forEach(graph::addNode);
+    TransitiveBitsets bitsets = TransitiveBitsets.empty(alternatives);
+    for (int i = 0; i < 200; ++i) {
+      final int better = random.nextInt(m - 1);
+      final int worse = better + 1 + random.nextInt(m - better - 1);
+      graph.putEdge(alternatives.get(better), alternatives.get(worse));
+      bitsets = bitsets.withEdge(alternatives.get(better), alternatives.get(worse));
+    }
+    assertEquals(TransitiveBitsets.closureOf(graph), bitsets);
+
+    final MutableGraph<Alternative> closure = Graphs.copyOf(Graphs.transitiveClosure(graph));
+    for (Alternative a : closure.nodes()) {
+      closure.removeEdge(a, a);
+    }
+    assertEquals(ImmutableGraph.copyOf(closure), bitsets.asGraph());
+  }
+}
@@ -1,6 +1,10 @@
 package io.github.oliviercailloux.j_voting;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -49,4 +53,50 @@ class VoterPartialPreferenceTest {
     assertEquals(1, p.asGraph().edges().size());
     assertEquals(1, p.asTransitiveGraph().edges().size());
   }
+
+  @Test
+  void testSharedTransitiveGraph() {
+    final Alternative a1 = Alternative.withId(1);
+    final Alternative a2 = Alternative.withId(2);
+    final Alternative a3 = Alternative.withId(3);
+    final VoterPartialPreference p1 =
+        VoterPartialPreference.about(Voter.withId(1), ImmutableSet.of(a1, a2, a3));
+    final VoterPartialPreference p2 =
+        VoterPartialPreference.about(Voter.withId(2), ImmutableSet.of(a1, a2, a3));
+    assertSame(p1.asTransitiveGraph(), p2.asTransitiveGraph());
+    p1.asGraph().putEdge(a1, a2);
+    p1.asGraph().putEdge(a2, a3);
+    assertNotSame(p1.asTransitiveGraph(), p2.asTransitiveGraph());
+    p2.asGraph().putEdge(a1, a3);
+    p2.asGraph().putEdge(a2, a3);
+    p2.asGraph().putEdge(a1, a2);
+    assertSame(p1.asTransitiveGraph(), p2.asTransitiveGraph());
+    assertSame(p1.asTransitiveBitsets(), p2.asTransitiveBitsets());
+  }
+
+  @Test
+  void testWithEdgeAdded() {
+    final Alternative a1 = Alternative.withId(1);
+    final Alternative a2 = Alternative.withId(2);
+    final Alternative a3 = Alternative.withId(3);
+    final VoterPartialPreference p =
+        VoterPartialPreference.about(Voter.withId(1), ImmutableSet.of(a1, a2, a3));
+    p.asGraph().putEdge(a1, a2);
+    final VoterPartialPreference overlay = VoterPartialPreference.withEdgeAdded(p, a2, a3);
+    final VoterPartialPreference copy = VoterPartialPreference.copyOf(p);
+    copy.asGraph().putEdge(a2, a3);
+    assertSame(copy.asTransitiveGraph(), overlay.asTransitiveGraph());
+    assertSame(copy.asTransitiveBitsets(), overlay.asTransitiveBitsets());
+    assertEquals(1, p.asTransitiveGraph().edges().size());
+    assertEquals(copy, overlay);
+    assertTrue(overlay.isPreferred(a1, a3));
+    assertFalse(p.isPreferred(a1, a3));
+    assertTrue(overlay.isComplete());
+    assertEquals(ImmutableSet.of(a3), p.getIncomparables(a1));
+    assertEquals(ImmutableSet.of(), overlay.getIncomparables(a1));
+
+    overlay.asGraph().removeEdge(a2, a3);
+    assertSame(p.asTransitiveGraph(), overlay.asTransitiveGraph());
+    assertEquals(1, p.asGraph().edges().size());
+  }
 }
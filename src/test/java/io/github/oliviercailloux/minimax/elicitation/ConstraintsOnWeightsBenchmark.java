@@ -0,0 +1,147 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.jlp.elements.SumTerms;
+import io.github.oliviercailloux.jlp.elements.SumTermsBuilder;
+
+/**
+ * Optimizes m(m − 1) objectives shaped like those of a pass of PMR computations, under the
+ * convexity constraints and some answers of the committee, either swapping the objective of a
+ * program whose constraints are kept loaded, or building and solving a new program each time. The
+ * programs with floating point and with rational arithmetic are also compared directly, bypassing
+ * the cache of optima.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.library.path=lib")
+public class ConstraintsOnWeightsBenchmark {
+  @Param({ "10", "15", "20" })
+  public int m;
+
+  private ConstraintsOnWeights cow;
+
+  private ImmutableList<SumTerms> objectives;
+
+  private WeightsProgram program;
+
+  private ExactWeightsProgram exactProgram;
+
+  private ImmutableList<ImmutableList<Double>> coefficients;
+
+  private ImmutableList<ImmutableList<Aprational>> exactCoefficients;
+
+  @Setup
+  public void setUp() {
+    cow = ConstraintsOnWeights.withRankNumber(m);
+    cow.setConvexityConstraint();
+    program = WeightsProgram.withRankNumber(m);
+    exactProgram = ExactWeightsProgram.withRankNumber(m);
+    for (int i = 1; i <= m - 2; ++i) {
+      program = program.withConstraint(getCoefficients(i, 1d), ComparisonOperator.GE,
+          ConstraintsOnWeights.EPSILON);
+      exactProgram = exactProgram.withConstraint(toAprationals(getCoefficients(i, 1d)),
+          ComparisonOperator.GE, ConstraintsOnWeights.EXACT_EPSILON);
+    }
+    /** Compatible with geometric weights, where each difference is twice the next one. */
+    for (int i = 1; i <= m - 2; i += 2) {
+      cow.addConstraint(i, ComparisonOperator.GE, 1.5d);
+      program = program.withConstraint(getCoefficients(i, 1.5d), ComparisonOperator.GE, 0d);
+      exactProgram = exactProgram.withConstraint(toAprationals(getCoefficients(i, 1.5d)),
+          ComparisonOperator.GE, new Apint(0));
+    }
+
+    final int n = 20;
+    final Random random = new Random(0);
+    final ImmutableList.Builder<SumTerms> objectivesBuilder = ImmutableList.builder();
+    final ImmutableList.Builder<ImmutableList<Double>> coefficientsBuilder =
+        ImmutableList.builder();
+    for (int pair = 0; pair < m * (m - 1); ++pair) {
+      final SumTermsBuilder sumBuilder = SumTerms.builder();
+      final ImmutableList.Builder<Double> objectiveBuilder = ImmutableList.builder();
+      for (int r = 1; r <= m; ++r) {
+        final int coefficient = random.nextInt(2 * n + 1) - n;
+        sumBuilder.add(cow.getTerm(coefficient, r));
+        objectiveBuilder.add((double) coefficient);
+      }
+      objectivesBuilder.add(sumBuilder.build());
+      coefficientsBuilder.add(objectiveBuilder.build());
+    }
+    objectives = objectivesBuilder.build();
+    coefficients = coefficientsBuilder.build();
+    exactCoefficients = coefficients.stream().map(ConstraintsOnWeightsBenchmark::toAprationals)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * @return the coefficients of (w_i − w_{i+1}) − λ (w_{i+1} − w_{i+2}).
+   */
+  private ImmutableList<Double> getCoefficients(int i, double lambda) {
+    final Double[] coefficients = new Double[m];
+    Arrays.fill(coefficients, 0d);
+    coefficients[i - 1] = 1d;
+    coefficients[i] = -lambda - 1d;
+    coefficients[i + 1] = lambda;
+    return ImmutableList.copyOf(coefficients);
+  }
+
+  private static ImmutableList<Aprational> toAprationals(ImmutableList<Double> values) {
+    return values.stream().map(ExactWeightsProgram::toAprational)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Benchmark
+  public double swapObjective() {
+    double total = 0d;
+    for (SumTerms objective : objectives) {
+      total += cow.maximize(objective);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public double solveFromScratch() {
+    double total = 0d;
+    for (SumTerms objective : objectives) {
+      total += cow.maximizeUsingSolver(objective);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public void maximizeUsingDoubles(Blackhole blackhole) {
+    for (ImmutableList<Double> objective : coefficients) {
+      blackhole.consume(program.maximize(objective));
+    }
+  }
+
+  @Benchmark
+  public void maximizeExactly(Blackhole blackhole) {
+    for (ImmutableList<Aprational> objective : exactCoefficients) {
+      blackhole.consume(exactProgram.maximize(objective));
+    }
+  }
+}
@@ -2,7 +2,12 @@ package io.github.oliviercailloux.minimax.elicitation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Random;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.Range;
@@ -10,6 +15,8 @@ import com.google.common.collect.Range;
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
 import io.github.oliviercailloux.jlp.elements.SumTerms;
 import io.github.oliviercailloux.jlp.elements.SumTermsBuilder;
+import io.github.oliviercailloux.jlp.result.ResultStatus;
+import io.github.oliviercailloux.minimax.elicitation.SolverMetrics.SolveKind;
 
 public class ConstraintsOnWeightsTest {
   @Test
@@ -49,4 +56,195 @@ public class ConstraintsOnWeightsTest {
     final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(2);
     assertEquals(2d, cow.maximize(SumTerms.of(cow.getTerm(2d, 1), cow.getTerm(3d, 2))));
   }
+
+  @Test
+  void testConvexVerticesAsSolver() throws Exception {
+    final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(5);
+    cow.setConvexityConstraint();
+    final ConstraintsOnWeights cowSolver = ConstraintsOnWeights.copyOf(cow);
+    /** Implied by convexity, but forces the use of a linear program. */
+    cowSolver.addConstraint(1, ComparisonOperator.GE, 0d);
+
+    final SumTerms objective = SumTerms.of(cow.getTerm(3d, 1), cow.getTerm(-5d, 2),
+        cow.getTerm(4d, 3), cow.getTerm(-1d, 4));
+    assertEquals(cowSolver.maximize(objective), cow.maximize(objective), 1E-8);
+    final PSRWeights maxWeights = cow.getLastSolution();
+    assertEquals(1d, maxWeights.getWeightAtRank(1));
+    assertEquals(0d, maxWeights.getWeightAtRank(5));
+    assertEquals(cowSolver.minimize(objective), cow.minimize(objective), 1E-8);
+    assertEquals(0d, cow.minimize(SumTerms.builder().build()));
+    assertEquals(3d / 4d, cow.maximize(SumTerms.of(cow.getTerm(1d, 2))), 1E-4);
+  }
+
+  @Test
+  void testProgramAsSolver() throws Exception {
+    final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(5);
+    cow.setConvexityConstraint();
+    cow.addConstraint(1, ComparisonOperator.GE, 1.5d);
+    cow.addConstraint(2, ComparisonOperator.LE, 2d);
+
+    final SumTerms objective = SumTerms.of(cow.getTerm(3d, 1), cow.getTerm(-5d, 2),
+        cow.getTerm(4d, 3), cow.getTerm(-1d, 4));
+    final double viaSolver = cow.maximizeUsingSolver(objective);
+    assertEquals(viaSolver, cow.maximize(objective), 1E-8);
+    final PSRWeights weights = cow.getLastSolution();
+    assertEquals(1d, weights.getWeightAtRank(1));
+    assertEquals(0d, weights.getWeightAtRank(5));
+  }
+
+  @Test
+  void testCache() throws Exception {
+    final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(4);
+    cow.setConvexityConstraint();
+    final SumTerms objective = SumTerms.of(cow.getTerm(2d, 2), cow.getTerm(-1d, 3));
+    final double first = cow.maximize(objective);
+    final PSRWeights firstWeights = cow.getLastSolution();
+    cow.minimize(objective);
+    assertEquals(0, cow.getCacheStats().hitCount());
+    assertEquals(first, cow.maximize(objective));
+    assertEquals(firstWeights, cow.getLastSolution());
+    assertEquals(1, cow.getCacheStats().hitCount());
+
+    cow.addConstraint(1, ComparisonOperator.LE, 1.5d);
+    cow.maximize(objective);
+    assertEquals(1, cow.getCacheStats().hitCount());
+    assertEquals(3, cow.getCacheStats().missCount());
+  }
+
+  @Test
+  void testWithConstraintAsAdded() throws Exception {
+    final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(5);
+    cow.setConvexityConstraint();
+    final SumTerms objective = SumTerms.of(cow.getTerm(3d, 1), cow.getTerm(-5d, 2),
+        cow.getTerm(4d, 3), cow.getTerm(-1d, 4));
+    final double unconstrained = cow.maximize(objective);
+
+    final ConstraintsOnWeights scoped = cow.withConstraint(2, ComparisonOperator.GE, new Apint(3));
+    final ConstraintsOnWeights added = ConstraintsOnWeights.copyOf(cow);
+    added.addConstraint(2, ComparisonOperator.GE, 3d);
+    assertEquals(added.maximize(objective), scoped.maximize(objective), 1E-8);
+    assertEquals(added.getWeightRange(3), scoped.getWeightRange(3));
+
+    assertEquals(unconstrained, cow.maximize(objective));
+    assertEquals(Range.closed(0d, 0d), cow.getWeightRange(5));
+  }
+
+  @Test
+  void testExactAsDouble() throws Exception {
+    final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(6);
+    cow.setConvexityConstraint();
+    final ConstraintsOnWeights exact = ConstraintsOnWeights.copyOf(cow);
+    exact.setExact(true);
+    final SumTerms objective = SumTerms.of(cow.getTerm(3d, 1), cow.getTerm(-5d, 2),
+        cow.getTerm(4d, 3), cow.getTerm(-1d, 4), cow.getTerm(2d, 5));
+    assertEquals(cow.maximize(objective), exact.maximize(objective), 1E-4);
+    assertEquals(cow.minimize(objective), exact.minimize(objective), 1E-4);
+
+    final Aprational third = new Aprational(new Apint(1), new Apint(3));
+    cow.addConstraint(1, ComparisonOperator.GE, third.doubleValue());
+    exact.addConstraint(1, ComparisonOperator.GE, third);
+    cow.addConstraint(3, ComparisonOperator.LE, 2d);
+    exact.addConstraint(3, ComparisonOperator.LE, new Apint(2));
+    final double max = exact.maximize(objective);
+    assertEquals(cow.maximize(objective), max, 1E-4);
+    assertEquals(max, getValue(exact.getLastSolution(), 3d, -5d, 4d, -1d, 2d), 1E-6);
+    final double min = exact.minimize(objective);
+    assertEquals(cow.minimize(objective), min, 1E-4);
+    final PSRWeights minimizing = exact.getLastSolution();
+    assertEquals(min, getValue(minimizing, 3d, -5d, 4d, -1d, 2d), 1E-6);
+    final double d1 = minimizing.getWeightAtRank(1) - minimizing.getWeightAtRank(2);
+    final double d2 = minimizing.getWeightAtRank(2) - minimizing.getWeightAtRank(3);
+    assertTrue(d1 >= third.doubleValue() * d2 - 1E-9);
+  }
+
+  /**
+   * @return the sum of the weights at the ranks one to coefficients.length, multiplied by those
+   *         coefficients.
+   */
+  private static double getValue(PSRWeights weights, double... coefficients) {
+    double value = 0d;
+    for (int i = 0; i < coefficients.length; ++i) {
+      value += coefficients[i] * weights.getWeightAtRank(i + 1);
+    }
+    return value;
+  }
+
+  /**
+   * Compares the program with the solver on random feasible constraints, built from ratios of
+   * successive differences of weights that some convex weights satisfy, including equalities and
+   * constraints that are tight at those weights.
+   */
+  @Test
+  void testProgramAsSolverRandom() throws Exception {
+    final Random random = new Random(0);
+    for (int m = 3; m <= 20; ++m) {
+      for (int trial = 0; trial < 5; ++trial) {
+        final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(m);
+        cow.setConvexityConstraint();
+        final double[] ratios = new double[m - 1];
+        for (int r = 1; r <= m - 2; ++r) {
+          ratios[r] = 1.05d + random.nextDouble() * 0.45d;
+        }
+        final int nbConstraints = 2 * m + random.nextInt(2 * m);
+        for (int c = 0; c < nbConstraints; ++c) {
+          final int rank = 1 + random.nextInt(m - 2);
+          final double ratio = ratios[rank];
+          switch (random.nextInt(4)) {
+            case 0:
+              cow.addConstraint(rank, ComparisonOperator.EQ, ratio);
+              break;
+            case 1:
+              cow.addConstraint(rank, ComparisonOperator.GE, ratio);
+              break;
+            case 2:
+              cow.addConstraint(rank, ComparisonOperator.GE,
+                  ratio * (1d - 0.3d * random.nextDouble()));
+              break;
+            default:
+              cow.addConstraint(rank, ComparisonOperator.LE,
+                  ratio * (1d + 0.3d * random.nextDouble()));
+          }
+        }
+        for (int o = 0; o < 5; ++o) {
+          final SumTermsBuilder builder = SumTerms.builder();
+          for (int r = 1; r <= m; ++r) {
+            builder.add(cow.getTerm(random.nextDouble() * 10d - 5d, r));
+          }
+          final SumTerms objective = builder.build();
+          assertEquals(cow.maximizeUsingSolver(objective), cow.maximize(objective), 1E-6);
+          assertEquals(cow.minimizeUsingSolver(objective), cow.minimize(objective), 1E-6);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testMetrics() throws Exception {
+    final ConstraintsOnWeights cow = ConstraintsOnWeights.withRankNumber(5);
+    assertEquals(SolverMetrics.noOp(), cow.getMetrics());
+    final SolverStatistics statistics = SolverStatistics.newInstance();
+    cow.setMetrics(statistics);
+    cow.setConvexityConstraint();
+    final SumTerms objective = SumTerms.of(cow.getTerm(3d, 1), cow.getTerm(-5d, 2),
+        cow.getTerm(4d, 3), cow.getTerm(-1d, 4));
+    /** Evaluated at the vertices. */
+    cow.maximize(objective);
+    assertEquals(0, statistics.getNbSolves());
+
+    cow.addConstraint(1, ComparisonOperator.GE, 1.5d);
+    cow.maximize(objective);
+    cow.maximize(objective);
+    assertEquals(1, statistics.getNbSolves(SolveKind.WEIGHTS_PROGRAM));
+    assertEquals(1, statistics.getLatencyHistogram(SolveKind.WEIGHTS_PROGRAM).stream().sum());
+
+    final ConstraintsOnWeights scoped = cow.withConstraint(2, ComparisonOperator.LE, new Apint(2));
+    scoped.minimize(objective);
+    scoped.getWeightRange(3);
+    assertEquals(2, statistics.getNbSolves(SolveKind.WEIGHTS_PROGRAM));
+    assertEquals(2, statistics.getNbSolves(SolveKind.OR_TOOLS));
+    assertEquals(4, statistics.getNbOutcomes(ResultStatus.OPTIMAL));
+    assertEquals(0, statistics.getNbOutcomes(ResultStatus.INFEASIBLE));
+    /** The convexity constraints, the added constraint, the scoped one and its model. */
+    assertEquals(4, statistics.getNbModelBuildings());
+  }
 }
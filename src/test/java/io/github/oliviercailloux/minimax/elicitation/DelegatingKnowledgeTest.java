@@ -3,15 +3,22 @@ package io.github.oliviercailloux.minimax.elicitation;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
 
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.Range;
+
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Generator;
 import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.jlp.elements.SumTerms;
 import io.github.oliviercailloux.minimax.Basics;
 
 public class DelegatingKnowledgeTest {
@@ -34,6 +41,8 @@ public class DelegatingKnowledgeTest {
     assertEquals(k.getPartialPreference(Basics.v1), empty);
 
     assertEquals(del.getPartialPreference(Basics.v2), k.getPartialPreference(Basics.v2));
+    assertSame(del.getPartialPreference(Basics.v1).asTransitiveGraph(),
+        del.getPartialPreference(Basics.v1).asTransitiveGraph());
   }
 
   @Test
@@ -49,6 +58,26 @@ public class DelegatingKnowledgeTest {
 
     assertFalse(k.isProfileComplete());
     assertTrue(del.isProfileComplete());
+    assertFalse(DelegatingPreferenceKnowledge.given(k, p1).isProfileComplete());
+  }
+
+  @Test
+  void testCommittee() throws Exception {
+    final UpdateablePreferenceKnowledge k =
+        UpdateablePreferenceKnowledge.given(Generator.getAlternatives(4), Generator.getVoters(3));
+    final Aprational two = new Aprational(new Apint(2));
+    final PreferenceInformation p1 =
+        PreferenceInformation.aboutCommittee(1, ComparisonOperator.GE, two);
+    final DelegatingPreferenceKnowledge del = DelegatingPreferenceKnowledge.given(k, p1);
 
+    assertEquals(Range.closed(two, new Aprational(new Apint(3))), del.getLambdaRange(1));
+    assertEquals(k.getLambdaRange(2), del.getLambdaRange(2));
+    /** (w1 − w2) ≥ 2 (w2 − w3) ≥ 2 w3 thus w2 ≤ 1/2, reached with (1, 1/2, 1/4, 0). */
+    final ConstraintsOnWeights cow = del.getConstraintsOnWeights();
+    assertEquals(1d / 2d, cow.getMaximum(SumTerms.of(cow.getTerm(1d, 2))).getValue(), 1E-4);
+    assertEquals(Range.closed(new Aprational(new Apint(1)), new Aprational(new Apint(3))),
+        k.getLambdaRange(1));
+    assertEquals(2d / 3d,
+        k.getConstraintsOnWeights().getMaximum(SumTerms.of(cow.getTerm(1d, 2))).getValue(), 1E-4);
   }
 }
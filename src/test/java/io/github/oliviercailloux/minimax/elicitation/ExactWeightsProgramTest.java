@@ -0,0 +1,112 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.apfloat.Apint;
+import org.apfloat.Aprational;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+
+public class ExactWeightsProgramTest {
+  private static Aprational r(long numerator, long denominator) {
+    return new Aprational(new Apint(numerator), new Apint(denominator));
+  }
+
+  private static ImmutableList<Aprational> ints(long... values) {
+    final ImmutableList.Builder<Aprational> builder = ImmutableList.builder();
+    for (long value : values) {
+      builder.add(new Apint(value));
+    }
+    return builder.build();
+  }
+
+  private static ImmutableList<Aprational> toAprationals(ImmutableList<Double> values) {
+    return values.stream().map(ExactWeightsProgram::toAprational)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * Compares by value, independently of the representation (integer or not) of the numbers.
+   */
+  private static void assertSameValues(ImmutableList<Aprational> expected,
+      ImmutableList<Aprational> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); ++i) {
+      assertEquals(0, expected.get(i).compareTo(actual.get(i)), actual.toString());
+    }
+  }
+
+  @Test
+  void testOneC() throws Exception {
+    /** (w1 − w2) ≥ 3(w2 − w3) thus w2 ≤ 1/4. **/
+    final ExactWeightsProgram program = ExactWeightsProgram.withRankNumber(3)
+        .withConstraint(ints(1, -4, 3), ComparisonOperator.GE, new Apint(0));
+    assertSameValues(ImmutableList.of(r(1, 1), r(1, 4), r(0, 1)),
+        program.maximize(ints(0, 1, 0)));
+    assertSameValues(ints(1, 0, 0), program.minimize(ints(0, 1, 0)));
+  }
+
+  @Test
+  void testEquals() throws Exception {
+    final ImmutableList<Aprational> weights =
+        ImmutableList.of(r(1, 1), r(1, 2), r(1, 5), r(1, 20), r(0, 1));
+    ExactWeightsProgram program = ExactWeightsProgram.withRankNumber(5);
+    for (int i = 1; i <= 3; ++i) {
+      final Aprational lambda = weights.get(i - 1).subtract(weights.get(i))
+          .divide(weights.get(i).subtract(weights.get(i + 1)));
+      final Aprational[] coefficients = { r(0, 1), r(0, 1), r(0, 1), r(0, 1), r(0, 1) };
+      coefficients[i - 1] = r(1, 1);
+      coefficients[i] = lambda.negate().subtract(r(1, 1));
+      coefficients[i + 1] = lambda;
+      program = program.withConstraint(ImmutableList.copyOf(coefficients), ComparisonOperator.EQ,
+          r(0, 1));
+    }
+    assertSameValues(weights, program.maximize(ints(5, 5, 5, 5, 5)));
+  }
+
+  @Test
+  void testAsDouble() throws Exception {
+    final Random random = new Random(0);
+    ExactWeightsProgram exact = ExactWeightsProgram.withRankNumber(6);
+    WeightsProgram approximate = WeightsProgram.withRankNumber(6);
+    for (int rank = 1; rank <= 4; ++rank) {
+      final Double[] convexity = { 0d, 0d, 0d, 0d, 0d, 0d };
+      convexity[rank - 1] = 1d;
+      convexity[rank] = -2d;
+      convexity[rank + 1] = 1d;
+      approximate =
+          approximate.withConstraint(ImmutableList.copyOf(convexity), ComparisonOperator.GE, 0d);
+      exact = exact.withConstraint(toAprationals(ImmutableList.copyOf(convexity)),
+          ComparisonOperator.GE, new Apint(0));
+    }
+    for (int i = 0; i < 20; ++i) {
+      final ImmutableList<Double> objective = random.doubles(6, -5d, 5d).map(Math::rint).boxed()
+          .collect(ImmutableList.toImmutableList());
+      final ImmutableList<Aprational> exactObjective = toAprationals(objective);
+      final double expected = ExactWeightsProgram
+          .getValue(exactObjective, toAprationals(approximate.maximize(objective))).doubleValue();
+      final Aprational value =
+          ExactWeightsProgram.getValue(exactObjective, exact.maximize(exactObjective));
+      assertEquals(expected, value.doubleValue(), 1e-8);
+    }
+  }
+
+  @Test
+  void testToAprational() throws Exception {
+    assertSameValues(ImmutableList.of(r(3, 4), r(-3, 1), r(0, 1)),
+        toAprationals(ImmutableList.of(0.75d, -3d, 0d)));
+  }
+
+  @Test
+  void testInfeasible() throws Exception {
+    final ExactWeightsProgram program = ExactWeightsProgram.withRankNumber(3)
+        .withConstraint(ints(0, 1, 0), ComparisonOperator.GE, new Apint(2));
+    assertThrows(IllegalArgumentException.class, () -> program.maximize(ints(0, 0, 0)));
+  }
+}
@@ -12,6 +12,7 @@ import com.google.common.collect.Range;
 import io.github.oliviercailloux.j_voting.Generator;
 import io.github.oliviercailloux.j_voting.VoterPartialPreference;
 import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.jlp.elements.SumTerms;
 import io.github.oliviercailloux.minimax.Basics;
 
 class PreferenceKnowledgeTest {
@@ -37,4 +38,20 @@ class PreferenceKnowledgeTest {
     assertThrows(IllegalArgumentException.class,
         () -> k.addConstraint(1, ComparisonOperator.LE, ap1));
   }
+
+  @Test
+  void testRedundantConstraintKeepsCache() throws Exception {
+    final UpdateablePreferenceKnowledge k =
+        UpdateablePreferenceKnowledge.given(Generator.getAlternatives(5), Generator.getVoters(10));
+    final ConstraintsOnWeights cow = k.getConstraintsOnWeights();
+    final SumTerms objective = SumTerms.of(cow.getTerm(1d, 2), cow.getTerm(-1d, 4));
+    k.addConstraint(1, ComparisonOperator.GE, new Apint(3));
+    final double value = cow.maximize(objective);
+    k.addConstraint(1, ComparisonOperator.GE, new Apint(2));
+    assertEquals(value, cow.maximize(objective));
+    assertEquals(1, cow.getCacheStats().hitCount());
+    k.addConstraint(1, ComparisonOperator.LE, new Apint(4));
+    cow.maximize(objective);
+    assertEquals(1, cow.getCacheStats().hitCount());
+  }
 }
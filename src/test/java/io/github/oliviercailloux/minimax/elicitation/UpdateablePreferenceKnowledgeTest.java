@@ -6,13 +6,18 @@ import static io.github.oliviercailloux.minimax.Basics.a3;
 import static io.github.oliviercailloux.minimax.Basics.v1;
 import static io.github.oliviercailloux.minimax.Basics.v2;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.apfloat.Apint;
 import org.apfloat.Aprational;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Range;
 
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
@@ -59,6 +64,90 @@ public class UpdateablePreferenceKnowledgeTest {
 
   }
 
+  @Test
+  void testIncompleteVoters() {
+    final UpdateablePreferenceKnowledge knowledge =
+        UpdateablePreferenceKnowledge.given(ImmutableSet.of(a1, a2, a3), ImmutableSet.of(v1, v2));
+    assertEquals(ImmutableSet.of(v1, v2), knowledge.getIncompleteVoters());
+    assertEquals(ImmutableSet.of(QuestionVoter.given(v1, a1, a2), QuestionVoter.given(v1, a1, a3),
+        QuestionVoter.given(v1, a2, a3), QuestionVoter.given(v2, a1, a2),
+        QuestionVoter.given(v2, a1, a3), QuestionVoter.given(v2, a2, a3)),
+        knowledge.getPossibleVoterQuestions());
+
+    knowledge.update(PreferenceInformation.aboutVoter(v1, a3, a1));
+    assertEquals(ImmutableSet.of(QuestionVoter.given(v1, a1, a2), QuestionVoter.given(v1, a2, a3)),
+        knowledge.getPossibleVoterQuestions(v1));
+
+    knowledge.update(PreferenceInformation.aboutVoter(v1, a1, a2));
+    assertEquals(ImmutableSet.of(v2), knowledge.getIncompleteVoters());
+    assertEquals(ImmutableSet.of(), knowledge.getPossibleVoterQuestions(v1));
+    assertFalse(knowledge.isProfileComplete());
+
+    /** Changes made directly to the graph are also taken into account. */
+    knowledge.getPartialPreference(v2).asGraph().putEdge(a2, a1);
+    knowledge.getPartialPreference(v2).asGraph().putEdge(a1, a3);
+    assertEquals(ImmutableSet.of(), knowledge.getIncompleteVoters());
+    assertEquals(ImmutableSet.of(), knowledge.getPossibleVoterQuestions());
+    assertTrue(knowledge.isProfileComplete());
+  }
+
+  @Test
+  void testCopyOfAndImplies() {
+    final UpdateablePreferenceKnowledge knowledge =
+        UpdateablePreferenceKnowledge.given(ImmutableSet.of(a1, a2, a3), ImmutableSet.of(v1, v2));
+    final Question toVoter = Question.toVoter(v1, a1, a2);
+    final Aprational threeHalves = new Aprational(new Apint(3), new Apint(2));
+    final Question toCommittee = Question.toCommittee(threeHalves, 1);
+
+    final UpdateablePreferenceKnowledge copy = UpdateablePreferenceKnowledge.copyOf(knowledge);
+    copy.update(toVoter.getPositiveInformation());
+    copy.update(toCommittee.getNegativeInformation());
+    assertTrue(copy.implies(toVoter.getPositiveInformation()));
+    assertFalse(copy.implies(toVoter.getNegativeInformation()));
+    assertFalse(copy.implies(toCommittee.getPositiveInformation()));
+    assertTrue(copy.implies(toCommittee.getNegativeInformation()));
+    assertEquals(Range.closed(new Apint(1), threeHalves), copy.getLambdaRange(1));
+    assertEquals(5, copy.getPossibleVoterQuestions().size());
+
+    /** The original knowledge is unchanged. */
+    assertFalse(knowledge.implies(toVoter.getPositiveInformation()));
+    assertFalse(knowledge.implies(toVoter.getNegativeInformation()));
+    assertFalse(knowledge.implies(toCommittee.getPositiveInformation()));
+    assertFalse(knowledge.implies(toCommittee.getNegativeInformation()));
+    assertEquals(Range.closed(new Apint(1), new Apint(2)), knowledge.getLambdaRange(1));
+    assertEquals(6, knowledge.getPossibleVoterQuestions().size());
+
+    /** And the copy evolves independently. */
+    knowledge.update(toVoter.getNegativeInformation());
+    assertTrue(copy.implies(toVoter.getPositiveInformation()));
+    assertFalse(copy.implies(toVoter.getNegativeInformation()));
+  }
+
+  @Test
+  void testCopyOnWrite() {
+    final UpdateablePreferenceKnowledge knowledge =
+        UpdateablePreferenceKnowledge.given(ImmutableSet.of(a1, a2, a3), ImmutableSet.of(v1, v2));
+    knowledge.update(Question.toVoter(v1, a1, a2).getPositiveInformation());
+    final Question toVoter = Question.toVoter(v1, a2, a3);
+
+    final UpdateablePreferenceKnowledge copy = UpdateablePreferenceKnowledge.copyOnWrite(knowledge);
+    assertSame(knowledge.getPartialPreference(v1), copy.getPartialPreference(v1));
+    copy.update(toVoter.getPositiveInformation());
+    assertTrue(copy.implies(Question.toVoter(v1, a1, a3).getPositiveInformation()));
+    assertEquals(3, copy.getPossibleVoterQuestions().size());
+    assertSame(knowledge.getPartialPreference(v2), copy.getPartialPreference(v2));
+
+    /** Both evolve independently. */
+    assertFalse(knowledge.implies(toVoter.getPositiveInformation()));
+    assertEquals(5, knowledge.getPossibleVoterQuestions().size());
+    knowledge.update(toVoter.getNegativeInformation());
+    assertTrue(knowledge.implies(toVoter.getNegativeInformation()));
+    assertFalse(copy.implies(toVoter.getNegativeInformation()));
+    copy.update(Question.toVoter(v2, a1, a2).getPositiveInformation());
+    assertEquals(2, copy.getPossibleVoterQuestions().size());
+    assertEquals(4, knowledge.getPossibleVoterQuestions().size());
+  }
+
   void addWeights(UpdateablePreferenceKnowledge startingKnowledge, Oracle oracle) {
     PSRWeights weights = oracle.getWeights();
     int m = weights.size() - 2;
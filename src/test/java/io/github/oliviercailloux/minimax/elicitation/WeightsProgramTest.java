@@ -0,0 +1,60 @@
+package io.github.oliviercailloux.minimax.elicitation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+
+public class WeightsProgramTest {
+  @Test
+  void testOneC() throws Exception {
+    /** (w1 − w2) ≥ 3(w2 − w3) thus w2 ≤ 1/4. **/
+    final WeightsProgram program = WeightsProgram.withRankNumber(3)
+        .withConstraint(ImmutableList.of(1d, -4d, 3d), ComparisonOperator.GE, 0d);
+    assertEquals(ImmutableList.of(1d, 0.25d, 0d), program.maximize(ImmutableList.of(0d, 1d, 0d)));
+    assertEquals(ImmutableList.of(1d, 0d, 0d), program.minimize(ImmutableList.of(0d, 1d, 0d)));
+    /** The objectives previously optimized have no influence. */
+    assertEquals(ImmutableList.of(1d, 0.25d, 0d), program.maximize(ImmutableList.of(0d, 1d, 0d)));
+  }
+
+  @Test
+  void testBounds() throws Exception {
+    final WeightsProgram program = WeightsProgram.withRankNumber(6);
+    assertEquals(ImmutableList.of(1d, 0d, 0d, 0d, 1d, 0d),
+        program.maximize(ImmutableList.of(1d, 0d, -2d, 0d, 1d, 0d)));
+    assertEquals(ImmutableList.of(1d),
+        WeightsProgram.withRankNumber(1).maximize(ImmutableList.of(2d)));
+  }
+
+  @Test
+  void testEquals() throws Exception {
+    final ImmutableList<Double> weights = ImmutableList.of(1d, 0.5d, 0.2d, 0.05d, 0d);
+    WeightsProgram program = WeightsProgram.withRankNumber(5);
+    for (int i = 1; i <= 3; ++i) {
+      final double lambda = (weights.get(i - 1) - weights.get(i))
+          / (weights.get(i) - weights.get(i + 1));
+      final Double[] coefficients = { 0d, 0d, 0d, 0d, 0d };
+      coefficients[i - 1] = 1d;
+      coefficients[i] = -lambda - 1d;
+      coefficients[i + 1] = lambda;
+      program = program.withConstraint(ImmutableList.copyOf(coefficients), ComparisonOperator.EQ,
+          0d);
+    }
+    final ImmutableList<Double> found = program.maximize(ImmutableList.of(5d, 5d, 5d, 5d, 5d));
+    for (int r = 0; r < 5; ++r) {
+      assertEquals(weights.get(r), found.get(r), 1e-8);
+    }
+  }
+
+  @Test
+  void testInfeasible() throws Exception {
+    final WeightsProgram program = WeightsProgram.withRankNumber(3)
+        .withConstraint(ImmutableList.of(0d, 1d, 0d), ComparisonOperator.GE, 2d);
+    assertThrows(IllegalArgumentException.class,
+        () -> program.maximize(ImmutableList.of(0d, 0d, 0d)));
+  }
+}
@@ -9,13 +9,17 @@ import static io.github.oliviercailloux.minimax.Basics.p1;
 import static io.github.oliviercailloux.minimax.Basics.v1;
 import static io.github.oliviercailloux.minimax.Basics.w;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 import java.util.Vector;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
@@ -33,10 +37,19 @@ import com.google.common.math.Quantiles;
 import com.google.common.math.Stats;
 
 import io.github.oliviercailloux.j_voting.VoterStrictPreference;
+import io.github.oliviercailloux.minimax.Basics;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 import io.github.oliviercailloux.minimax.experiment.json.JsonConverter;
 import io.github.oliviercailloux.minimax.regret.Regrets;
+import io.github.oliviercailloux.minimax.strategies.AnytimeSelection;
+import io.github.oliviercailloux.minimax.strategies.MmrLottery;
+import io.github.oliviercailloux.minimax.strategies.Strategy;
+import io.github.oliviercailloux.minimax.strategies.StrategyByMmr;
+import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
+import io.github.oliviercailloux.minimax.strategies.StrategyWithSpeculation;
+import io.github.oliviercailloux.minimax.utils.Generator;
 
 class RunnerTests {
   @SuppressWarnings("unused")
@@ -88,6 +101,95 @@ class RunnerTests {
     assertEquals(0.3333d, iterator.next().doubleValue(), 0.0001d);
   }
 
+  @Test
+  void testPhases() {
+    final Run timed = Runner.run(factory, Generator.generateOracle(4, 3, new Random(0)), 3);
+    final ImmutableList<QuestionTimes> phases = timed.getQuestionPhases().orElseThrow();
+    assertEquals(3, phases.size());
+    assertTrue(phases.stream().allMatch((p) -> p.getSelectionNs() > 0l));
+
+    final Runs runs = Runs.of(factory, ImmutableList.of(timed, timed));
+    assertEquals(6, runs.getQuestionTimeStats(QuestionTimes::getSelectionNs).count());
+    assertEquals(0, Runs.of(factory, ImmutableList.of(Basics.run))
+        .getQuestionTimeStats(QuestionTimes::getSelectionNs).count());
+  }
+
+  @Test
+  void testAnytime() {
+    final StrategyFactory anytime = StrategyFactory.anytime(0l, Duration.ofMinutes(1));
+    final Run run = Runner.run(anytime, Generator.generateOracle(4, 3, new Random(0)), 3);
+    final ImmutableList<AnytimeSelection> selections = run.getQuestionSelections().orElseThrow();
+    assertEquals(3, selections.size());
+    assertTrue(selections.stream().allMatch(s -> s.getNbEvaluated() == s.getNbCandidates()));
+    assertEquals(0, run.getNbFallbacks());
+    assertEquals(run, JsonConverter.toRun(JsonConverter.toJson(run).toString()));
+    assertEquals(anytime.toJson(), StrategyFactory.fromJson(anytime.toJson()).toJson());
+    assertTrue(Runner.run(factory, Generator.generateOracle(4, 3, new Random(0)), 1)
+        .getQuestionSelections().isEmpty());
+  }
+
+  @Test
+  void testPruning() {
+    final Oracle oracle = Generator.generateOracle(4, 3, new Random(0));
+    final StrategyByMmr pruning = StrategyByMmr.build();
+    pruning.setRandom(new Random(0));
+    pruning.setPruning(true);
+    final Run run = Runner.run(pruning, oracle, UpdateablePreferenceKnowledge
+        .given(oracle.getAlternatives(), oracle.getProfile().keySet()), 3);
+    final ImmutableList<Integer> nbPruned = run.getQuestionNbPruned().orElseThrow();
+    assertEquals(3, nbPruned.size());
+    assertEquals(pruning.getLastNbPruned(), nbPruned.get(2).intValue());
+    assertEquals(run, JsonConverter.toRun(JsonConverter.toJson(run).toString()));
+    assertTrue(Runner.run(factory, oracle, 1).getQuestionNbPruned().isEmpty());
+  }
+
+  @Test
+  void testSpeculation() {
+    final StrategyFactory byMmr = StrategyFactory.byMmrs(0l, MmrLottery.MAX_COMPARATOR);
+    final Oracle oracle = Generator.generateOracle(4, 3, new Random(0));
+    final StrategyWithSpeculation speculative = StrategyWithSpeculation.given(byMmr);
+    final Run run = Runner.run(speculative, oracle, UpdateablePreferenceKnowledge
+        .given(oracle.getAlternatives(), oracle.getProfile().keySet()), 6);
+    assertEquals(5, speculative.getNbHits());
+    assertEquals(0, speculative.getNbMisses());
+
+    /** The first question is the one of the main strategy. */
+    final Strategy main = byMmr.get(0);
+    main.setKnowledge(UpdateablePreferenceKnowledge.given(oracle.getAlternatives(),
+        oracle.getProfile().keySet()));
+    assertEquals(main.nextQuestion(), run.getQuestions().get(0));
+
+    /** The same questions, whatever the timing of the selections. */
+    final Run again = Runner.run(StrategyWithSpeculation.given(byMmr), oracle,
+        UpdateablePreferenceKnowledge.given(oracle.getAlternatives(),
+            oracle.getProfile().keySet()),
+        6);
+    assertEquals(run.getQuestions(), again.getQuestions());
+  }
+
+  @Test
+  void testParallel() {
+    final Random random = new Random(0);
+    final ImmutableList<Oracle> oracles =
+        Stream.generate(() -> Generator.generateOracle(4, 3, random)).limit(5)
+            .collect(ImmutableList.toImmutableList());
+    final StrategyFactory css = StrategyFactory.css(0l);
+    final ImmutableList<Runs> parallel = ParallelRunner.withParallelism(3)
+        .runs(ImmutableList.of(css, StrategyFactory.css(1l)), oracles, 3);
+    assertEquals(2, parallel.size());
+    assertEquals(oracles, parallel.get(0).getRuns().stream().map(Run::getOracle)
+        .collect(ImmutableList.toImmutableList()));
+
+    for (int i = 0; i < oracles.size(); ++i) {
+      final Oracle oracle = oracles.get(i);
+      final Run sequential = Runner.run(css.get(i), oracle, UpdateablePreferenceKnowledge
+          .given(oracle.getAlternatives(), oracle.getProfile().keySet()), 3);
+      assertEquals(sequential.getQuestions(), parallel.get(0).getRun(i).getQuestions());
+    }
+    assertEquals(css.getRunSeed(2), StrategyFactory.css(0l).getRunSeed(2));
+    assertNotEquals(css.getRunSeed(2), css.getRunSeed(3));
+  }
+
   @Test
   void testQuartiles() {
     List<Integer> list = IntStream.range(1, 21).boxed().collect(Collectors.toList());
@@ -4,6 +4,8 @@ import static io.github.oliviercailloux.minimax.Basics.cConstraint;
 import static io.github.oliviercailloux.minimax.Basics.oracle;
 import static io.github.oliviercailloux.minimax.Basics.p1;
 import static io.github.oliviercailloux.minimax.Basics.profile;
+import static io.github.oliviercailloux.minimax.Basics.q1;
+import static io.github.oliviercailloux.minimax.Basics.q2;
 import static io.github.oliviercailloux.minimax.Basics.run;
 import static io.github.oliviercailloux.minimax.Basics.runs;
 import static io.github.oliviercailloux.minimax.Basics.v1;
@@ -24,8 +26,10 @@ import io.github.oliviercailloux.j_voting.VoterStrictPreference;
 import io.github.oliviercailloux.json.PrintableJsonObject;
 import io.github.oliviercailloux.json.PrintableJsonValue;
 import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.experiment.QuestionTimes;
 import io.github.oliviercailloux.minimax.experiment.Run;
 import io.github.oliviercailloux.minimax.experiment.Runs;
+import io.github.oliviercailloux.minimax.experiment.other_formats.ToCsv;
 import io.github.oliviercailloux.minimax.strategies.MmrLottery;
 import io.github.oliviercailloux.minimax.strategies.StrategyFactory;
 
@@ -99,6 +103,15 @@ public class JsonConverterTests {
     assertEquals(expected, json.toString());
   }
 
+  @Test
+  void testRunWithPhases() throws Exception {
+    final Run timed = Run.of(oracle, ImmutableList.of(10l, 18l), ImmutableList.of(q1, q2), 20l,
+        ImmutableList.of(QuestionTimes.given(7_900_000l, 6_000_000l, 12l, 1_500_000l, 2_000l, 100l),
+            QuestionTimes.given(1_500_000l, 0l, 0l, 0l, 1_000l, 250_000l)));
+    final PrintableJsonObject json = JsonConverter.toJson(timed);
+    assertEquals(timed, JsonConverter.toRun(json.toString()));
+  }
+
   @Test
   void testRuns() throws Exception {
     final PrintableJsonObject json =
@@ -108,6 +121,25 @@ public class JsonConverterTests {
     assertEquals(expected, json.toString());
   }
 
+  @Test
+  void testRunsJsonLines() throws Exception {
+    final Path file = Files.createTempFile("runs", RunsWriter.EXTENSION);
+    try {
+      try (RunsWriter writer = RunsWriter.create(file, runs.getFactory())) {
+        writer.write(run);
+        writer.write(run);
+        assertEquals(2, writer.getNbRuns());
+      }
+      assertEquals(3, Files.readAllLines(file).size());
+      assertEquals(runs, RunsReader.readRuns(file));
+      try (RunsReader reader = RunsReader.open(file)) {
+        assertEquals(ToCsv.toCsv(runs, 1), ToCsv.toCsv(reader.runs(), 1));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   /**
    * TODO throw back the runtime exception unchanged in JsonbUtils.
    */
@@ -0,0 +1,109 @@
+package io.github.oliviercailloux.minimax.regret;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMultiset;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Generator;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+
+/**
+ * Computes all the pairwise max regrets of a random partial profile, and the objectives of the
+ * pairwise max regrets of all pairs of alternatives, from the ranks of each voter, either through
+ * sorted multisets of ranks or through rank histograms. The benchmarks profile enables the GC
+ * profiler, whose gc.alloc.rate.norm measure gives the allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.library.path=lib")
+public class RegretComputerBenchmark {
+  @Param({ "15" })
+  public int m;
+
+  @Param({ "1000" })
+  public int n;
+
+  private RegretComputer regretComputer;
+
+  private ImmutableList<ImmutableMap<Voter, Integer>> ranksOfXs;
+
+  private ImmutableList<ImmutableMap<Voter, Integer>> ranksOfYs;
+
+  @Setup
+  public void setUp() {
+    final ImmutableList<Alternative> alternatives =
+        ImmutableList.copyOf(Generator.getAlternatives(m));
+    final UpdateablePreferenceKnowledge knowledge = UpdateablePreferenceKnowledge
+        .given(ImmutableSet.copyOf(alternatives), Generator.getVoters(n));
+    final Random random = new Random(0);
+    for (Voter voter : knowledge.getVoters()) {
+      final VoterPartialPreference preference = knowledge.getPartialPreference(voter);
+      for (int i = 0; i < 3; ++i) {
+        final int better = random.nextInt(m - 1);
+        final int worse = better + 1 + random.nextInt(m - better - 1);
+        preference.asGraph().putEdge(alternatives.get(better), alternatives.get(worse));
+      }
+    }
+    regretComputer = new RegretComputer(knowledge);
+
+    final ImmutableList.Builder<ImmutableMap<Voter, Integer>> ranksOfXsBuilder =
+        ImmutableList.builder();
+    final ImmutableList.Builder<ImmutableMap<Voter, Integer>> ranksOfYsBuilder =
+        ImmutableList.builder();
+    for (Alternative x : alternatives) {
+      final ImmutableMap<Voter, Integer> ranksOfX = regretComputer.getWorstRanksOfX(x);
+      for (Alternative y : alternatives) {
+        ranksOfXsBuilder.add(ranksOfX);
+        ranksOfYsBuilder.add(regretComputer.getBestRanksOfY(x, y));
+      }
+    }
+    ranksOfXs = ranksOfXsBuilder.build();
+    ranksOfYs = ranksOfYsBuilder.build();
+  }
+
+  @Benchmark
+  public Regrets allPairwiseMaxRegrets() {
+    return regretComputer.getAllPairwiseMaxRegrets();
+  }
+
+  @Benchmark
+  public void objectivesFromMultiSets(Blackhole blackhole) {
+    for (int i = 0; i < ranksOfXs.size(); ++i) {
+      blackhole.consume(regretComputer.getTermScoreYMinusScoreX(
+          ImmutableSortedMultiset.copyOf(ranksOfYs.get(i).values()),
+          ImmutableSortedMultiset.copyOf(ranksOfXs.get(i).values())));
+    }
+  }
+
+  @Benchmark
+  public void objectivesFromHistograms(Blackhole blackhole) {
+    for (int i = 0; i < ranksOfXs.size(); ++i) {
+      blackhole.consume(regretComputer.getTermScoreYMinusScoreX(
+          PairwiseMaxRegret.getHistogram(ranksOfYs.get(i), m),
+          PairwiseMaxRegret.getHistogram(ranksOfXs.get(i), m)));
+    }
+  }
+}
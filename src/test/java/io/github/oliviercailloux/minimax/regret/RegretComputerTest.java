@@ -5,8 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
+import org.apfloat.Apint;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableList;
@@ -16,8 +19,13 @@ import com.google.common.collect.SetMultimap;
 import com.google.common.graph.MutableGraph;
 
 import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Generator;
 import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.j_voting.VoterPartialPreference;
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.DelegatingPreferenceKnowledge;
 import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 
 class RegretComputerTest {
@@ -474,4 +482,116 @@ class RegretComputerTest {
     // assertTrue(r[1] == yRanks.get(v));
     // }
   }
+
+  @Test
+  void testParallelAsSequential() {
+    final ImmutableList<Alternative> alternatives =
+        ImmutableList.copyOf(Generator.getAlternatives(6));
+    final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge
+        .given(ImmutableSet.copyOf(alternatives), Generator.getVoters(8));
+    final Random random = new Random(0);
+    for (Voter voter : k.getVoters()) {
+      final VoterPartialPreference preference = k.getPartialPreference(voter);
+      for (int i = 0; i < 5; ++i) {
+        final int better = random.nextInt(alternatives.size() - 1);
+        final int worse = better + 1 + random.nextInt(alternatives.size() - better - 1);
+        preference.asGraph().putEdge(alternatives.get(better), alternatives.get(worse));
+      }
+    }
+    k.addConstraint(1, ComparisonOperator.GE, new Apint(2));
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    final Regrets sequential = new RegretComputer(k).getAllPairwiseMaxRegrets();
+    final Regrets parallel = new RegretComputer(k, pool).getAllPairwiseMaxRegrets();
+    pool.shutdown();
+    assertEquals(ImmutableList.copyOf(sequential.asMultimap().entries()),
+        ImmutableList.copyOf(parallel.asMultimap().entries()));
+  }
+
+  @Test
+  void testLazyAsComplete() {
+    final ImmutableList<Alternative> alternatives =
+        ImmutableList.copyOf(Generator.getAlternatives(7));
+    final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge
+        .given(ImmutableSet.copyOf(alternatives), Generator.getVoters(5));
+    final Random random = new Random(1);
+    for (Voter voter : k.getVoters()) {
+      final VoterPartialPreference preference = k.getPartialPreference(voter);
+      for (int i = 0; i < 6; ++i) {
+        final int better = random.nextInt(alternatives.size() - 1);
+        final int worse = better + 1 + random.nextInt(alternatives.size() - better - 1);
+        preference.asGraph().putEdge(alternatives.get(better), alternatives.get(worse));
+      }
+    }
+    k.addConstraint(2, ComparisonOperator.LE, new Apint(2));
+
+    final RegretComputer regretComputer = new RegretComputer(k);
+    final Regrets complete = regretComputer.getAllPairwiseMaxRegrets().getMinimalMaxRegrets();
+    assertEquals(ImmutableList.copyOf(complete.asMultimap().entries()),
+        ImmutableList.copyOf(regretComputer.getMinimalMaxRegrets().asMultimap().entries()));
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    final Regrets parallel = new RegretComputer(k, pool).getMinimalMaxRegrets();
+    pool.shutdown();
+    assertEquals(ImmutableList.copyOf(complete.asMultimap().entries()),
+        ImmutableList.copyOf(parallel.asMultimap().entries()));
+  }
+
+  @Test
+  void testMinimalMaxRegretValueAgainst() {
+    final ImmutableList<Alternative> alternatives =
+        ImmutableList.copyOf(Generator.getAlternatives(7));
+    final UpdateablePreferenceKnowledge k = UpdateablePreferenceKnowledge
+        .given(ImmutableSet.copyOf(alternatives), Generator.getVoters(6));
+    final Random random = new Random(2);
+    for (Voter voter : k.getVoters()) {
+      final VoterPartialPreference preference = k.getPartialPreference(voter);
+      for (int i = 0; i < 4; ++i) {
+        final int better = random.nextInt(alternatives.size() - 1);
+        final int worse = better + 1 + random.nextInt(alternatives.size() - better - 1);
+        preference.asGraph().putEdge(alternatives.get(better), alternatives.get(worse));
+      }
+    }
+    k.addConstraint(1, ComparisonOperator.GE, new Apint(1));
+
+    final RegretComputer regretComputer = new RegretComputer(k);
+    final Regrets all = regretComputer.getAllPairwiseMaxRegrets();
+    final int m = alternatives.size();
+    for (int size = 1; size <= m; ++size) {
+      final ImmutableSet<Alternative> opponents =
+          ImmutableSet.copyOf(alternatives.subList(m - size, m));
+      double expected = Double.POSITIVE_INFINITY;
+      for (Alternative x : alternatives) {
+        /** The pairwise max regret of x against itself is zero. */
+        final double maxRegret = all.asMultimap().get(x).stream()
+            .filter((p) -> opponents.contains(p.getY()))
+            .mapToDouble(PairwiseMaxRegret::getPmrValue).max().orElse(0d);
+        expected = Math.min(expected, Math.max(maxRegret, 0d));
+      }
+      assertEquals(expected, regretComputer.getMinimalMaxRegretValueAgainst(opponents), 1e-9);
+    }
+  }
+
+  @Test
+  void testRanksAfterUpdate() {
+    final UpdateablePreferenceKnowledge k =
+        UpdateablePreferenceKnowledge.given(Generator.getAlternatives(3), Generator.getVoters(2));
+    final Alternative a1 = Alternative.withId(1);
+    final Alternative a2 = Alternative.withId(2);
+    final Alternative a3 = Alternative.withId(3);
+    final Voter v1 = Voter.withId(1);
+    final Voter v2 = Voter.withId(2);
+    final RegretComputer regretComputer = new RegretComputer(k);
+    assertEquals(ImmutableMap.of(v1, 3, v2, 3), regretComputer.getWorstRanksOfX(a1));
+    assertEquals(ImmutableMap.of(v1, 1, v2, 1), regretComputer.getBestRanksOfY(a1, a2));
+
+    k.update(PreferenceInformation.aboutVoter(v1, a1, a2));
+    assertEquals(ImmutableMap.of(v1, 2, v2, 3), regretComputer.getWorstRanksOfX(a1));
+    assertEquals(ImmutableMap.of(v1, 3, v2, 1), regretComputer.getBestRanksOfY(a1, a2));
+
+    final DelegatingPreferenceKnowledge delegating =
+        DelegatingPreferenceKnowledge.given(k, PreferenceInformation.aboutVoter(v2, a1, a3));
+    final RegretComputer delegatingComputer = new RegretComputer(delegating);
+    assertEquals(ImmutableMap.of(v1, 2, v2, 2), delegatingComputer.getWorstRanksOfX(a1));
+    assertEquals(ImmutableMap.of(v1, 2, v2, 3), regretComputer.getWorstRanksOfX(a1));
+  }
 }
@@ -0,0 +1,89 @@
+package io.github.oliviercailloux.minimax.regret;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.ImmutableIntArray;
+
+import io.github.oliviercailloux.jlp.elements.ComparisonOperator;
+import io.github.oliviercailloux.minimax.elicitation.OptimalWeights;
+import io.github.oliviercailloux.minimax.elicitation.WeightsProgram;
+
+class WeightCertificatesTest {
+  private static ImmutableIntArray getRandomObjective(Random random, int m) {
+    return ImmutableIntArray.copyOf(random.ints(m, -5, 6).toArray());
+  }
+
+  private static ImmutableList<Double> asDoubles(ImmutableIntArray objective) {
+    return objective.stream().asDoubleStream().boxed().collect(ImmutableList.toImmutableList());
+  }
+
+  private static double getValue(ImmutableIntArray objective, ImmutableList<Double> weights) {
+    double value = 0d;
+    for (int r = 0; r < objective.length(); ++r) {
+      value += objective.get(r) * weights.get(r);
+    }
+    return value;
+  }
+
+  private static void assertBoundsValid(WeightsProgram program, boolean convex) {
+    final int m = program.getM();
+    final Random random = new Random(0);
+    final WeightCertificates certificates = WeightCertificates.given(convex);
+    for (int i = 0; i < 10; ++i) {
+      final ImmutableIntArray objective = getRandomObjective(random, m);
+      final ImmutableList<Double> weights = program.maximize(asDoubles(objective));
+      certificates.add(objective, OptimalWeights.given(getValue(objective, weights), weights));
+    }
+    for (int i = 0; i < 50; ++i) {
+      final ImmutableIntArray objective = getRandomObjective(random, m);
+      final double maximum = getValue(objective, program.maximize(asDoubles(objective)));
+      assertTrue(certificates.getLowerBound(objective) <= maximum + 1e-9);
+      assertTrue(maximum <= certificates.getUpperBound(objective) + 1e-9);
+    }
+  }
+
+  @Test
+  void testEmpty() throws Exception {
+    final WeightCertificates certificates = WeightCertificates.given(true);
+    final ImmutableIntArray objective = ImmutableIntArray.of(1, -1, 0);
+    assertEquals(Double.NEGATIVE_INFINITY, certificates.getLowerBound(objective));
+    assertEquals(Double.POSITIVE_INFINITY, certificates.getUpperBound(objective));
+  }
+
+  @Test
+  void testSameObjective() throws Exception {
+    final WeightCertificates certificates = WeightCertificates.given(true);
+    final ImmutableIntArray objective = ImmutableIntArray.of(0, 2, -1);
+    certificates.add(objective, OptimalWeights.given(2d, ImmutableList.of(1d, 1d, 0d)));
+    assertEquals(2d, certificates.getLowerBound(objective));
+    assertEquals(2d, certificates.getUpperBound(objective));
+  }
+
+  @Test
+  void testConvex() throws Exception {
+    WeightsProgram program = WeightsProgram.withRankNumber(6);
+    for (int rank = 1; rank <= 4; ++rank) {
+      final Double[] convexity = { 0d, 0d, 0d, 0d, 0d, 0d };
+      convexity[rank - 1] = 1d;
+      convexity[rank] = -2d;
+      convexity[rank + 1] = 1d;
+      program = program.withConstraint(ImmutableList.copyOf(convexity), ComparisonOperator.GE, 0d);
+    }
+    program = program.withConstraint(ImmutableList.of(1d, -3d, 2d, 0d, 0d, 0d),
+        ComparisonOperator.LE, 0d);
+    assertBoundsValid(program, true);
+  }
+
+  @Test
+  void testNotConvex() throws Exception {
+    final WeightsProgram program = WeightsProgram.withRankNumber(5)
+        .withConstraint(ImmutableList.of(0d, 1d, -1d, 1d, 0d), ComparisonOperator.GE, 0.5d);
+    assertBoundsValid(program, false);
+  }
+}
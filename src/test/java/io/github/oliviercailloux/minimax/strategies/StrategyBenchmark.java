@@ -0,0 +1,147 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.ImmutableIntArray;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.jlp.elements.SumTerms;
+import io.github.oliviercailloux.minimax.elicitation.Oracle;
+import io.github.oliviercailloux.minimax.elicitation.PreferenceInformation;
+import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
+import io.github.oliviercailloux.minimax.regret.PairwiseMaxRegret;
+import io.github.oliviercailloux.minimax.regret.RegretComputer;
+import io.github.oliviercailloux.minimax.regret.Regrets;
+import io.github.oliviercailloux.minimax.utils.Generator;
+
+/**
+ * Measures the hot paths of an elicitation step on the knowledge obtained by asking k questions,
+ * chosen by a seeded {@link StrategyCss}, to a seeded oracle of m alternatives and n voters.
+ * <p>
+ * The knowledge is rebuilt before each invocation, by replaying the answers, so that each
+ * invocation starts with cold caches (transitive graphs, ranks and optima), as the first
+ * computation following an answer does. The benchmarks profile enables the GC profiler, whose
+ * gc.alloc.rate.norm measure gives the allocations per operation.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.library.path=lib")
+public class StrategyBenchmark {
+  @Param({ "6", "10" })
+  public int m;
+
+  @Param({ "10", "50" })
+  public int n;
+
+  @Param({ "0", "30" })
+  public int k;
+
+  private Oracle oracle;
+
+  private ImmutableList<PreferenceInformation> answers;
+
+  private UpdateablePreferenceKnowledge knowledge;
+
+  private ImmutableList<SumTerms> objectives;
+
+  @Setup(Level.Trial)
+  public void setUpAnswers() {
+    final Random random = new Random(0);
+    oracle = Generator.generateOracle(m, n, random);
+    final UpdateablePreferenceKnowledge answered =
+        UpdateablePreferenceKnowledge.given(oracle.getAlternatives(), oracle.getProfile().keySet());
+    final StrategyCss strategy = StrategyCss.newInstance();
+    strategy.setRandom(random);
+    strategy.setKnowledge(answered);
+    final ImmutableList.Builder<PreferenceInformation> answersBuilder = ImmutableList.builder();
+    for (int i = 0; i < k; ++i) {
+      final Question question = strategy.nextQuestion();
+      final PreferenceInformation answer = oracle.getPreferenceInformation(question);
+      answered.update(answer);
+      answersBuilder.add(answer);
+    }
+    answers = answersBuilder.build();
+
+    /** The terms refer to the variables of the constraints, which are equal across knowledges. */
+    final RegretComputer regretComputer = new RegretComputer(answered);
+    final ImmutableList.Builder<SumTerms> objectivesBuilder = ImmutableList.builder();
+    for (Alternative x : answered.getAlternatives()) {
+      final ImmutableIntArray histogramOfRanksOfX =
+          PairwiseMaxRegret.getHistogram(regretComputer.getWorstRanksOfX(x), m);
+      for (Alternative y : answered.getAlternatives()) {
+        objectivesBuilder.add(regretComputer.getTermScoreYMinusScoreX(
+            PairwiseMaxRegret.getHistogram(regretComputer.getBestRanksOfY(x, y), m),
+            histogramOfRanksOfX));
+      }
+    }
+    objectives = objectivesBuilder.build();
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpKnowledge() {
+    knowledge =
+        UpdateablePreferenceKnowledge.given(oracle.getAlternatives(), oracle.getProfile().keySet());
+    for (PreferenceInformation answer : answers) {
+      knowledge.update(answer);
+    }
+  }
+
+  @Benchmark
+  public void transitiveGraphs(Blackhole blackhole) {
+    for (Voter voter : knowledge.getVoters()) {
+      blackhole.consume(knowledge.getPartialPreference(voter).asTransitiveGraph());
+    }
+  }
+
+  @Benchmark
+  public Regrets minimalMaxRegrets() {
+    return new RegretComputer(knowledge).getMinimalMaxRegrets();
+  }
+
+  @Benchmark
+  public double maximize() {
+    double total = 0d;
+    for (SumTerms objective : objectives) {
+      total += knowledge.getConstraintsOnWeights().maximize(objective);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public Question nextQuestionByMmr() {
+    final StrategyByMmr strategy = StrategyByMmr.build();
+    strategy.setRandom(new Random(0));
+    strategy.setKnowledge(knowledge);
+    return strategy.nextQuestion();
+  }
+
+  @Benchmark
+  public Question nextQuestionCss() {
+    final StrategyCss strategy = StrategyCss.newInstance();
+    strategy.setRandom(new Random(0));
+    strategy.setKnowledge(knowledge);
+    return strategy.nextQuestion();
+  }
+}
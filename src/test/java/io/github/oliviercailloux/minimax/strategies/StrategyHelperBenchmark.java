@@ -0,0 +1,84 @@
+package io.github.oliviercailloux.minimax.strategies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+
+import io.github.oliviercailloux.j_voting.Alternative;
+import io.github.oliviercailloux.j_voting.Voter;
+import io.github.oliviercailloux.minimax.elicitation.QuestionVoter;
+
+/**
+ * Compares drawing a random candidate question among the sorted ones by selection, as
+ * {@link StrategyHelper#sortAndDraw(java.util.Collection, Comparator)} does, and by sorting all
+ * candidates, as it formerly did, on shuffled or sorted candidates. Both draw the same questions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyHelperBenchmark {
+  @Param({ "100", "1000", "10000" })
+  public int nbCandidates;
+
+  @Param({ "true", "false" })
+  public boolean shuffled;
+
+  private ImmutableList<QuestionVoter> candidates;
+
+  private StrategyHelper helper;
+
+  private Random random;
+
+  @Setup(Level.Trial)
+  public void setUpCandidates() {
+    final List<QuestionVoter> questions = new ArrayList<>();
+    for (int v = 1; questions.size() < nbCandidates; ++v) {
+      for (int a = 1; a <= 10 && questions.size() < nbCandidates; ++a) {
+        for (int b = a + 1; b <= 10 && questions.size() < nbCandidates; ++b) {
+          questions.add(
+              QuestionVoter.given(Voter.withId(v), Alternative.withId(a), Alternative.withId(b)));
+        }
+      }
+    }
+    if (shuffled) {
+      Collections.shuffle(questions, new Random(0));
+    }
+    candidates = ImmutableList.copyOf(questions);
+    helper = StrategyHelper.newInstance();
+    helper.setRandom(new Random(0));
+    random = new Random(0);
+  }
+
+  @Benchmark
+  public QuestionVoter select() {
+    return helper.sortAndDraw(candidates, Comparator.naturalOrder());
+  }
+
+  @Benchmark
+  public QuestionVoter sort() {
+    final int i = random.nextInt(candidates.size());
+    return Iterators.get(candidates.stream().sorted().iterator(), i);
+  }
+}
@@ -2,9 +2,15 @@ package io.github.oliviercailloux.minimax.strategies;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.ImmutableGraph;
@@ -52,4 +58,30 @@ public class StrategyHelperTests {
     helper.setKnowledge(k);
     assertEquals(ImmutableSet.of(), helper.getQuestionableVoters());
   }
+
+  /**
+   * Draws as the former implementation, which sorted the whole candidates, did for the same seed,
+   * including when some candidates are equivalent.
+   */
+  @Test
+  void testSortAndDraw() {
+    final Comparator<String> byLength = Comparator.comparing(String::length);
+    final Random generator = new Random(0);
+    for (int size = 1; size <= 60; ++size) {
+      final ImmutableList.Builder<String> builder = ImmutableList.builder();
+      for (int i = 0; i < size; ++i) {
+        builder.add("a".repeat(generator.nextInt(5)) + i);
+      }
+      final ImmutableList<String> candidates = builder.build();
+
+      final StrategyHelper helper = StrategyHelper.newInstance();
+      helper.setRandom(new Random(size));
+      final Random expectedRandom = new Random(size);
+      for (int draw = 0; draw < 20; ++draw) {
+        final int i = expectedRandom.nextInt(candidates.size());
+        final Iterator<String> it = candidates.stream().sorted(byLength).iterator();
+        assertEquals(Iterators.get(it, i), helper.sortAndDraw(candidates, byLength));
+      }
+    }
+  }
 }
@@ -2,9 +2,13 @@ package io.github.oliviercailloux.minimax.strategies;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apfloat.Apint;
 import org.apfloat.Aprational;
@@ -17,6 +21,7 @@ import io.github.oliviercailloux.j_voting.Generator;
 import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.minimax.elicitation.UpdateablePreferenceKnowledge;
 import io.github.oliviercailloux.minimax.elicitation.Question;
+import io.github.oliviercailloux.minimax.elicitation.QuestionType;
 
 public class StrategyPessimisticTest {
 
@@ -115,4 +120,128 @@ public class StrategyPessimisticTest {
     final Question q5 = Question.toCommittee(ap, 1);
     assertEquals(ImmutableSet.of(q1, q2, q3, q4, q5), s.getLastQuestions().keySet());
   }
+
+  @Test
+  void testParallelAsSequential() {
+    final UpdateablePreferenceKnowledge k = getKnowledgeAboutTwoVoters();
+    final StrategyByMmr sequential = seeded(StrategyByMmr.build(), k);
+    final StrategyByMmr parallel = seeded(StrategyByMmr.build(), k);
+    final ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      parallel.setPool(pool);
+      assertEquals(3, parallel.getParallelism());
+
+      assertEquals(sequential.nextQuestion(), parallel.nextQuestion());
+      assertEquals(sequential.getLastQuestions().entrySet().asList(),
+          parallel.getLastQuestions().entrySet().asList());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testPruningAsUnpruned() {
+    final UpdateablePreferenceKnowledge k = getKnowledgeAboutTwoVoters();
+    final StrategyByMmr unpruned = seeded(StrategyByMmr.build(), k);
+    final StrategyByMmr pruned = seeded(StrategyByMmr.build(), k);
+    pruned.setPruning(true);
+
+    assertEquals(unpruned.nextQuestion(), pruned.nextQuestion());
+    assertEquals(unpruned.getLastQuestions().size(),
+        pruned.getLastQuestions().size() + pruned.getLastNbPruned());
+    for (Question question : pruned.getLastQuestions().keySet()) {
+      assertEquals(unpruned.getLastQuestions().get(question),
+          pruned.getLastQuestions().get(question));
+    }
+    assertEquals(0, unpruned.getLastNbPruned());
+  }
+
+  @Test
+  void testSampled() {
+    final UpdateablePreferenceKnowledge k = getKnowledge();
+    final StrategyByMmr all = seeded(StrategyByMmr.build(), k);
+    final Question allQuestion = all.nextQuestion();
+    final ImmutableSet<Question> allVoterQuestions = all.getLastQuestions().keySet().stream()
+        .filter(q -> q.getType() == QuestionType.VOTER_QUESTION)
+        .collect(ImmutableSet.toImmutableSet());
+    assertEquals(17, allVoterQuestions.size());
+
+    final StrategyByMmr sampled = seeded(StrategyByMmr.sampled(MmrLottery.MAX_COMPARATOR, 5), k);
+    sampled.nextQuestion();
+    final ImmutableSet<Question> sampledVoterQuestions = sampled.getLastQuestions().keySet()
+        .stream().filter(q -> q.getType() == QuestionType.VOTER_QUESTION)
+        .collect(ImmutableSet.toImmutableSet());
+    assertEquals(5, sampledVoterQuestions.size());
+    assertTrue(allVoterQuestions.containsAll(sampledVoterQuestions));
+    /** The sample is spread over the three voters. */
+    assertEquals(3, sampledVoterQuestions.stream().map(q -> q.asQuestionVoter().getVoter())
+        .distinct().count());
+    for (Question question : sampledVoterQuestions) {
+      assertEquals(all.getLastQuestions().get(question), sampled.getLastQuestions().get(question));
+    }
+
+    final StrategyByMmr large = seeded(StrategyByMmr.sampled(MmrLottery.MAX_COMPARATOR, 17), k);
+    assertEquals(allQuestion, large.nextQuestion());
+    assertEquals(all.getLastQuestions(), large.getLastQuestions());
+
+    final StrategyFactory factory = StrategyFactory.sampled(0l, MmrLottery.MAX_COMPARATOR, 5);
+    assertEquals(factory.toJson(), StrategyFactory.fromJson(factory.toJson()).toJson());
+  }
+
+  @Test
+  void testDeadline() {
+    final UpdateablePreferenceKnowledge k = getKnowledge();
+
+    final StrategyWithDeadline unbounded =
+        seeded(StrategyWithDeadline.newInstance(Duration.ofMinutes(10)), k);
+    unbounded.nextQuestion();
+    /** The 17 voter questions and the two committee questions. */
+    assertEquals(AnytimeSelection.given(Duration.ofMinutes(10).toNanos(), 19, 19, false),
+        unbounded.getLastSelection());
+
+    final StrategyWithDeadline immediate =
+        seeded(StrategyWithDeadline.newInstance(Duration.ZERO), k);
+    final Question question = immediate.nextQuestion();
+    assertEquals(AnytimeSelection.given(0l, 19, 0, true), immediate.getLastSelection());
+    assertEquals(QuestionType.VOTER_QUESTION, question.getType());
+  }
+
+  /**
+   * @return knowledge about four alternatives and three voters, where voter 1 prefers 1 to 2.
+   */
+  private static UpdateablePreferenceKnowledge getKnowledge() {
+    final UpdateablePreferenceKnowledge k =
+        UpdateablePreferenceKnowledge.given(Generator.getAlternatives(4), Generator.getVoters(3));
+    k.getProfile().get(Voter.withId(1)).asGraph().putEdge(Alternative.withId(1),
+        Alternative.withId(2));
+    return k;
+  }
+
+  /**
+   * @return as {@link #getKnowledge()}, where voter 2 also prefers 3 to 1.
+   */
+  private static UpdateablePreferenceKnowledge getKnowledgeAboutTwoVoters() {
+    final UpdateablePreferenceKnowledge k = getKnowledge();
+    k.getProfile().get(Voter.withId(2)).asGraph().putEdge(Alternative.withId(3),
+        Alternative.withId(1));
+    return k;
+  }
+
+  /**
+   * Sets the given knowledge and a random generator seeded with zero.
+   *
+   * @return the given strategy.
+   */
+  private static StrategyByMmr seeded(StrategyByMmr strategy, UpdateablePreferenceKnowledge k) {
+    strategy.setKnowledge(k);
+    strategy.setRandom(new Random(0));
+    return strategy;
+  }
+
+  private static StrategyWithDeadline seeded(StrategyWithDeadline strategy,
+      UpdateablePreferenceKnowledge k) {
+    strategy.setKnowledge(k);
+    strategy.setRandom(new Random(0));
+    return strategy;
+  }
 }
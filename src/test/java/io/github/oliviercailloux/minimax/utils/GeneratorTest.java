@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -15,6 +16,7 @@ import com.google.common.collect.UnmodifiableIterator;
 import io.github.oliviercailloux.j_voting.Alternative;
 import io.github.oliviercailloux.j_voting.Voter;
 import io.github.oliviercailloux.j_voting.VoterStrictPreference;
+import io.github.oliviercailloux.minimax.elicitation.Oracle;
 import io.github.oliviercailloux.minimax.elicitation.PSRWeights;
 
 public class GeneratorTest {
@@ -69,4 +71,10 @@ public class GeneratorTest {
     }
 
   }
+
+  @Test
+  public void testGenOracleSeeded() {
+    final Oracle oracle = Generator.generateOracle(6, 4, new Random(0));
+    assertEquals(oracle, Generator.generateOracle(6, 4, new Random(0)));
+  }
 }